@@ -0,0 +1,104 @@
+package com.scott.schedule.algorithm;
+
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+
+/**
+ * 自适应算子参数控制器
+ * 根据种群多样性逐代调整变异概率和锦标赛规模：
+ * 多样性坍缩时提高变异概率、降低选择压力，帮助种群跳出局部最优；
+ * 种群仍在探索时降低变异概率、提高选择压力，加快收敛
+ *
+ * 多样性使用适应度的变异系数（标准差 / 均值）衡量，直接读取适应度计算时
+ * 由 ConvergenceTracker 增量维护的均值和方差，不需要像
+ * GeneticAlgorithmUtils.calculatePopulationDiversity 那样每代对全部基因做一次去重遍历；
+ * 再做指数平滑，避免单代波动引起参数抖动
+ *
+ * 每次运行创建一个实例，update 在进化主循环线程上每代调用一次
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public class AdaptiveOperatorController {
+
+    /**
+     * 多样性指数平滑系数
+     */
+    private static final double SMOOTHING = 0.3;
+
+    /**
+     * 每次调整变异概率的倍数
+     */
+    private static final double MUTATION_STEP = 1.5;
+
+    private final GeneticAlgorithmConfig config;
+    private final boolean enabled;
+
+    private double diversity = Double.NaN;
+
+    private double crossoverRate;
+    private double mutationRate;
+    private int tournamentSize;
+
+    /**
+     * 创建控制器，初始参数取自配置
+     *
+     * @param config 遗传算法配置
+     */
+    public AdaptiveOperatorController(GeneticAlgorithmConfig config) {
+        this.config = config;
+        this.enabled = config.isAdaptiveRatesEnabled();
+        this.crossoverRate = config.getCrossoverRate();
+        this.mutationRate = config.getMutationRate();
+        this.tournamentSize = config.getTournamentSize();
+    }
+
+    /**
+     * 结束当前代：根据本代适应度统计更新多样性并调整算子参数
+     *
+     * @param fitnessStats 本代适应度的统计量
+     */
+    public void update(ConvergenceTracker fitnessStats) {
+        if (fitnessStats.getCount() == 0) {
+            return;
+        }
+
+        double mean = fitnessStats.getMean();
+        double standardDeviation = fitnessStats.getStandardDeviation();
+        double current = mean > 0 ? standardDeviation / mean : 0.0;
+        diversity = Double.isNaN(diversity) ? current : SMOOTHING * current + (1 - SMOOTHING) * diversity;
+
+        if (!enabled) {
+            return;
+        }
+        if (diversity < config.getDiversityLowThreshold()) {
+            mutationRate = Math.min(config.getMaxMutationRate(), mutationRate * MUTATION_STEP);
+            tournamentSize = Math.max(config.getMinTournamentSize(), tournamentSize - 1);
+        } else if (diversity > config.getDiversityHighThreshold()) {
+            mutationRate = Math.max(config.getMinMutationRate(), mutationRate / MUTATION_STEP);
+            tournamentSize = Math.min(config.getMaxTournamentSize(), tournamentSize + 1);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取平滑后的种群多样性，尚未更新时为NaN
+     */
+    public double getDiversity() {
+        return diversity;
+    }
+
+    public double getCrossoverRate() {
+        return crossoverRate;
+    }
+
+    public double getMutationRate() {
+        return mutationRate;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+}
@@ -0,0 +1,157 @@
+package com.scott.schedule.algorithm;
+
+/**
+ * 收敛跟踪器
+ * 使用 Welford 算法增量维护一组数值的均值和方差，收敛判断只需读取当前统计量，
+ * 时间复杂度为O(1)，不需要每次判断都遍历整个种群或整个信息素矩阵
+ *
+ * 除逐个加入数值外，还支持移除、替换单个数值以及整体按比例缩放，
+ * 可用于跟踪固定大小集合（如信息素表）在沉积和挥发过程中的分布变化
+ *
+ * 所有方法都是同步的，可在线程间共享；需要结果可复现时应在单个线程中按固定顺序加入数值
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public class ConvergenceTracker {
+
+    private long count;
+    private double mean;
+
+    /**
+     * 与均值之差的平方和
+     */
+    private double m2;
+
+    /**
+     * 加入过的最大值，只在仅调用 add 的场景下有意义
+     */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * 清空统计量
+     */
+    public synchronized void reset() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * 将统计量设置为 n 个相同数值
+     *
+     * @param n 数值个数
+     * @param value 数值
+     */
+    public synchronized void fill(long n, double value) {
+        count = n;
+        mean = n > 0 ? value : 0.0;
+        m2 = 0.0;
+        max = n > 0 ? value : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * 加入一个数值
+     *
+     * @param value 数值
+     */
+    public synchronized void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * 移除一个之前加入的数值
+     *
+     * @param value 数值
+     */
+    public synchronized void remove(double value) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0.0;
+            m2 = 0.0;
+            return;
+        }
+        double oldMean = mean;
+        count--;
+        mean = (oldMean * (count + 1) - value) / count;
+        m2 = Math.max(0.0, m2 - (value - oldMean) * (value - mean));
+    }
+
+    /**
+     * 将集合中的一个数值替换为新值，集合大小不变
+     *
+     * @param oldValue 原数值
+     * @param newValue 新数值
+     */
+    public synchronized void replace(double oldValue, double newValue) {
+        if (count == 0) {
+            return;
+        }
+        double oldMean = mean;
+        mean += (newValue - oldValue) / count;
+        m2 = Math.max(0.0, m2 + (newValue - oldValue) * (newValue - mean + oldValue - oldMean));
+        max = Math.max(max, newValue);
+    }
+
+    /**
+     * 将集合中所有数值乘以同一系数
+     *
+     * @param factor 缩放系数
+     */
+    public synchronized void scale(double factor) {
+        mean *= factor;
+        m2 *= factor * factor;
+        max *= factor;
+    }
+
+    /**
+     * 按总和与平方和的变化量批量更新统计量
+     * 用于合并并行计算的一批替换、加入操作，合并结果与各批次内部的执行顺序无关
+     *
+     * @param countDelta 数值个数的变化量
+     * @param sumDelta 数值总和的变化量
+     * @param sumOfSquaresDelta 数值平方和的变化量
+     */
+    public synchronized void applyDelta(long countDelta, double sumDelta, double sumOfSquaresDelta) {
+        long newCount = count + countDelta;
+        if (newCount <= 0) {
+            count = 0;
+            mean = 0.0;
+            m2 = 0.0;
+            return;
+        }
+        double sum = mean * count + sumDelta;
+        double sumOfSquares = m2 + mean * mean * count + sumOfSquaresDelta;
+        count = newCount;
+        mean = sum / newCount;
+        m2 = Math.max(0.0, sumOfSquares - sum * mean);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMean() {
+        return mean;
+    }
+
+    /**
+     * 获取总体方差
+     */
+    public synchronized double getVariance() {
+        return count > 0 ? m2 / count : 0.0;
+    }
+
+    public synchronized double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public synchronized double getMax() {
+        return max;
+    }
+}
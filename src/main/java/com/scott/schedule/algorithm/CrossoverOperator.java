@@ -1,6 +1,10 @@
 package com.scott.schedule.algorithm;
 
+import com.scott.schedule.common.enums.CrossoverType;
+
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 交叉操作接口
@@ -9,6 +13,13 @@ import java.util.List;
  * @since 2025/8/29
  */
 public interface CrossoverOperator {
+
+    /**
+     * 获取交叉类型
+     *
+     * @return 该操作实现的交叉类型
+     */
+    CrossoverType getType();
     
     /**
      * 对选中的个体进行交叉操作
@@ -16,5 +27,30 @@ public interface CrossoverOperator {
      * @param selected 选中的个体列表
      * @return 交叉后的后代列表
      */
-    List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected);
+    default List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected) {
+        return crossover(selected, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定随机数流对选中的个体进行交叉操作
+     *
+     * @param selected 选中的个体列表
+     * @param random 本次运行分配给调用线程的随机数流
+     * @return 交叉后的后代列表
+     */
+    List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected, RandomGenerator random);
+
+    /**
+     * 使用指定交叉概率对选中的个体进行交叉操作
+     * 供自适应控制器逐代调整交叉概率，不支持该参数的实现忽略它
+     *
+     * @param selected 选中的个体列表
+     * @param crossoverRate 每对父代发生交叉的概率
+     * @param random 本次运行分配给调用线程的随机数流
+     * @return 交叉后的后代列表
+     */
+    default List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected, double crossoverRate,
+                                               RandomGenerator random) {
+        return crossover(selected, random);
+    }
 }
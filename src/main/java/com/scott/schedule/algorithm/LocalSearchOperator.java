@@ -0,0 +1,37 @@
+package com.scott.schedule.algorithm;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * 局部搜索操作接口
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public interface LocalSearchOperator {
+
+    /**
+     * 对课表进行有限步数的局部搜索，结果直接保存在评估器中
+     *
+     * @param evaluator 课表增量评估器
+     * @param budget 最多尝试的移动次数
+     * @param random 随机数流
+     * @return 约束违反数的总变化量，负数表示改进
+     */
+    int improve(TimetableEvaluator evaluator, int budget, RandomGenerator random);
+
+    /**
+     * 对染色体进行局部搜索，并将结果及适应度写回染色体
+     *
+     * @param chromosome 以节课索引为键的染色体，必须关联排课问题
+     * @param budget 最多尝试的移动次数
+     * @param random 随机数流
+     * @return 约束违反数的总变化量
+     */
+    default int improve(ScheduleChromosome chromosome, int budget, RandomGenerator random) {
+        TimetableEvaluator evaluator = TimetableEvaluator.of(chromosome.getProblem(), chromosome);
+        int delta = improve(evaluator, budget, random);
+        evaluator.writeTo(chromosome);
+        return delta;
+    }
+}
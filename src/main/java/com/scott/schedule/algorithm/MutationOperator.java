@@ -1,6 +1,8 @@
 package com.scott.schedule.algorithm;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 变异操作接口
@@ -15,5 +17,27 @@ public interface MutationOperator {
      * 
      * @param population 待变异的种群
      */
-    void mutate(List<ScheduleChromosome> population);
+    default void mutate(List<ScheduleChromosome> population) {
+        mutate(population, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定随机数流对个体进行变异操作
+     *
+     * @param population 待变异的种群
+     * @param random 本次运行分配给调用线程的随机数流
+     */
+    void mutate(List<ScheduleChromosome> population, RandomGenerator random);
+
+    /**
+     * 使用指定变异概率对个体进行变异操作
+     * 供自适应控制器逐代调整变异概率，不支持该参数的实现忽略它
+     *
+     * @param population 待变异的种群
+     * @param mutationRate 每个个体发生变异的概率
+     * @param random 本次运行分配给调用线程的随机数流
+     */
+    default void mutate(List<ScheduleChromosome> population, double mutationRate, RandomGenerator random) {
+        mutate(population, random);
+    }
 }
@@ -0,0 +1,22 @@
+package com.scott.schedule.algorithm;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * 修复操作接口
+ * 将交叉或变异产生的冲突课程重新安排到空闲的时间段和教室
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public interface RepairOperator {
+
+    /**
+     * 修复染色体中的冲突
+     *
+     * @param chromosome 以节课索引为键的染色体，必须关联排课问题
+     * @param random 随机数流
+     * @return 被重新安排的节课数量
+     */
+    int repair(ScheduleChromosome chromosome, RandomGenerator random);
+}
@@ -1,9 +1,13 @@
 package com.scott.schedule.algorithm;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 排课染色体，表示一个课程安排方案
@@ -30,20 +34,67 @@ public class ScheduleChromosome implements Cloneable {
      */
     private int constraintViolations;
 
+    /**
+     * 编译后的排课问题
+     * 不为空时基因以节课索引为键，各ID字段为问题中的稠密索引；为空时使用模拟数据
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ScheduleProblem problem;
+
     public ScheduleChromosome() {
         this.genes = new HashMap<>();
         this.fitness = 0.0;
         this.constraintViolations = 0;
     }
 
+    public ScheduleChromosome(ScheduleProblem problem) {
+        this();
+        this.problem = problem;
+    }
+
     /**
      * 随机初始化染色体
      */
     public void randomize() {
+        randomize(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定随机数流初始化染色体
+     *
+     * @param random 随机数生成器
+     */
+    public void randomize(RandomGenerator random) {
         // 根据实际的课程、教师、教室、时间段数据进行随机初始化
         
         // 清空现有基因
         genes.clear();
+
+        if (problem != null) {
+            // 为每节课随机选择可用的时间段和该时间段不在维护中的教室
+            for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+                int[] slots = problem.lessonSlots(lesson);
+                int[] rooms = problem.lessonRooms(lesson);
+                int first = random.nextInt(slots.length);
+                int roomStart = random.nextInt(rooms.length);
+                int slot = slots[first];
+                int room = problem.findOpenRoom(lesson, slot, roomStart);
+                for (int k = 1; room < 0 && k < slots.length; k++) {
+                    slot = slots[(first + k) % slots.length];
+                    room = problem.findOpenRoom(lesson, slot, roomStart);
+                }
+                if (room < 0) {
+                    // 可用教室在所有可用时间段都在维护中，只能违反约束，由评估计入冲突
+                    slot = slots[first];
+                    room = rooms[roomStart];
+                }
+                genes.put((long) lesson, problem.toGene(lesson, slot, room));
+            }
+            fitness = 0.0;
+            constraintViolations = 0;
+            return;
+        }
         
         // 获取所有可用的课程、教师、教室、时间段数据
         // 注意：这里需要注入相应的服务来获取数据
@@ -59,10 +110,10 @@ public class ScheduleChromosome implements Cloneable {
         // 随机生成课程安排
         for (Long courseId : courseIds) {
             // 随机选择教师、教室、时间段、班级
-            Long randomTeacher = teacherIds[(int) (Math.random() * teacherIds.length)];
-            Long randomClassroom = classroomIds[(int) (Math.random() * classroomIds.length)];
-            Long randomTimeSlot = timeSlotIds[(int) (Math.random() * timeSlotIds.length)];
-            Long randomClass = classIds[(int) (Math.random() * classIds.length)];
+            Long randomTeacher = teacherIds[random.nextInt(teacherIds.length)];
+            Long randomClassroom = classroomIds[random.nextInt(classroomIds.length)];
+            Long randomTimeSlot = timeSlotIds[random.nextInt(timeSlotIds.length)];
+            Long randomClass = classIds[random.nextInt(classIds.length)];
             
             // 创建课程安排
             CourseSchedule courseSchedule = new CourseSchedule(
@@ -0,0 +1,474 @@
+package com.scott.schedule.algorithm;
+
+import com.scott.schedule.model.Classroom;
+import com.scott.schedule.model.Course;
+import com.scott.schedule.model.Teacher;
+import com.scott.schedule.model.TimeSlot;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * 编译后的排课问题
+ * 将课程、教师、教室、时间段数据转换为稠密整数索引，供各排课算法共享
+ *
+ * 每门课程按每周课时拆分为若干节课（lesson），节课是算法中的基本决策单元，
+ * 每节课需要分配一个时间段和一个教室。染色体中的基因以节课索引为键，
+ * CourseSchedule 中的各ID字段保存的是对应的稠密索引
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class ScheduleProblem {
+
+    private final List<Course> courses;
+    private final List<Teacher> teachers;
+    private final List<Classroom> classrooms;
+    private final List<TimeSlot> timeSlots;
+
+    /**
+     * 班级ID列表，没有班级的课程使用以课程ID命名的虚拟班级
+     */
+    private final List<String> classIds;
+
+    /**
+     * 节课所属课程、教师、班级索引
+     */
+    private final int[] lessonCourse;
+    private final int[] lessonTeacher;
+    private final int[] lessonClass;
+
+    /**
+     * 教室容量
+     */
+    private final int[] roomCapacity;
+
+    /**
+     * 时间段所在星期（1-7）
+     */
+    private final int[] slotDay;
+
+    /**
+     * 每节课可用的时间段（时间段可用且教师可用）
+     */
+    private final int[][] lessonSlots;
+
+    /**
+     * 每节课可用的教室（教室可用、类型匹配且容量足够）
+     */
+    private final int[][] lessonRooms;
+
+    /**
+     * 每节课可用时间段和教室的位图，用于O(1)判断取值是否在域内
+     */
+    private final long[][] lessonSlotMask;
+    private final long[][] lessonRoomMask;
+
+    /**
+     * 每个教室处于维护中的时间段位图
+     */
+    private final long[][] roomMaintenanceMask;
+
+    /**
+     * 教室所属的等价类：类型、容量、设备、是否可用和维护时间段都相同的教室可以互换，
+     * 交换同一时间段内两间等价教室上的节课不改变课表是否可行
+     */
+    private final int[] roomClass;
+
+    /**
+     * 输入数据的指纹，数据内容不变时指纹不变，用于缓存由数据派生的计算结果
+     */
+    private final long fingerprint;
+
+    private ScheduleProblem(List<Course> courses, List<Teacher> teachers,
+                            List<Classroom> classrooms, List<TimeSlot> timeSlots,
+                            List<String> classIds, int[] lessonCourse, int[] lessonTeacher,
+                            int[] lessonClass, int[] roomCapacity, int[] slotDay,
+                            int[][] lessonSlots, int[][] lessonRooms, long[][] roomMaintenanceMask,
+                            int[] roomClass, long fingerprint) {
+        this.courses = courses;
+        this.teachers = teachers;
+        this.classrooms = classrooms;
+        this.timeSlots = timeSlots;
+        this.classIds = classIds;
+        this.lessonCourse = lessonCourse;
+        this.lessonTeacher = lessonTeacher;
+        this.lessonClass = lessonClass;
+        this.roomCapacity = roomCapacity;
+        this.slotDay = slotDay;
+        this.lessonSlots = lessonSlots;
+        this.lessonRooms = lessonRooms;
+        this.roomMaintenanceMask = roomMaintenanceMask;
+        this.roomClass = roomClass;
+        this.fingerprint = fingerprint;
+        this.lessonSlotMask = new long[lessonSlots.length][];
+        this.lessonRoomMask = new long[lessonRooms.length][];
+        for (int lesson = 0; lesson < lessonSlots.length; lesson++) {
+            // 同一课程的节课共享取值数组，位图也随之共享
+            boolean sameCourse = lesson > 0 && lessonSlots[lesson] == lessonSlots[lesson - 1]
+                    && lessonRooms[lesson] == lessonRooms[lesson - 1];
+            lessonSlotMask[lesson] = sameCourse ? lessonSlotMask[lesson - 1] : toMask(lessonSlots[lesson], timeSlots.size());
+            lessonRoomMask[lesson] = sameCourse ? lessonRoomMask[lesson - 1] : toMask(lessonRooms[lesson], classrooms.size());
+        }
+    }
+
+    private static long[] toMask(int[] values, int size) {
+        long[] mask = new long[(size + 63) >>> 6];
+        for (int value : values) {
+            mask[value >>> 6] |= 1L << value;
+        }
+        return mask;
+    }
+
+    /**
+     * 编译排课问题
+     *
+     * @param courses 课程列表
+     * @param teachers 教师列表
+     * @param classrooms 教室列表
+     * @param timeSlots 时间段列表
+     * @return 编译后的排课问题
+     */
+    public static ScheduleProblem compile(List<Course> courses, List<Teacher> teachers,
+                                          List<Classroom> classrooms, List<TimeSlot> timeSlots) {
+        List<Course> courseList = courses != null ? List.copyOf(courses) : List.of();
+        List<Classroom> roomList = classrooms != null ? List.copyOf(classrooms) : List.of();
+        List<TimeSlot> slotList = timeSlots != null ? List.copyOf(timeSlots) : List.of();
+
+        // 教师索引：教师列表在前，课程中引用但不存在的教师追加在后
+        List<Teacher> teacherList = new ArrayList<>(teachers != null ? teachers : List.of());
+        Map<String, Integer> teacherIndex = new HashMap<>();
+        for (int i = 0; i < teacherList.size(); i++) {
+            teacherIndex.putIfAbsent(teacherList.get(i).getId(), i);
+        }
+        for (Course course : courseList) {
+            if (!teacherIndex.containsKey(course.getTeacherId())) {
+                Teacher placeholder = new Teacher();
+                placeholder.setId(course.getTeacherId());
+                teacherIndex.put(course.getTeacherId(), teacherList.size());
+                teacherList.add(placeholder);
+            }
+        }
+
+        Map<String, Integer> slotIndex = new HashMap<>();
+        int[] slotDay = new int[slotList.size()];
+        for (int s = 0; s < slotList.size(); s++) {
+            slotIndex.put(slotList.get(s).getId(), s);
+            slotDay[s] = slotList.get(s).getDayNumber();
+        }
+
+        int[] roomCapacity = roomList.stream().mapToInt(Classroom::getCapacity).toArray();
+
+        long[][] roomMaintenanceMask = new long[roomList.size()][(slotList.size() + 63) >>> 6];
+        for (int r = 0; r < roomList.size(); r++) {
+            List<String> maintenance = roomList.get(r).getMaintenanceTimeSlots();
+            if (maintenance != null) {
+                for (String slotId : maintenance) {
+                    Integer s = slotIndex.get(slotId);
+                    if (s != null) {
+                        roomMaintenanceMask[r][s >>> 6] |= 1L << s;
+                    }
+                }
+            }
+        }
+
+        // 拆分节课
+        List<String> classIds = new ArrayList<>();
+        Map<String, Integer> classIndex = new HashMap<>();
+        int lessonCount = courseList.stream().mapToInt(c -> Math.max(1, c.getHoursPerWeek())).sum();
+        int[] lessonCourse = new int[lessonCount];
+        int[] lessonTeacher = new int[lessonCount];
+        int[] lessonClass = new int[lessonCount];
+        int[][] lessonSlots = new int[lessonCount][];
+        int[][] lessonRooms = new int[lessonCount][];
+
+        int lesson = 0;
+        for (int c = 0; c < courseList.size(); c++) {
+            Course course = courseList.get(c);
+            String classKey = course.getClassIds() != null && !course.getClassIds().isEmpty()
+                    ? course.getClassIds().get(0)
+                    : "course:" + course.getId();
+            int classIdx = classIndex.computeIfAbsent(classKey, key -> {
+                classIds.add(key);
+                return classIds.size() - 1;
+            });
+            int teacherIdx = teacherIndex.get(course.getTeacherId());
+            int[] slots = allowedSlots(teacherList.get(teacherIdx), slotList, slotIndex);
+            int[] rooms = allowedRooms(course, roomList);
+
+            for (int h = 0; h < Math.max(1, course.getHoursPerWeek()); h++) {
+                lessonCourse[lesson] = c;
+                lessonTeacher[lesson] = teacherIdx;
+                lessonClass[lesson] = classIdx;
+                lessonSlots[lesson] = slots;
+                lessonRooms[lesson] = rooms;
+                lesson++;
+            }
+        }
+
+        return new ScheduleProblem(courseList, List.copyOf(teacherList), roomList, slotList,
+                List.copyOf(classIds), lessonCourse, lessonTeacher, lessonClass,
+                roomCapacity, slotDay, lessonSlots, lessonRooms, roomMaintenanceMask,
+                roomClasses(roomList, roomMaintenanceMask),
+                fingerprint(courseList, teacherList, roomList, slotList));
+    }
+
+    /**
+     * 划分教室等价类
+     * 节课的候选教室只取决于教室是否可用、容量和类型，再要求设备和维护时间段相同，
+     * 同一类的教室对任何节课、任何时间段都可以互换
+     *
+     * @return 每间教室的等价类编号，按类中第一间教室出现的顺序编号
+     */
+    private static int[] roomClasses(List<Classroom> roomList, long[][] roomMaintenanceMask) {
+        Map<List<Object>, Integer> classIndex = new HashMap<>();
+        int[] roomClass = new int[roomList.size()];
+        for (int r = 0; r < roomList.size(); r++) {
+            Classroom room = roomList.get(r);
+            List<Object> key = Arrays.asList(room.getType(), room.getCapacity(), room.isAvailable(),
+                    room.getEquipment() != null ? new TreeSet<>(room.getEquipment()) : Set.of(),
+                    Arrays.toString(roomMaintenanceMask[r]));
+            roomClass[r] = classIndex.computeIfAbsent(key, k -> classIndex.size());
+        }
+        return roomClass;
+    }
+
+    /**
+     * 计算输入数据的指纹
+     * 按顺序组合各数据对象基于内容的哈希值，任一字段变化都会改变指纹
+     */
+    private static long fingerprint(List<Course> courses, List<Teacher> teachers,
+                                    List<Classroom> classrooms, List<TimeSlot> timeSlots) {
+        long hash = 1125899906842597L;
+        for (List<?> list : List.of(courses, teachers, classrooms, timeSlots)) {
+            hash = hash * 0x9E3779B97F4A7C15L + list.size();
+            for (Object item : list) {
+                hash = hash * 0x9E3779B97F4A7C15L + Objects.hashCode(item);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 计算教师可用的时间段
+     * 排除不可用的时间段和教师声明不可用的时间段，全部排除时退化为所有时间段
+     */
+    private static int[] allowedSlots(Teacher teacher, List<TimeSlot> slotList, Map<String, Integer> slotIndex) {
+        boolean[] blocked = new boolean[slotList.size()];
+        for (int s = 0; s < slotList.size(); s++) {
+            blocked[s] = !slotList.get(s).isAvailable();
+        }
+        if (teacher.getUnavailableTimeSlots() != null) {
+            for (String slotId : teacher.getUnavailableTimeSlots()) {
+                Integer s = slotIndex.get(slotId);
+                if (s != null) {
+                    blocked[s] = true;
+                }
+            }
+        }
+        int[] slots = IntStream.range(0, slotList.size()).filter(s -> !blocked[s]).toArray();
+        return slots.length > 0 ? slots : IntStream.range(0, slotList.size()).toArray();
+    }
+
+    /**
+     * 计算课程可用的教室
+     * 优先选择类型匹配且容量足够的可用教室，没有时放宽类型限制，
+     * 再退化为所有可用教室，最后退化为所有教室
+     */
+    private static int[] allowedRooms(Course course, List<Classroom> roomList) {
+        int[] rooms = IntStream.range(0, roomList.size())
+                .filter(r -> roomList.get(r).isAvailable() && roomList.get(r).getCapacity() >= course.getStudentCount())
+                .filter(r -> course.getCourseType() == null || course.getCourseType().accepts(roomList.get(r).getType()))
+                .toArray();
+        if (rooms.length == 0) {
+            rooms = IntStream.range(0, roomList.size())
+                    .filter(r -> roomList.get(r).isAvailable() && roomList.get(r).getCapacity() >= course.getStudentCount())
+                    .toArray();
+        }
+        if (rooms.length == 0) {
+            rooms = IntStream.range(0, roomList.size())
+                    .filter(r -> roomList.get(r).isAvailable())
+                    .toArray();
+        }
+        return rooms.length > 0 ? rooms : IntStream.range(0, roomList.size()).toArray();
+    }
+
+    /**
+     * 问题是否为空（没有节课、时间段或教室）
+     *
+     * @return 为空时返回true，此时算法无法基于真实数据求解
+     */
+    public boolean isEmpty() {
+        return lessonCourse.length == 0 || timeSlots.isEmpty() || classrooms.isEmpty();
+    }
+
+    /**
+     * 创建节课对应的基因
+     *
+     * @param lesson 节课索引
+     * @param slot 时间段索引
+     * @param room 教室索引
+     * @return 课程安排基因
+     */
+    public ScheduleChromosome.CourseSchedule toGene(int lesson, int slot, int room) {
+        return new ScheduleChromosome.CourseSchedule(
+                (long) lessonCourse[lesson],
+                (long) lessonTeacher[lesson],
+                (long) room,
+                (long) slot,
+                (long) lessonClass[lesson]
+        );
+    }
+
+    public int getLessonCount() {
+        return lessonCourse.length;
+    }
+
+    public int getSlotCount() {
+        return timeSlots.size();
+    }
+
+    public int getRoomCount() {
+        return classrooms.size();
+    }
+
+    public int getTeacherCount() {
+        return teachers.size();
+    }
+
+    public int getClassCount() {
+        return classIds.size();
+    }
+
+    public int getCourseCount() {
+        return courses.size();
+    }
+
+    public int lessonCourse(int lesson) {
+        return lessonCourse[lesson];
+    }
+
+    public int lessonTeacher(int lesson) {
+        return lessonTeacher[lesson];
+    }
+
+    public int lessonClass(int lesson) {
+        return lessonClass[lesson];
+    }
+
+    public int[] lessonSlots(int lesson) {
+        return lessonSlots[lesson];
+    }
+
+    public int[] lessonRooms(int lesson) {
+        return lessonRooms[lesson];
+    }
+
+    /**
+     * 时间段是否在节课的可用域内
+     */
+    public boolean isSlotAllowed(int lesson, int slot) {
+        return (lessonSlotMask[lesson][slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * 获取节课可用时间段的位图，调用方不得修改
+     */
+    public long[] lessonSlotMask(int lesson) {
+        return lessonSlotMask[lesson];
+    }
+
+    /**
+     * 教室是否在节课的可用域内
+     */
+    public boolean isRoomAllowed(int lesson, int room) {
+        return (lessonRoomMask[lesson][room >>> 6] & (1L << room)) != 0;
+    }
+
+    /**
+     * 教室在指定时间段是否可用（不在维护中）
+     */
+    public boolean isRoomOpen(int room, int slot) {
+        return (roomMaintenanceMask[room][slot >>> 6] & (1L << slot)) == 0;
+    }
+
+    /**
+     * 节课能否安排在指定的时间段和教室
+     * 时间段和教室都在节课可用域内，且教室在该时间段不在维护中
+     */
+    public boolean isFeasible(int lesson, int slot, int room) {
+        return isSlotAllowed(lesson, slot) && isRoomAllowed(lesson, room) && isRoomOpen(room, slot);
+    }
+
+    /**
+     * 从可用教室中的第 start 间开始循环查找在指定时间段不在维护中的教室
+     *
+     * @param lesson 节课
+     * @param slot 时间段
+     * @param start 起始位置，在 [0, lessonRooms(lesson).length) 内
+     * @return 教室索引，可用教室在该时间段都在维护中时为-1
+     */
+    public int findOpenRoom(int lesson, int slot, int start) {
+        int[] rooms = lessonRooms[lesson];
+        for (int k = 0; k < rooms.length; k++) {
+            int room = rooms[(start + k) % rooms.length];
+            if (isRoomOpen(room, slot)) {
+                return room;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取输入数据的指纹
+     *
+     * @return 课程、教师、教室、时间段数据内容的64位哈希
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int roomCapacity(int room) {
+        return roomCapacity[room];
+    }
+
+    public int slotDay(int slot) {
+        return slotDay[slot];
+    }
+
+    /**
+     * 教室所属的等价类
+     */
+    public int roomClass(int room) {
+        return roomClass[room];
+    }
+
+    /**
+     * 同一课程的前一节课，同一课程的各节课教师、班级和可用域完全相同，可以互换
+     *
+     * @return 节课索引，是课程的第一节课时为-1
+     */
+    public int previousIdenticalLesson(int lesson) {
+        return lesson > 0 && lessonCourse[lesson - 1] == lessonCourse[lesson] ? lesson - 1 : -1;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public List<Teacher> getTeachers() {
+        return teachers;
+    }
+
+    public List<Classroom> getClassrooms() {
+        return classrooms;
+    }
+
+    public List<TimeSlot> getTimeSlots() {
+        return timeSlots;
+    }
+
+    public List<String> getClassIds() {
+        return classIds;
+    }
+}
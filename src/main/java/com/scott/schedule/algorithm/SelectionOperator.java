@@ -1,6 +1,8 @@
 package com.scott.schedule.algorithm;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 选择操作接口
@@ -16,5 +18,30 @@ public interface SelectionOperator {
      * @param population 当前种群
      * @return 选择后的个体列表
      */
-    List<ScheduleChromosome> select(List<ScheduleChromosome> population);
+    default List<ScheduleChromosome> select(List<ScheduleChromosome> population) {
+        return select(population, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定随机数流从种群中选择个体
+     *
+     * @param population 当前种群
+     * @param random 本次运行分配给调用线程的随机数流
+     * @return 选择后的个体列表
+     */
+    List<ScheduleChromosome> select(List<ScheduleChromosome> population, RandomGenerator random);
+
+    /**
+     * 使用指定选择压力从种群中选择个体
+     * 供自适应控制器逐代调整选择压力，不支持该参数的实现忽略它
+     *
+     * @param population 当前种群
+     * @param tournamentSize 锦标赛规模，越大选择压力越高
+     * @param random 本次运行分配给调用线程的随机数流
+     * @return 选择后的个体列表
+     */
+    default List<ScheduleChromosome> select(List<ScheduleChromosome> population, int tournamentSize,
+                                            RandomGenerator random) {
+        return select(population, random);
+    }
 }
@@ -0,0 +1,149 @@
+package com.scott.schedule.algorithm;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 共享最优解
+ * 多个算法竞速求解同一个编译后的排课问题时，通过它无锁地交换当前最优解：
+ * 各算法提交自己找到的更优解，也可以读取其他算法的最优解用于剪枝或作为种子
+ *
+ * 提交的解用增量评估器重新计算适应度，不同算法的解按同一口径比较；
+ * 无冲突且适应度达到目标的解被接受后自动发出取消信号，其余算法在下一个检查点结束
+ *
+ * 单独运行某个算法时使用无目标的实例，只记录最优解，从不取消
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public class SharedIncumbent {
+
+    /**
+     * 所有参与者共用的编译后问题，为null时各算法自行编译
+     */
+    private final ScheduleProblem problem;
+
+    /**
+     * 目标适应度，无冲突且达到该值的解被接受后取消其余算法
+     */
+    private final double targetFitness;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicReference<Entry> best = new AtomicReference<>();
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /**
+     * 创建单独运行使用的实例，不共享问题、没有目标
+     */
+    public SharedIncumbent() {
+        this(null, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * 创建竞速使用的实例
+     *
+     * @param problem 所有参与者共用的编译后问题
+     * @param targetFitness 目标适应度
+     */
+    public SharedIncumbent(ScheduleProblem problem, double targetFitness) {
+        this.problem = problem;
+        this.targetFitness = targetFitness;
+    }
+
+    /**
+     * 提交一个解，只有严格优于当前最优解时才替换
+     * 没有关联问题、与共享问题不一致或基因不完整的解被忽略
+     *
+     * @param solution 排课解，接受时保存按增量评估器重新计算后的副本
+     * @param source 提交者名称，用于结果报告
+     * @return 是否成为新的最优解
+     */
+    public boolean offer(ScheduleChromosome solution, String source) {
+        if (solution == null || solution.getProblem() == null
+                || (problem != null && solution.getProblem() != problem)
+                || solution.getGenes().size() != solution.getProblem().getLessonCount()) {
+            return false;
+        }
+        // 先用提交者自己的适应度快速排除，避免为明显不更优的解重新评估
+        if (solution.getFitness() <= getFitness()) {
+            return false;
+        }
+
+        ScheduleChromosome copy = new ScheduleChromosome(solution.getProblem());
+        TimetableEvaluator.of(solution.getProblem(), solution).writeTo(copy);
+        Entry offered = new Entry(copy, source, (System.nanoTime() - startNanos) / 1_000_000);
+
+        Entry current;
+        do {
+            current = best.get();
+            if (current != null && current.solution().getFitness() >= copy.getFitness()) {
+                return false;
+            }
+        } while (!best.compareAndSet(current, offered));
+
+        if (copy.getConstraintViolations() == 0 && copy.getFitness() >= targetFitness) {
+            cancel();
+        }
+        return true;
+    }
+
+    /**
+     * 请求所有参与者尽快结束
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public ScheduleProblem getProblem() {
+        return problem;
+    }
+
+    public double getTargetFitness() {
+        return targetFitness;
+    }
+
+    /**
+     * 获取当前最优解
+     *
+     * @return 最优解及其来源，尚无解时为null
+     */
+    public Entry getBest() {
+        return best.get();
+    }
+
+    /**
+     * 获取当前最优解，调用方不得修改返回的染色体
+     *
+     * @return 最优解，尚无解时为null
+     */
+    public ScheduleChromosome getSolution() {
+        Entry entry = best.get();
+        return entry != null ? entry.solution() : null;
+    }
+
+    /**
+     * 获取当前最优适应度
+     *
+     * @return 最优适应度，尚无解时为0
+     */
+    public double getFitness() {
+        Entry entry = best.get();
+        return entry != null ? entry.solution().getFitness() : 0.0;
+    }
+
+    /**
+     * 最优解及其来源
+     *
+     * @param solution 重新评估后的排课解
+     * @param source 提交者名称
+     * @param elapsedMillis 从创建到提交经过的毫秒数
+     */
+    public record Entry(ScheduleChromosome solution, String source, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.scott.schedule.algorithm;
+
+/**
+ * 课表增量评估器
+ * 维护教师、教室、班级、课程在各时间段的占用计数，
+ * 单节课移动后的约束违反变化量可以在O(1)时间内计算，无需重新评估整张课表
+ *
+ * 违反数的口径与 DefaultFitnessCalculator 的硬约束一致：
+ * 同一教师、教室、班级或课程在同一时间段每多出一节课记一次冲突，
+ * 每节课安排在维护中的教室也记一次冲突
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public class TimetableEvaluator {
+
+    private final ScheduleProblem problem;
+    private final int slotCount;
+
+    /**
+     * 每节课当前的时间段和教室
+     */
+    private final int[] slots;
+    private final int[] rooms;
+
+    /**
+     * 占用计数表，下标为 实体索引 * 时间段数 + 时间段索引
+     */
+    private final int[] teacherLoad;
+    private final int[] roomLoad;
+    private final int[] classLoad;
+    private final int[] courseLoad;
+
+    /**
+     * 当前约束违反总数
+     */
+    private int violations;
+
+    /**
+     * 根据每节课的时间段和教室构建评估器
+     *
+     * @param problem 排课问题
+     * @param slots 每节课的时间段索引，评估器持有副本
+     * @param rooms 每节课的教室索引，评估器持有副本
+     */
+    public TimetableEvaluator(ScheduleProblem problem, int[] slots, int[] rooms) {
+        this.problem = problem;
+        this.slotCount = problem.getSlotCount();
+        this.slots = slots.clone();
+        this.rooms = rooms.clone();
+        this.teacherLoad = new int[problem.getTeacherCount() * slotCount];
+        this.roomLoad = new int[problem.getRoomCount() * slotCount];
+        this.classLoad = new int[problem.getClassCount() * slotCount];
+        this.courseLoad = new int[problem.getCourseCount() * slotCount];
+        for (int lesson = 0; lesson < this.slots.length; lesson++) {
+            violations += occupy(teacherLoad, problem.lessonTeacher(lesson) * slotCount + this.slots[lesson]);
+            violations += occupy(roomLoad, this.rooms[lesson] * slotCount + this.slots[lesson]);
+            violations += occupy(classLoad, problem.lessonClass(lesson) * slotCount + this.slots[lesson]);
+            violations += occupy(courseLoad, problem.lessonCourse(lesson) * slotCount + this.slots[lesson]);
+            violations += closed(this.rooms[lesson], this.slots[lesson]);
+        }
+    }
+
+    /**
+     * 从染色体构建评估器
+     *
+     * @param problem 排课问题
+     * @param chromosome 以节课索引为键的染色体
+     * @return 评估器
+     */
+    public static TimetableEvaluator of(ScheduleProblem problem, ScheduleChromosome chromosome) {
+        int lessonCount = problem.getLessonCount();
+        int[] slots = new int[lessonCount];
+        int[] rooms = new int[lessonCount];
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            ScheduleChromosome.CourseSchedule gene = chromosome.getGenes().get((long) lesson);
+            slots[lesson] = gene.timeSlotId().intValue();
+            rooms[lesson] = gene.classroomId().intValue();
+        }
+        return new TimetableEvaluator(problem, slots, rooms);
+    }
+
+    /**
+     * 计算将节课移动到新时间段和教室后的违反数变化量
+     *
+     * @param lesson 节课索引
+     * @param newSlot 新时间段
+     * @param newRoom 新教室
+     * @return 违反数变化量，负数表示改进
+     */
+    public int moveDelta(int lesson, int newSlot, int newRoom) {
+        int oldSlot = slots[lesson];
+        int oldRoom = rooms[lesson];
+        int delta = 0;
+        if (newSlot != oldSlot) {
+            delta += shiftDelta(teacherLoad, problem.lessonTeacher(lesson), oldSlot, newSlot);
+            delta += shiftDelta(classLoad, problem.lessonClass(lesson), oldSlot, newSlot);
+            delta += shiftDelta(courseLoad, problem.lessonCourse(lesson), oldSlot, newSlot);
+        }
+        if (newSlot != oldSlot || newRoom != oldRoom) {
+            int from = oldRoom * slotCount + oldSlot;
+            int to = newRoom * slotCount + newSlot;
+            delta += (roomLoad[from] > 1 ? -1 : 0) + (roomLoad[to] >= 1 ? 1 : 0);
+            delta += closed(newRoom, newSlot) - closed(oldRoom, oldSlot);
+        }
+        return delta;
+    }
+
+    /**
+     * 将节课移动到新时间段和教室
+     *
+     * @param lesson 节课索引
+     * @param newSlot 新时间段
+     * @param newRoom 新教室
+     * @return 违反数变化量
+     */
+    public int move(int lesson, int newSlot, int newRoom) {
+        int delta = moveDelta(lesson, newSlot, newRoom);
+        int oldSlot = slots[lesson];
+        int oldRoom = rooms[lesson];
+        release(teacherLoad, problem.lessonTeacher(lesson) * slotCount + oldSlot);
+        release(roomLoad, oldRoom * slotCount + oldSlot);
+        release(classLoad, problem.lessonClass(lesson) * slotCount + oldSlot);
+        release(courseLoad, problem.lessonCourse(lesson) * slotCount + oldSlot);
+        teacherLoad[problem.lessonTeacher(lesson) * slotCount + newSlot]++;
+        roomLoad[newRoom * slotCount + newSlot]++;
+        classLoad[problem.lessonClass(lesson) * slotCount + newSlot]++;
+        courseLoad[problem.lessonCourse(lesson) * slotCount + newSlot]++;
+        slots[lesson] = newSlot;
+        rooms[lesson] = newRoom;
+        violations += delta;
+        return delta;
+    }
+
+    /**
+     * 节课当前是否处于冲突中
+     *
+     * @param lesson 节课索引
+     * @return 与其他节课存在任一冲突，或教室在维护中时返回true
+     */
+    public boolean isConflicting(int lesson) {
+        int slot = slots[lesson];
+        return !problem.isRoomOpen(rooms[lesson], slot)
+                || teacherLoad[problem.lessonTeacher(lesson) * slotCount + slot] > 1
+                || roomLoad[rooms[lesson] * slotCount + slot] > 1
+                || classLoad[problem.lessonClass(lesson) * slotCount + slot] > 1
+                || courseLoad[problem.lessonCourse(lesson) * slotCount + slot] > 1;
+    }
+
+    /**
+     * 将当前课表写回染色体，并同步适应度和约束违反数
+     *
+     * @param chromosome 目标染色体
+     */
+    public void writeTo(ScheduleChromosome chromosome) {
+        for (int lesson = 0; lesson < slots.length; lesson++) {
+            chromosome.getGenes().put((long) lesson, problem.toGene(lesson, slots[lesson], rooms[lesson]));
+        }
+        chromosome.setConstraintViolations(violations);
+        chromosome.setFitness(getFitness());
+    }
+
+    /**
+     * 获取适应度，与 DefaultFitnessCalculator 的计算方式一致
+     *
+     * @return 适应度值
+     */
+    public double getFitness() {
+        return 1.0 / (1.0 + violations);
+    }
+
+    public int getViolations() {
+        return violations;
+    }
+
+    public int slotOf(int lesson) {
+        return slots[lesson];
+    }
+
+    public int roomOf(int lesson) {
+        return rooms[lesson];
+    }
+
+    public ScheduleProblem getProblem() {
+        return problem;
+    }
+
+    private int shiftDelta(int[] load, int entity, int oldSlot, int newSlot) {
+        int base = entity * slotCount;
+        return (load[base + oldSlot] > 1 ? -1 : 0) + (load[base + newSlot] >= 1 ? 1 : 0);
+    }
+
+    private int closed(int room, int slot) {
+        return problem.isRoomOpen(room, slot) ? 0 : 1;
+    }
+
+    private static int occupy(int[] load, int cell) {
+        return load[cell]++ >= 1 ? 1 : 0;
+    }
+
+    private static void release(int[] load, int cell) {
+        load[cell]--;
+    }
+}
@@ -0,0 +1,236 @@
+package com.scott.schedule.algorithm.aco;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * 候选列表采样器
+ * 为每节课保留按 τ^α·η^β 排名前 k 的候选，并为其建立 Walker 别名表，
+ * 蚂蚁每次决策只需O(1)时间采样，而不是对所有候选做一次轮盘赌
+ *
+ * η^β 在启发式信息确定后只计算一次；α=1、α=2 时 τ^α 直接用乘法计算，
+ * 其他取值才调用 Math.pow。挥发对同一节课的所有候选按相同比例衰减，
+ * 不改变相对权重，因此只有发生沉积的节课需要重建候选列表和别名表
+ *
+ * 别名表在每轮构建开始前刷新，构建期间只读，可以被多只蚂蚁并发采样
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class CandidateSampler {
+
+    private final SparsePheromoneStore store;
+    private final int listSize;
+    private final double alpha;
+
+    /**
+     * 每个候选的 η^β
+     */
+    private final float[] heuristicWeight;
+
+    /**
+     * 每节课的候选列表（候选下标）、别名表的接受概率和别名
+     */
+    private final int[][] lists;
+    private final float[][] probability;
+    private final int[][] alias;
+
+    /**
+     * 节课的信息素是否发生变化，需要重建
+     */
+    private final boolean[] dirty;
+
+    /**
+     * 创建采样器
+     *
+     * @param store 稀疏信息素表，启发式信息必须已经计算完成
+     * @param listSize 每节课保留的候选数量，不大于0时不建立候选列表
+     * @param alpha 信息素重要性参数
+     * @param beta 启发式重要性参数
+     */
+    public CandidateSampler(SparsePheromoneStore store, int listSize, double alpha, double beta) {
+        this.store = store;
+        this.listSize = listSize;
+        this.alpha = alpha;
+        this.heuristicWeight = new float[store.size()];
+        for (int candidate = 0; candidate < heuristicWeight.length; candidate++) {
+            heuristicWeight[candidate] = (float) power(store.heuristic(candidate), beta);
+        }
+        int lessonCount = store.lessonCount();
+        this.lists = new int[lessonCount][];
+        this.probability = new float[lessonCount][];
+        this.alias = new int[lessonCount][];
+        this.dirty = new boolean[lessonCount];
+        Arrays.fill(dirty, true);
+    }
+
+    /**
+     * 是否启用了候选列表采样
+     */
+    public boolean isEnabled() {
+        return listSize > 0;
+    }
+
+    /**
+     * 计算候选的选择权重 τ^α·η^β
+     *
+     * @param candidate 候选下标
+     * @return 选择权重
+     */
+    public double weight(int candidate) {
+        return power(store.pheromone(candidate), alpha) * heuristicWeight[candidate];
+    }
+
+    /**
+     * 标记节课的信息素已变化
+     *
+     * @param lesson 节课索引
+     */
+    public void markDirty(int lesson) {
+        dirty[lesson] = true;
+    }
+
+    /**
+     * 并行重建所有已变化节课的候选列表和别名表
+     */
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        IntStream.range(0, dirty.length)
+                .parallel()
+                .filter(lesson -> dirty[lesson])
+                .forEach(this::rebuild);
+    }
+
+    /**
+     * 从节课的候选列表中按权重采样一个候选
+     *
+     * @param lesson 节课索引
+     * @param random 随机数生成器
+     * @return 候选下标，未启用或节课没有候选时返回-1
+     */
+    public int sample(int lesson, RandomGenerator random) {
+        int[] list = lists[lesson];
+        if (list == null || list.length == 0) {
+            return -1;
+        }
+        int column = random.nextInt(list.length);
+        return random.nextFloat() < probability[lesson][column] ? list[column] : list[alias[lesson][column]];
+    }
+
+    /**
+     * 重建单节课的候选列表和别名表
+     */
+    private void rebuild(int lesson) {
+        int start = store.start(lesson);
+        int size = store.end(lesson) - start;
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = weight(start + i);
+        }
+
+        // 选出权重最高的 k 个候选
+        int k = Math.min(listSize, size);
+        int[] list = new int[k];
+        double[] listWeights = new double[k];
+        if (k == size) {
+            for (int i = 0; i < size; i++) {
+                list[i] = start + i;
+                listWeights[i] = weights[i];
+            }
+        } else {
+            double[] sorted = weights.clone();
+            Arrays.sort(sorted);
+            double threshold = sorted[size - k];
+            int count = 0;
+            // 先收严格大于阈值的，再用等于阈值的补足，保证恰好 k 个
+            for (int i = 0; i < size && count < k; i++) {
+                if (weights[i] > threshold) {
+                    list[count] = start + i;
+                    listWeights[count++] = weights[i];
+                }
+            }
+            for (int i = 0; i < size && count < k; i++) {
+                if (weights[i] == threshold) {
+                    list[count] = start + i;
+                    listWeights[count++] = weights[i];
+                }
+            }
+        }
+
+        buildAliasTable(lesson, list, listWeights);
+        dirty[lesson] = false;
+    }
+
+    /**
+     * 使用 Vose 方法构建别名表
+     */
+    private void buildAliasTable(int lesson, int[] list, double[] weights) {
+        int n = list.length;
+        float[] prob = new float[n];
+        int[] aliases = new int[n];
+        double total = 0.0;
+        for (double weight : weights) {
+            total += weight;
+        }
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = total > 0 ? weights[i] * n / total : 1.0;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            prob[less] = (float) scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // 剩余项由于浮点误差可能略偏离1，直接视为必然接受
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            prob[i] = 1.0f;
+            aliases[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            prob[i] = 1.0f;
+            aliases[i] = i;
+        }
+
+        lists[lesson] = list;
+        probability[lesson] = prob;
+        alias[lesson] = aliases;
+    }
+
+    /**
+     * 计算 value^exponent，对常用的指数0、1、2避免调用 Math.pow
+     */
+    private static double power(double value, double exponent) {
+        if (exponent == 1.0) {
+            return value;
+        }
+        if (exponent == 2.0) {
+            return value * value;
+        }
+        if (exponent == 0.0) {
+            return 1.0;
+        }
+        return Math.pow(value, exponent);
+    }
+}
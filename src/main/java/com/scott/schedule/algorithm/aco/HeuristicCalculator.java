@@ -0,0 +1,134 @@
+package com.scott.schedule.algorithm.aco;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.model.Classroom;
+import com.scott.schedule.model.Course;
+import com.scott.schedule.model.Teacher;
+import com.scott.schedule.model.TimeSlot;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * 启发式信息计算器
+ * 根据真实数据计算每个可行候选 (节课, 时间段, 教室) 的启发式价值 η，由以下因素相乘得到：
+ * 教室容量匹配度（学生数 / 容量）、教室类型是否与课程类型相符、
+ * 时间段是否在教师偏好内、是否为晚上时间段，以及同一课程各节课在一周内的分散程度
+ *
+ * 分散程度按节课在课程中的序号为其指定一个目标日，候选所在日越接近目标日价值越高，
+ * 使同一课程的节课倾向于分布在不同的日子
+ *
+ * 启发式价值只依赖输入数据，按节课并行计算，结果可以按数据指纹缓存复用
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class HeuristicCalculator {
+
+    /**
+     * 启发式价值下限，避免任何候选的选择概率为0
+     */
+    private static final double MIN_HEURISTIC = 0.1;
+
+    /**
+     * 教室类型与课程类型不符时的系数（仅在没有相符教室而放宽限制时出现）
+     */
+    private static final double TYPE_MISMATCH_FACTOR = 0.3;
+
+    /**
+     * 教师有偏好但时间段不在偏好内时的系数
+     */
+    private static final double NOT_PREFERRED_FACTOR = 0.7;
+
+    /**
+     * 晚上时间段的系数
+     */
+    private static final double EVENING_FACTOR = 0.6;
+
+    private HeuristicCalculator() {
+    }
+
+    /**
+     * 计算所有候选的启发式价值
+     *
+     * @param problem 排课问题
+     * @param store 按该问题构建的稀疏信息素表，只读取其候选布局
+     * @return 与候选一一对应的启发式价值
+     */
+    public static float[] compute(ScheduleProblem problem, SparsePheromoneStore store) {
+        int lessonCount = problem.getLessonCount();
+        List<TimeSlot> timeSlots = problem.getTimeSlots();
+        List<Classroom> classrooms = problem.getClassrooms();
+
+        // 时间段所在日在一周内的序号，以及是否为晚上
+        TreeSet<Integer> days = new TreeSet<>();
+        for (int slot = 0; slot < problem.getSlotCount(); slot++) {
+            days.add(problem.slotDay(slot));
+        }
+        List<Integer> dayList = List.copyOf(days);
+        int[] slotDayRank = new int[problem.getSlotCount()];
+        boolean[] evening = new boolean[problem.getSlotCount()];
+        for (int slot = 0; slot < slotDayRank.length; slot++) {
+            slotDayRank[slot] = dayList.indexOf(problem.slotDay(slot));
+            evening[slot] = timeSlots.get(slot).isEvening();
+        }
+
+        // 节课在所属课程中的序号，同一课程的节课索引连续
+        int[] ordinal = new int[lessonCount];
+        for (int lesson = 1; lesson < lessonCount; lesson++) {
+            if (problem.lessonCourse(lesson) == problem.lessonCourse(lesson - 1)) {
+                ordinal[lesson] = ordinal[lesson - 1] + 1;
+            }
+        }
+
+        // 教师偏好时间段，没有偏好时为null
+        List<Teacher> teachers = problem.getTeachers();
+        List<Set<String>> preferred = teachers.stream()
+                .map(teacher -> teacher.getPreferredTimeSlots() == null || teacher.getPreferredTimeSlots().isEmpty()
+                        ? null
+                        : (Set<String>) new HashSet<>(teacher.getPreferredTimeSlots()))
+                .toList();
+
+        int dayCount = Math.max(1, dayList.size());
+        float[] values = new float[store.size()];
+        IntStream.range(0, lessonCount).parallel().forEach(lesson -> {
+            Course course = problem.getCourses().get(problem.lessonCourse(lesson));
+            Set<String> preferredSlots = preferred.get(problem.lessonTeacher(lesson));
+            int hours = Math.max(1, course.getHoursPerWeek());
+            int targetDay = ordinal[lesson] * dayCount / hours;
+
+            for (int candidate = store.start(lesson); candidate < store.end(lesson); candidate++) {
+                int slot = store.slotAt(candidate);
+                int room = store.roomAt(candidate);
+
+                double value = capacityFit(course.getStudentCount(), problem.roomCapacity(room));
+                if (course.getCourseType() != null && !course.getCourseType().accepts(classrooms.get(room).getType())) {
+                    value *= TYPE_MISMATCH_FACTOR;
+                }
+                if (preferredSlots != null && !preferredSlots.contains(timeSlots.get(slot).getId())) {
+                    value *= NOT_PREFERRED_FACTOR;
+                }
+                if (evening[slot]) {
+                    value *= EVENING_FACTOR;
+                }
+                value *= 0.5 + 0.5 / (1 + Math.abs(slotDayRank[slot] - targetDay));
+
+                values[candidate] = (float) Math.max(MIN_HEURISTIC, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * 教室容量匹配度：学生数与容量越接近越好，避免小班占用大教室
+     */
+    private static double capacityFit(int students, int capacity) {
+        if (capacity <= 0 || students <= 0) {
+            return 1.0;
+        }
+        return Math.max(MIN_HEURISTIC, Math.min(1.0, (double) students / capacity));
+    }
+}
@@ -0,0 +1,530 @@
+package com.scott.schedule.algorithm.aco;
+
+import com.scott.schedule.algorithm.ConvergenceTracker;
+import com.scott.schedule.algorithm.ScheduleProblem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * 稀疏信息素表
+ * 采用CSR（压缩稀疏行）布局，只保存每节课可行的 (时间段, 教室) 候选：
+ * 时间段在节课可用域内（时间段开放、教师未声明不可用），教室类型和容量匹配，
+ * 且教室在该时间段不在维护中
+ *
+ * 第 lesson 节课的候选位于 [offset(lesson), offset(lesson + 1)) 区间，
+ * 区间内按 时间段 * 教室数 + 教室 升序排列，可以二分查找；
+ * 信息素和启发式信息与候选一一对应，存放在连续的 float[] 中，
+ * 蚂蚁构建、挥发、沉积都只访问这一段连续内存
+ *
+ * 信息素采用带时间戳的惰性挥发：每个候选记录最后一次写入时的迭代号，
+ * 读取时按 (1-ρ)^Δ 折算并截断到 [最小值, 最大值]，每轮挥发只需把当前迭代号加一，
+ * 每轮的开销与实际沉积的候选数成正比，而不是与整张表的大小成正比。
+ * 分布统计同样增量维护：未触底的候选随挥发整体缩放，触底事件按预计的迭代号登记，
+ * 到期时把该候选从缩放部分移到下限部分
+ *
+ * 一轮中多只蚂蚁的沉积通过 depositAll 批量完成：按节课划分并行处理，
+ * 每节课只由一个线程写入，同一候选上的多次沉积按沉积者顺序先求和再写入，
+ * 不需要原子操作，结果与线程调度无关
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class SparsePheromoneStore {
+
+    private final int roomCount;
+
+    /**
+     * 每节课候选区间的起始下标，长度为节课数 + 1
+     */
+    private final int[] offsets;
+
+    /**
+     * 候选的时间段和教室
+     */
+    private final int[] slots;
+    private final int[] rooms;
+
+    /**
+     * 候选最后一次写入时的信息素浓度及写入时的迭代号
+     */
+    private final float[] pheromone;
+    private final int[] touched;
+
+    /**
+     * 候选的信息素是否已衰减到下限
+     */
+    private final boolean[] floored;
+
+    /**
+     * 候选的启发式价值
+     */
+    private final float[] heuristic;
+
+    /**
+     * 当前迭代号，每次挥发加一
+     */
+    private int now;
+
+    private double retention = 1.0;
+    private float minPheromone;
+    private float maxPheromone = Float.MAX_VALUE;
+
+    /**
+     * 衰减系数缓存，decay[Δ] = (1-ρ)^Δ
+     */
+    private double[] decay = {1.0};
+
+    /**
+     * 触底事件，键为预计触底的迭代号，值为候选下标列表
+     */
+    private final Map<Integer, IntList> floorEvents = new HashMap<>();
+
+    /**
+     * 未触底候选的信息素统计，以及已触底候选的数量
+     */
+    private final ConvergenceTracker liveStats = new ConvergenceTracker();
+    private long flooredCount;
+
+    private SparsePheromoneStore(int roomCount, int[] offsets, int[] slots, int[] rooms) {
+        this.roomCount = roomCount;
+        this.offsets = offsets;
+        this.slots = slots;
+        this.rooms = rooms;
+        this.pheromone = new float[slots.length];
+        this.touched = new int[slots.length];
+        this.floored = new boolean[slots.length];
+        this.heuristic = new float[slots.length];
+    }
+
+    /**
+     * 根据排课问题构建稀疏信息素表
+     * 某节课在排除维护时间后没有任何候选时，退化为其可用时间段与可用教室的全部组合
+     *
+     * @param problem 排课问题
+     * @return 信息素和启发式信息均为0的稀疏表
+     */
+    public static SparsePheromoneStore build(ScheduleProblem problem) {
+        int lessonCount = problem.getLessonCount();
+        int[] offsets = new int[lessonCount + 1];
+
+        // 第一遍统计每节课的候选数量
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            int count = 0;
+            for (int slot : problem.lessonSlots(lesson)) {
+                for (int room : problem.lessonRooms(lesson)) {
+                    if (problem.isRoomOpen(room, slot)) {
+                        count++;
+                    }
+                }
+            }
+            if (count == 0) {
+                count = problem.lessonSlots(lesson).length * problem.lessonRooms(lesson).length;
+            }
+            offsets[lesson + 1] = Math.addExact(offsets[lesson], count);
+        }
+
+        // 第二遍填充候选，可用域数组本身有序，按时间段、教室的顺序写入即保证区间有序
+        int[] slots = new int[offsets[lessonCount]];
+        int[] rooms = new int[offsets[lessonCount]];
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            int cursor = offsets[lesson];
+            boolean relaxed = offsets[lesson + 1] - offsets[lesson]
+                    == problem.lessonSlots(lesson).length * problem.lessonRooms(lesson).length;
+            for (int slot : problem.lessonSlots(lesson)) {
+                for (int room : problem.lessonRooms(lesson)) {
+                    if (relaxed || problem.isRoomOpen(room, slot)) {
+                        slots[cursor] = slot;
+                        rooms[cursor] = room;
+                        cursor++;
+                    }
+                }
+            }
+        }
+        return new SparsePheromoneStore(problem.getRoomCount(), offsets, slots, rooms);
+    }
+
+    /**
+     * 重置信息素
+     * 所有候选设置为初始值，迭代号归零
+     *
+     * @param initialPheromone 初始信息素浓度
+     * @param evaporationRate 挥发率 ρ
+     * @param minPheromone 信息素下限
+     * @param maxPheromone 信息素上限，不限制时传入 Float.MAX_VALUE
+     */
+    public void reset(float initialPheromone, double evaporationRate, float minPheromone, float maxPheromone) {
+        this.now = 0;
+        this.retention = 1.0 - evaporationRate;
+        this.minPheromone = minPheromone;
+        this.maxPheromone = maxPheromone;
+        this.decay = new double[]{1.0};
+        this.floorEvents.clear();
+
+        float initial = Math.min(maxPheromone, Math.max(minPheromone, initialPheromone));
+        Arrays.fill(pheromone, initial);
+        Arrays.fill(touched, 0);
+
+        boolean atFloor = initial <= minPheromone;
+        Arrays.fill(floored, atFloor);
+        flooredCount = atFloor ? pheromone.length : 0;
+        liveStats.fill(atFloor ? 0 : pheromone.length, initial);
+        if (!atFloor) {
+            for (int candidate = 0; candidate < pheromone.length; candidate++) {
+                scheduleFloorEvent(candidate);
+            }
+        }
+    }
+
+    /**
+     * 挥发一轮
+     * 只推进迭代号，并处理本轮到期的触底事件
+     */
+    public void evaporate() {
+        now++;
+        // 预先扩展衰减系数缓存，构建阶段多只蚂蚁并发读取时不再修改缓存
+        decay(now);
+        liveStats.scale(retention);
+
+        IntList events = floorEvents.remove(now);
+        if (events == null) {
+            return;
+        }
+        for (int i = 0; i < events.size; i++) {
+            int candidate = events.values[i];
+            if (!floored[candidate] && floorTime(candidate) == now) {
+                liveStats.remove(pheromone[candidate] * decay(now - touched[candidate]));
+                floored[candidate] = true;
+                flooredCount++;
+            }
+        }
+    }
+
+    /**
+     * 在候选上沉积信息素
+     *
+     * @param candidate 候选下标
+     * @param amount 沉积量
+     */
+    public void deposit(int candidate, double amount) {
+        float before = pheromone(candidate);
+        float after = (float) Math.min(maxPheromone, before + amount);
+        if (floored[candidate]) {
+            floored[candidate] = false;
+            flooredCount--;
+            liveStats.add(after);
+        } else {
+            liveStats.replace(pheromone[candidate] * decay(now - touched[candidate]), after);
+        }
+        pheromone[candidate] = after;
+        touched[candidate] = now;
+        scheduleFloorEvent(candidate);
+    }
+
+    /**
+     * 批量沉积一轮的信息素
+     * 每个沉积者的解在每节课上恰好选择一个候选，因此按节课划分即可并行，
+     * 各节课的统计量变化和触底时间先写入按节课下标的缓冲区，再按节课顺序合并，
+     * 保证固定随机种子下结果可复现
+     *
+     * @param solutions 每个沉积者在每节课选择的候选下标，小于0表示该节课不沉积
+     * @param amounts 每个沉积者的沉积量，与 solutions 一一对应
+     */
+    public void depositAll(List<int[]> solutions, double[] amounts) {
+        int depositors = solutions.size();
+        int lessonCount = lessonCount();
+        if (depositors == 0 || lessonCount == 0) {
+            return;
+        }
+        int[][] chosen = solutions.toArray(int[][]::new);
+        int[] revived = new int[lessonCount];
+        double[] sumDelta = new double[lessonCount];
+        double[] squareDelta = new double[lessonCount];
+        float[] highest = new float[lessonCount];
+
+        // 第一阶段：每节课合并同一候选上的沉积量并写入
+        IntStream.range(0, lessonCount).parallel().forEach(lesson -> {
+            for (int k = 0; k < depositors; k++) {
+                int candidate = chosen[k][lesson];
+                if (candidate < 0 || isRepeated(chosen, k, lesson)) {
+                    continue;
+                }
+                double amount = 0.0;
+                for (int j = k; j < depositors; j++) {
+                    if (chosen[j][lesson] == candidate) {
+                        amount += amounts[j];
+                    }
+                }
+                float after = (float) Math.min(maxPheromone, pheromone(candidate) + amount);
+                if (floored[candidate]) {
+                    floored[candidate] = false;
+                    revived[lesson]++;
+                    sumDelta[lesson] += after;
+                    squareDelta[lesson] += (double) after * after;
+                } else {
+                    double before = pheromone[candidate] * decay[now - touched[candidate]];
+                    sumDelta[lesson] += after - before;
+                    squareDelta[lesson] += (double) after * after - before * before;
+                }
+                pheromone[candidate] = after;
+                touched[candidate] = now;
+                highest[lesson] = Math.max(highest[lesson], after);
+            }
+        });
+
+        long revivedCount = 0;
+        double sum = 0.0;
+        double squares = 0.0;
+        float max = 0.0f;
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            revivedCount += revived[lesson];
+            sum += sumDelta[lesson];
+            squares += squareDelta[lesson];
+            max = Math.max(max, highest[lesson]);
+        }
+        flooredCount -= revivedCount;
+        liveStats.applyDelta(revivedCount, sum, squares);
+
+        // 衰减系数缓存按最大值所需的步数预先扩展，第二阶段并行计算触底时间时只读缓存
+        stepsToFloor(max);
+        int[] floorTimes = new int[lessonCount * depositors];
+        IntStream.range(0, lessonCount).parallel().forEach(lesson -> {
+            for (int k = 0; k < depositors; k++) {
+                floorTimes[lesson * depositors + k] = chosen[k][lesson] < 0 || isRepeated(chosen, k, lesson)
+                        ? Integer.MAX_VALUE
+                        : floorTime(chosen[k][lesson]);
+            }
+        });
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            for (int k = 0; k < depositors; k++) {
+                int time = floorTimes[lesson * depositors + k];
+                if (time != Integer.MAX_VALUE) {
+                    floorEvents.computeIfAbsent(time, key -> new IntList()).add(chosen[k][lesson]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 第 k 个沉积者在该节课选择的候选是否已被之前的沉积者选择过
+     */
+    private static boolean isRepeated(int[][] chosen, int k, int lesson) {
+        int candidate = chosen[k][lesson];
+        for (int j = 0; j < k; j++) {
+            if (chosen[j][lesson] == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取候选当前的信息素浓度
+     * 按上次写入后经过的迭代数折算挥发，并截断到 [最小值, 最大值]
+     *
+     * @param candidate 候选下标
+     * @return 信息素浓度
+     */
+    public float pheromone(int candidate) {
+        if (floored[candidate]) {
+            return minPheromone;
+        }
+        float value = (float) (pheromone[candidate] * decay(now - touched[candidate]));
+        return Math.max(minPheromone, value);
+    }
+
+    /**
+     * 计算候选按当前值衰减到下限以下的迭代号，不会触底时返回 Integer.MAX_VALUE
+     */
+    private int floorTime(int candidate) {
+        int steps = stepsToFloor(pheromone[candidate]);
+        return steps == Integer.MAX_VALUE ? steps : touched[candidate] + steps;
+    }
+
+    /**
+     * 计算从给定值开始衰减到下限以下所需的迭代数，不会触底时返回 Integer.MAX_VALUE
+     * 初值越大所需步数越多，对最大值调用一次即可保证较小值不再扩展衰减系数缓存
+     */
+    private int stepsToFloor(double value) {
+        if (retention >= 1.0 || value <= 0.0 || minPheromone <= 0.0f) {
+            return Integer.MAX_VALUE;
+        }
+        int steps = retention <= 0.0 ? 1
+                : Math.max(1, (int) Math.ceil(Math.log(minPheromone / value) / Math.log(retention)));
+        // 对数估算可能有一步误差，以与 pheromone() 相同的折算方式校正
+        while (value * decay(steps) >= minPheromone) {
+            steps++;
+        }
+        while (steps > 1 && value * decay(steps - 1) < minPheromone) {
+            steps--;
+        }
+        return steps;
+    }
+
+    private void scheduleFloorEvent(int candidate) {
+        int time = floorTime(candidate);
+        if (time != Integer.MAX_VALUE) {
+            floorEvents.computeIfAbsent(time, key -> new IntList()).add(candidate);
+        }
+    }
+
+    private double decay(int steps) {
+        if (steps >= decay.length) {
+            int length = Math.max(steps + 1, decay.length * 2);
+            double[] grown = Arrays.copyOf(decay, length);
+            for (int i = decay.length; i < length; i++) {
+                grown[i] = grown[i - 1] * retention;
+            }
+            decay = grown;
+        }
+        return decay[steps];
+    }
+
+    /**
+     * 信息素分布的均值
+     * 由未触底部分的增量统计和触底部分的数量合并得到，O(1)
+     */
+    public double pheromoneMean() {
+        long live = liveStats.getCount();
+        long total = live + flooredCount;
+        return total > 0 ? (live * liveStats.getMean() + flooredCount * (double) minPheromone) / total : 0.0;
+    }
+
+    /**
+     * 信息素分布的标准差，O(1)
+     */
+    public double pheromoneStandardDeviation() {
+        long live = liveStats.getCount();
+        long total = live + flooredCount;
+        if (total == 0) {
+            return 0.0;
+        }
+        double gap = liveStats.getMean() - minPheromone;
+        double m2 = liveStats.getVariance() * live + gap * gap * live * flooredCount / total;
+        return Math.sqrt(Math.max(0.0, m2 / total));
+    }
+
+    /**
+     * 查找节课在指定时间段和教室上的候选下标
+     *
+     * @param lesson 节课索引
+     * @param slot 时间段索引
+     * @param room 教室索引
+     * @return 候选下标，不可行时返回-1
+     */
+    public int find(int lesson, int slot, int room) {
+        long key = (long) slot * roomCount + room;
+        int low = offsets[lesson];
+        int high = offsets[lesson + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = (long) slots[mid] * roomCount + rooms[mid];
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 节课数量
+     */
+    public int lessonCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * 节课候选区间的起始下标（包含）
+     */
+    public int start(int lesson) {
+        return offsets[lesson];
+    }
+
+    /**
+     * 节课候选区间的结束下标（不包含）
+     */
+    public int end(int lesson) {
+        return offsets[lesson + 1];
+    }
+
+    /**
+     * 节课中候选数量的最大值，用于分配选择权重缓冲区
+     */
+    public int maxCandidates() {
+        int max = 0;
+        for (int lesson = 0; lesson + 1 < offsets.length; lesson++) {
+            max = Math.max(max, offsets[lesson + 1] - offsets[lesson]);
+        }
+        return max;
+    }
+
+    /**
+     * 候选总数
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    public int slotAt(int candidate) {
+        return slots[candidate];
+    }
+
+    public int roomAt(int candidate) {
+        return rooms[candidate];
+    }
+
+    public float heuristic(int candidate) {
+        return heuristic[candidate];
+    }
+
+    public void setHeuristic(int candidate, float value) {
+        heuristic[candidate] = value;
+    }
+
+    /**
+     * 一次性设置所有候选的启发式价值
+     *
+     * @param values 与候选一一对应的启发式价值
+     */
+    public void setHeuristics(float[] values) {
+        if (values.length != heuristic.length) {
+            throw new IllegalArgumentException("启发式价值数量与候选数量不一致");
+        }
+        System.arraycopy(values, 0, heuristic, 0, heuristic.length);
+    }
+
+    public int getIteration() {
+        return now;
+    }
+
+    /**
+     * 估算占用的内存字节数（候选的时间段、教室、信息素、时间戳、启发式各4字节，触底标记1字节，加上行偏移）
+     *
+     * @return 字节数
+     */
+    public long memoryBytes() {
+        return 21L * slots.length + 4L * offsets.length;
+    }
+
+    /**
+     * 可增长的 int 列表，避免触底事件装箱
+     */
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.scott.schedule.algorithm.csp;
+
+/**
+ * AC-3 弧一致性传播器
+ * 工作队列中保存待修正的弧 (i, j)：删除 i 的域中在 j 的域里找不到相容值的值。
+ * 某个变量的域发生删除（赋值、前向检查或修正）时只把指向它的弧加入队列，
+ * 直到队列为空或某个域为空
+ *
+ * 弧按约束图的编号用布尔数组标记是否已在队列中，同一条弧不会重复入队，
+ * 队列是容量为弧数的循环数组，传播过程中不分配对象
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class AC3Propagator implements ConstraintPropagator {
+
+    private final ConstraintGraph graph;
+
+    private final int[] queue;
+    private final boolean[] queued;
+    private int head;
+    private int count;
+
+    /**
+     * 累计修正的弧数
+     */
+    private long revisions;
+
+    public AC3Propagator(ConstraintGraph graph) {
+        this.graph = graph;
+        this.queue = new int[Math.max(1, graph.arcCount())];
+        this.queued = new boolean[graph.arcCount()];
+    }
+
+    @Override
+    public ConstraintPropagator copy() {
+        // 队列为空时没有需要复制的状态
+        return new AC3Propagator(graph);
+    }
+
+    @Override
+    public boolean propagateAll(TrailedDomains domains) {
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            enqueue(arc);
+        }
+        return drain(domains);
+    }
+
+    @Override
+    public boolean propagate(TrailedDomains domains, int changedVariable) {
+        // 删除通知已经把指向域变化变量的弧加入队列
+        return drain(domains);
+    }
+
+    @Override
+    public void removed(int variable, int value) {
+        int[] neighbours = graph.neighbours(variable);
+        for (int index = 0; index < neighbours.length; index++) {
+            enqueue(graph.reverseArc(graph.arc(variable, index)));
+        }
+    }
+
+    public long getRevisions() {
+        return revisions;
+    }
+
+    private boolean drain(TrailedDomains domains) {
+        while (count > 0) {
+            int arc = queue[head];
+            head = (head + 1) % queue.length;
+            count--;
+            queued[arc] = false;
+
+            int variable = graph.arcSource(arc);
+            int index = graph.arcIndex(arc);
+            if (!revise(domains, variable, index)) {
+                continue;
+            }
+            if (domains.size(variable) == 0) {
+                reset();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 修正弧 (variable, 第 index 个邻居)
+     *
+     * @return 是否删除了值
+     */
+    private boolean revise(TrailedDomains domains, int variable, int index) {
+        revisions++;
+        int other = graph.neighbours(variable)[index];
+        boolean removed = false;
+        for (int value = domains.next(variable, 0); value >= 0; value = domains.next(variable, value + 1)) {
+            boolean supported = false;
+            for (int otherValue = domains.next(other, 0); otherValue >= 0; otherValue = domains.next(other, otherValue + 1)) {
+                if (graph.isCompatible(variable, index, value, otherValue)) {
+                    supported = true;
+                    break;
+                }
+            }
+            if (!supported) {
+                domains.remove(variable, value, other);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private void enqueue(int arc) {
+        if (!queued[arc]) {
+            queued[arc] = true;
+            queue[(head + count) % queue.length] = arc;
+            count++;
+        }
+    }
+
+    @Override
+    public void reset() {
+        while (count > 0) {
+            queued[queue[head]] = false;
+            head = (head + 1) % queue.length;
+            count--;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.scott.schedule.algorithm.csp;
+
+import java.util.Arrays;
+
+/**
+ * 位集合表示的变量域
+ * 每个变量的域是一段 long[] 位集合，第 i 位表示第 i 个值仍在域中，并缓存域的大小；
+ * 所有变量的位集合连续存放在同一个数组中
+ *
+ * 删除、恢复、判断是否包含和判空都是单个字的位运算，取域大小是O(1)，
+ * 遍历域按字跳过空位，不需要为值创建对象
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class BitsetDomains {
+
+    /**
+     * 每个变量的位集合在 words 中的起始位置，长度为变量数 + 1
+     */
+    private final int[] wordStart;
+
+    private final long[] words;
+
+    /**
+     * 每个变量当前域的大小
+     */
+    private final int[] sizes;
+
+    /**
+     * 创建所有值都在域中的初始域
+     *
+     * @param valueCounts 每个变量的值个数
+     */
+    public BitsetDomains(int[] valueCounts) {
+        this.wordStart = new int[valueCounts.length + 1];
+        for (int variable = 0; variable < valueCounts.length; variable++) {
+            wordStart[variable + 1] = wordStart[variable] + (valueCounts[variable] + 63) / 64;
+        }
+        this.words = new long[wordStart[valueCounts.length]];
+        this.sizes = valueCounts.clone();
+        for (int variable = 0; variable < valueCounts.length; variable++) {
+            int start = wordStart[variable];
+            int full = valueCounts[variable] / 64;
+            Arrays.fill(words, start, start + full, -1L);
+            int rest = valueCounts[variable] % 64;
+            if (rest > 0) {
+                words[start + full] = (1L << rest) - 1;
+            }
+        }
+    }
+
+    /**
+     * 复制另一组域的当前状态
+     *
+     * @param other 被复制的域
+     */
+    public BitsetDomains(BitsetDomains other) {
+        this.wordStart = other.wordStart;
+        this.words = other.words.clone();
+        this.sizes = other.sizes.clone();
+    }
+
+    public boolean contains(int variable, int value) {
+        return (words[wordStart[variable] + (value >>> 6)] & (1L << value)) != 0;
+    }
+
+    /**
+     * 从域中删除一个值
+     *
+     * @return 值原本在域中时返回true
+     */
+    public boolean remove(int variable, int value) {
+        int index = wordStart[variable] + (value >>> 6);
+        long bit = 1L << value;
+        if ((words[index] & bit) == 0) {
+            return false;
+        }
+        words[index] &= ~bit;
+        sizes[variable]--;
+        return true;
+    }
+
+    /**
+     * 将之前删除的值恢复到域中
+     */
+    public void restore(int variable, int value) {
+        int index = wordStart[variable] + (value >>> 6);
+        long bit = 1L << value;
+        if ((words[index] & bit) == 0) {
+            words[index] |= bit;
+            sizes[variable]++;
+        }
+    }
+
+    public int size(int variable) {
+        return sizes[variable];
+    }
+
+    public boolean isEmpty(int variable) {
+        return sizes[variable] == 0;
+    }
+
+    /**
+     * 查找域中不小于 from 的第一个值
+     *
+     * @param variable 变量
+     * @param from 起始值
+     * @return 值编号，不存在时为-1
+     */
+    public int next(int variable, int from) {
+        int start = wordStart[variable];
+        int end = wordStart[variable + 1];
+        int index = start + (from >>> 6);
+        if (index >= end) {
+            return -1;
+        }
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index - start) * 64 + Long.numberOfTrailingZeros(word);
+            }
+            if (++index >= end) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * 获取域中所有值
+     *
+     * @param variable 变量
+     * @return 按编号升序排列的值
+     */
+    public int[] values(int variable) {
+        int[] values = new int[sizes[variable]];
+        int count = 0;
+        for (int value = next(variable, 0); value >= 0; value = next(variable, value + 1)) {
+            values[count++] = value;
+        }
+        return values;
+    }
+
+    /**
+     * 位集合占用的内存字节数（不含对象头）
+     */
+    public long memoryBytes() {
+        return words.length * 8L + sizes.length * 4L + wordStart.length * 4L;
+    }
+}
@@ -0,0 +1,198 @@
+package com.scott.schedule.algorithm.csp;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 约束图
+ * 两节课共用教师、班级、课程或至少一间候选教室时，它们之间有一条约束边，
+ * 没有边的两节课无论怎样安排都不会冲突，约束传播和前向检查只需沿边访问邻居
+ *
+ * 边分为两类：
+ * - 互斥边：共用教师、班级或课程，两节课不能在同一时间段
+ * - 教室边：只共用候选教室，两节课不能在同一时间段使用同一间教室
+ *
+ * 每条无向边拆成两条有向弧，弧按起点连续编号，弧 (i, j) 的反向弧 (j, i) 预先记录，
+ * 弧一致性算法可以用数组下标标记弧是否在工作队列中
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class ConstraintGraph {
+
+    private final CspModel model;
+
+    /**
+     * 每个变量的邻居
+     */
+    private final int[][] neighbours;
+
+    /**
+     * 与 neighbours 一一对应，是否为互斥边
+     */
+    private final boolean[][] exclusive;
+
+    /**
+     * 每个变量第一条出弧的编号，长度为变量数 + 1
+     */
+    private final int[] arcStart;
+
+    /**
+     * 每条弧的起点
+     */
+    private final int[] arcSource;
+
+    /**
+     * 每条弧的反向弧编号
+     */
+    private final int[] reverseArc;
+
+    private ConstraintGraph(CspModel model, int[][] neighbours, boolean[][] exclusive) {
+        this.model = model;
+        this.neighbours = neighbours;
+        this.exclusive = exclusive;
+        this.arcStart = new int[neighbours.length + 1];
+        for (int variable = 0; variable < neighbours.length; variable++) {
+            arcStart[variable + 1] = arcStart[variable] + neighbours[variable].length;
+        }
+        this.arcSource = new int[arcStart[neighbours.length]];
+        this.reverseArc = new int[arcStart[neighbours.length]];
+        for (int variable = 0; variable < neighbours.length; variable++) {
+            for (int index = 0; index < neighbours[variable].length; index++) {
+                int other = neighbours[variable][index];
+                arcSource[arcStart[variable] + index] = variable;
+                reverseArc[arcStart[variable] + index] = arcStart[other] + indexOf(neighbours[other], variable);
+            }
+        }
+    }
+
+    /**
+     * 由约束满足模型构建约束图
+     *
+     * @param model 约束满足模型
+     * @return 约束图
+     */
+    public static ConstraintGraph build(CspModel model) {
+        ScheduleProblem problem = model.getProblem();
+        int lessonCount = model.variableCount();
+
+        // 按候选教室分组，共用候选教室的节课之间有教室边
+        List<List<Integer>> lessonsByRoom = new ArrayList<>();
+        for (int room = 0; room < problem.getRoomCount(); room++) {
+            lessonsByRoom.add(new ArrayList<>());
+        }
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            for (int room : problem.lessonRooms(lesson)) {
+                lessonsByRoom.get(room).add(lesson);
+            }
+        }
+
+        int[][] neighbours = new int[lessonCount][];
+        boolean[][] exclusive = new boolean[lessonCount][];
+        BitSet adjacent = new BitSet(lessonCount);
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            adjacent.clear();
+            for (int room : problem.lessonRooms(lesson)) {
+                for (int other : lessonsByRoom.get(room)) {
+                    adjacent.set(other);
+                }
+            }
+            for (int other = 0; other < lessonCount; other++) {
+                if (sharesResource(problem, lesson, other)) {
+                    adjacent.set(other);
+                }
+            }
+            adjacent.clear(lesson);
+
+            neighbours[lesson] = adjacent.stream().toArray();
+            exclusive[lesson] = new boolean[neighbours[lesson].length];
+            for (int index = 0; index < neighbours[lesson].length; index++) {
+                exclusive[lesson][index] = sharesResource(problem, lesson, neighbours[lesson][index]);
+            }
+        }
+        return new ConstraintGraph(model, neighbours, exclusive);
+    }
+
+    private static boolean sharesResource(ScheduleProblem problem, int lesson, int other) {
+        return problem.lessonTeacher(other) == problem.lessonTeacher(lesson)
+                || problem.lessonClass(other) == problem.lessonClass(lesson)
+                || problem.lessonCourse(other) == problem.lessonCourse(lesson);
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int index = 0; index < values.length; index++) {
+            if (values[index] == value) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("约束图的边不对称");
+    }
+
+    public CspModel getModel() {
+        return model;
+    }
+
+    public int variableCount() {
+        return neighbours.length;
+    }
+
+    public int[] neighbours(int variable) {
+        return neighbours[variable];
+    }
+
+    /**
+     * 变量与第 index 个邻居之间是否为互斥边
+     */
+    public boolean isExclusive(int variable, int index) {
+        return exclusive[variable][index];
+    }
+
+    public int arcCount() {
+        return reverseArc.length;
+    }
+
+    /**
+     * 变量第 index 个邻居对应的出弧编号
+     */
+    public int arc(int variable, int index) {
+        return arcStart[variable] + index;
+    }
+
+    /**
+     * 弧的起点
+     */
+    public int arcSource(int arc) {
+        return arcSource[arc];
+    }
+
+    /**
+     * 弧的终点在起点邻居中的位置
+     */
+    public int arcIndex(int arc) {
+        return arc - arcStart[arcSource[arc]];
+    }
+
+    public int reverseArc(int arc) {
+        return reverseArc[arc];
+    }
+
+    /**
+     * 判断边上两个值是否相容
+     *
+     * @param variable 变量
+     * @param index 邻居在 neighbours(variable) 中的位置
+     * @param value 变量的值
+     * @param otherValue 邻居的值
+     * @return 是否相容
+     */
+    public boolean isCompatible(int variable, int index, int value, int otherValue) {
+        int other = neighbours[variable][index];
+        if (model.slotOf(variable, value) != model.slotOf(other, otherValue)) {
+            return true;
+        }
+        return !exclusive[variable][index] && model.roomOf(variable, value) != model.roomOf(other, otherValue);
+    }
+}
@@ -0,0 +1,57 @@
+package com.scott.schedule.algorithm.csp;
+
+/**
+ * 约束传播器
+ * 在约束图上删除不可能出现在任何解中的值，发现某个变量的域为空时立即返回失败
+ *
+ * 传播器不保存可撤销的状态，域删除都通过 TrailedDomains 记录在搜索状态的撤销轨迹上；
+ * 需要跟踪域变化的传播器通过 removed / restored 接收每一次删除和恢复
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public interface ConstraintPropagator {
+
+    /**
+     * 对所有约束进行传播，用于搜索开始前
+     *
+     * @param domains 可撤销的变量域
+     * @return 没有变量的域为空时返回true
+     */
+    boolean propagateAll(TrailedDomains domains);
+
+    /**
+     * 变量的域缩小（通常是被赋值）后进行传播
+     *
+     * @param domains 可撤销的变量域
+     * @param changedVariable 域发生变化的变量
+     * @return 没有变量的域为空时返回true
+     */
+    boolean propagate(TrailedDomains domains, int changedVariable);
+
+    /**
+     * 复制传播器，供复制出的搜索状态使用
+     * 只能在没有未处理通知时调用，复制品跟踪的域变化与被复制的域一致
+     *
+     * @return 独立的传播器
+     */
+    ConstraintPropagator copy();
+
+    /**
+     * 值从域中删除后的通知
+     */
+    default void removed(int variable, int value) {
+    }
+
+    /**
+     * 值恢复到域中后的通知
+     */
+    default void restored(int variable, int value) {
+    }
+
+    /**
+     * 丢弃尚未处理的通知，产生这些通知的删除在传播前就被撤销时调用
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,162 @@
+package com.scott.schedule.algorithm.csp;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+
+/**
+ * 排课约束满足模型
+ * 每节课是一个变量，变量的值是它可行的 (时间段, 教室) 组合，按时间段、教室顺序为每个变量稠密编号，
+ * 值编号可以直接作为位集合中的位下标
+ *
+ * 所有变量的值连续存放在同一组数组中，第 v 个变量的值位于 [valueStart(v), valueStart(v+1))
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class CspModel {
+
+    private final ScheduleProblem problem;
+
+    /**
+     * 每个变量第一个值在扁平数组中的位置，长度为变量数 + 1
+     */
+    private final int[] valueStart;
+
+    /**
+     * 扁平存放的每个值的时间段和教室
+     */
+    private final int[] valueSlot;
+    private final int[] valueRoom;
+
+    /**
+     * 同一变量同一时间段的值编号连续，记录每个 (变量, 时间段) 的值范围 [start, end)，
+     * 下标为 变量 × 时间段数 + 时间段
+     */
+    private final int[] slotValueStart;
+    private final int[] slotValueEnd;
+
+    private CspModel(ScheduleProblem problem, int[] valueStart, int[] valueSlot, int[] valueRoom) {
+        this.problem = problem;
+        this.valueStart = valueStart;
+        this.valueSlot = valueSlot;
+        this.valueRoom = valueRoom;
+        int slotCount = problem.getSlotCount();
+        this.slotValueStart = new int[variableCount() * slotCount];
+        this.slotValueEnd = new int[variableCount() * slotCount];
+        for (int variable = 0; variable < variableCount(); variable++) {
+            for (int value = valueCount(variable) - 1; value >= 0; value--) {
+                int index = variable * slotCount + slotOf(variable, value);
+                if (slotValueEnd[index] == 0) {
+                    slotValueEnd[index] = value + 1;
+                }
+                slotValueStart[index] = value;
+            }
+        }
+    }
+
+    /**
+     * 由编译后的排课问题构建模型，只保留教师可用、教室类型相符且教室不在维护的组合
+     *
+     * @param problem 排课问题
+     * @return 约束满足模型
+     */
+    public static CspModel build(ScheduleProblem problem) {
+        int lessonCount = problem.getLessonCount();
+        int[] valueStart = new int[lessonCount + 1];
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            int count = 0;
+            for (int slot : problem.lessonSlots(lesson)) {
+                for (int room : problem.lessonRooms(lesson)) {
+                    if (problem.isRoomOpen(room, slot)) {
+                        count++;
+                    }
+                }
+            }
+            valueStart[lesson + 1] = valueStart[lesson] + count;
+        }
+
+        int[] valueSlot = new int[valueStart[lessonCount]];
+        int[] valueRoom = new int[valueStart[lessonCount]];
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            int index = valueStart[lesson];
+            for (int slot : problem.lessonSlots(lesson)) {
+                for (int room : problem.lessonRooms(lesson)) {
+                    if (problem.isRoomOpen(room, slot)) {
+                        valueSlot[index] = slot;
+                        valueRoom[index] = room;
+                        index++;
+                    }
+                }
+            }
+        }
+        return new CspModel(problem, valueStart, valueSlot, valueRoom);
+    }
+
+    public ScheduleProblem getProblem() {
+        return problem;
+    }
+
+    public int variableCount() {
+        return valueStart.length - 1;
+    }
+
+    /**
+     * 变量的值个数，即初始域的大小
+     */
+    public int valueCount(int variable) {
+        return valueStart[variable + 1] - valueStart[variable];
+    }
+
+    /**
+     * 所有变量的值个数之和
+     */
+    public int totalValueCount() {
+        return valueStart[valueStart.length - 1];
+    }
+
+    /**
+     * 每个变量的值个数
+     */
+    public int[] valueCounts() {
+        int[] counts = new int[variableCount()];
+        for (int variable = 0; variable < counts.length; variable++) {
+            counts[variable] = valueCount(variable);
+        }
+        return counts;
+    }
+
+    public int slotOf(int variable, int value) {
+        return valueSlot[valueStart[variable] + value];
+    }
+
+    public int roomOf(int variable, int value) {
+        return valueRoom[valueStart[variable] + value];
+    }
+
+    /**
+     * 变量在时间段上第一个值的编号
+     */
+    public int slotValueStart(int variable, int slot) {
+        return slotValueStart[variable * problem.getSlotCount() + slot];
+    }
+
+    /**
+     * 变量在时间段上最后一个值的编号 + 1，该时间段没有值时与 slotValueStart 相等
+     */
+    public int slotValueEnd(int variable, int slot) {
+        return slotValueEnd[variable * problem.getSlotCount() + slot];
+    }
+
+    /**
+     * 查找 (时间段, 教室) 组合对应的值
+     *
+     * @return 值编号，该组合不在变量的初始域中时为-1
+     */
+    public int valueOf(int variable, int slot, int room) {
+        for (int value = slotValueStart(variable, slot); value < slotValueEnd(variable, slot); value++) {
+            if (roomOf(variable, value) == room) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,67 @@
+package com.scott.schedule.algorithm.csp;
+
+/**
+ * 前向检查
+ * 一节课被安排到 (时间段, 教室) 后，沿约束图立即删除邻居中与之冲突的值：
+ * - 互斥边（共用教师、班级或课程）的邻居删除该时间段的所有值
+ * - 教室边的邻居删除同一 (时间段, 教室) 组合
+ * 删除记录在撤销轨迹上，某个邻居的域被删空时立即返回失败，不必等到搜索到它
+ *
+ * 同一时间段的值编号连续，按时间段删除只访问该时间段的值，不扫描整个域
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class ForwardChecker {
+
+    private final ConstraintGraph graph;
+    private final CspModel model;
+
+    /**
+     * 累计删除的值个数
+     */
+    private long prunedValues;
+
+    public ForwardChecker(ConstraintGraph graph) {
+        this.graph = graph;
+        this.model = graph.getModel();
+    }
+
+    /**
+     * 变量被赋值后删除邻居中的冲突值
+     *
+     * @param domains 可撤销的变量域
+     * @param variable 被赋值的变量
+     * @param value 赋给变量的值
+     * @return 没有邻居的域被删空时返回true
+     */
+    public boolean check(TrailedDomains domains, int variable, int value) {
+        int slot = model.slotOf(variable, value);
+        int room = model.roomOf(variable, value);
+        int[] neighbours = graph.neighbours(variable);
+        for (int index = 0; index < neighbours.length; index++) {
+            int other = neighbours[index];
+            if (graph.isExclusive(variable, index)) {
+                int end = model.slotValueEnd(other, slot);
+                for (int otherValue = model.slotValueStart(other, slot); otherValue < end; otherValue++) {
+                    if (domains.remove(other, otherValue, variable)) {
+                        prunedValues++;
+                    }
+                }
+            } else {
+                int otherValue = model.valueOf(other, slot, room);
+                if (otherValue >= 0 && domains.remove(other, otherValue, variable)) {
+                    prunedValues++;
+                }
+            }
+            if (domains.size(other) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getPrunedValues() {
+        return prunedValues;
+    }
+}
@@ -0,0 +1,170 @@
+package com.scott.schedule.algorithm.csp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 学习到的无解组合（nogood）存储
+ * 一个 nogood 是若干 (变量, 值) 赋值，它们不能同时成立。回跳时由冲突集学习得到：
+ * 冲突集中各层的赋值已经让某个变量无值可选，以后在任何分支再次出现同样的组合都可以立即剪掉
+ *
+ * 每次赋值后检查包含该变量的 nogood：
+ * - 所有赋值都已成立：冲突，删除当前变量的值使其域为空
+ * - 只差一个未赋值变量的值：从该变量的域中删除这个值
+ * 删除的原因是 nogood 中其他已成立的赋值，回跳时它们进入冲突集
+ *
+ * 存储有容量上限，参与过剪枝或冲突的 nogood 活跃度增加，活跃度的增量随学习次数逐渐放大，
+ * 近期使用的 nogood 权重更高；存满时淘汰活跃度最低的 nogood
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class NogoodStore {
+
+    /**
+     * 活跃度衰减系数，每学习一个 nogood 增量除以该值
+     */
+    private static final double ACTIVITY_DECAY = 0.95;
+
+    private final int capacity;
+
+    private final List<Nogood> nogoods = new ArrayList<>();
+
+    /**
+     * 每个变量出现在哪些 nogood 中
+     */
+    private final List<List<Nogood>> byVariable;
+
+    private double increment = 1.0;
+
+    private long learned;
+    private long evicted;
+    private long prunings;
+
+    /**
+     * 创建存储
+     *
+     * @param variableCount 变量数
+     * @param capacity 最多保留的 nogood 数，为0时不学习
+     */
+    public NogoodStore(int variableCount, int capacity) {
+        this.capacity = capacity;
+        this.byVariable = new ArrayList<>(variableCount);
+        for (int variable = 0; variable < variableCount; variable++) {
+            byVariable.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 记录一个 nogood，存满时先淘汰活跃度最低的
+     *
+     * @param variables 变量
+     * @param values 与变量一一对应的值
+     */
+    public void learn(int[] variables, int[] values) {
+        if (capacity == 0 || variables.length == 0) {
+            return;
+        }
+        if (nogoods.size() >= capacity) {
+            evictLeastActive();
+        }
+        Nogood nogood = new Nogood(variables, values, increment);
+        nogoods.add(nogood);
+        for (int variable : variables) {
+            byVariable.get(variable).add(nogood);
+        }
+        learned++;
+        increment /= ACTIVITY_DECAY;
+        if (increment > 1e100) {
+            rescale();
+        }
+    }
+
+    /**
+     * 变量被赋值后检查包含它的 nogood
+     *
+     * @param domains 可撤销的变量域
+     * @param variable 刚被赋值的变量
+     * @return 没有变量的域为空时返回true
+     */
+    public boolean propagate(TrailedDomains domains, int variable) {
+        for (Nogood nogood : byVariable.get(variable)) {
+            int open = -1;
+            boolean inactive = false;
+            for (int i = 0; i < nogood.variables.length; i++) {
+                int assigned = domains.assignment(nogood.variables[i]);
+                if (assigned == nogood.values[i]) {
+                    continue;
+                }
+                if (assigned >= 0 || open >= 0 || !domains.contains(nogood.variables[i], nogood.values[i])) {
+                    // 已有赋值不同、值已不在域中或有两个未成立的赋值，暂时不会触发
+                    inactive = true;
+                    break;
+                }
+                open = i;
+            }
+            if (inactive) {
+                continue;
+            }
+
+            nogood.activity += increment;
+            prunings++;
+            int target = open >= 0 ? nogood.variables[open] : variable;
+            int value = open >= 0 ? nogood.values[open] : domains.assignment(variable);
+            domains.remove(target, value, nogood.variables);
+            if (domains.size(target) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return nogoods.size();
+    }
+
+    public long getLearned() {
+        return learned;
+    }
+
+    public long getEvicted() {
+        return evicted;
+    }
+
+    public long getPrunings() {
+        return prunings;
+    }
+
+    private void evictLeastActive() {
+        Nogood weakest = nogoods.get(0);
+        for (Nogood nogood : nogoods) {
+            if (nogood.activity < weakest.activity) {
+                weakest = nogood;
+            }
+        }
+        nogoods.remove(weakest);
+        for (int variable : weakest.variables) {
+            byVariable.get(variable).remove(weakest);
+        }
+        evicted++;
+    }
+
+    private void rescale() {
+        for (Nogood nogood : nogoods) {
+            nogood.activity *= 1e-100;
+        }
+        increment *= 1e-100;
+    }
+
+    private static final class Nogood {
+        private final int[] variables;
+        private final int[] values;
+        private double activity;
+
+        private Nogood(int[] variables, int[] values, double activity) {
+            this.variables = variables;
+            this.values = values;
+            this.activity = activity;
+        }
+    }
+}
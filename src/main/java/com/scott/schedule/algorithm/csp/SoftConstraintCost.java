@@ -0,0 +1,282 @@
+package com.scott.schedule.algorithm.csp;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.model.Teacher;
+import com.scott.schedule.model.TimeSlot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 软约束代价
+ * 满足所有硬约束的课表之间按软约束代价比较优劣，代价越小越好：
+ * - 教师偏好：教师声明了偏好时间段时，每节不在偏好内的课计一次教师偏好权重
+ * - 课程分散：同一课程的两节课在同一天时，每对计一次课程分散权重
+ *
+ * 代价只取决于每节课的时间段，与教室无关；同一课程的节课互换也不改变代价，
+ * 与对称破缺同时使用时不会丢掉最优解
+ *
+ * 下界 = 已赋值节课的代价 + 未赋值节课增量代价的下界，后者取以下两种估计中较大的一个：
+ * - 逐节估计：每节未赋值课在当前域中的最小增量代价，只计入与已赋值节课之间的分散代价
+ * - 分组估计：同一教师的未赋值节课必须在不同时间段，能不计偏好代价的节课数不超过它们域中偏好时间段的个数；
+ *   同一课程的未赋值节课依次放到域中已有节课最少的那一天，得到分散代价的最小值。
+ *   偏好代价按教师分组、分散代价按课程分组，两部分互不重叠，可以相加
+ * 两种估计都是松弛后的最优值，不会高估
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class SoftConstraintCost {
+
+    private final CspModel model;
+    private final ScheduleProblem problem;
+
+    /**
+     * 每节课在每个时间段的教师偏好代价，下标为 节课 × 时间段数 + 时间段
+     */
+    private final double[] preferenceCost;
+
+    /**
+     * 声明了偏好时间段的教师
+     */
+    private final boolean[] hasPreference;
+
+    private final double preferenceWeight;
+    private final double spreadWeight;
+
+    /**
+     * 每个时间段所在日子的紧凑编号，日子超过64天时分组估计不计分散代价
+     */
+    private final int[] slotDayIndex;
+    private final int dayCount;
+
+    /**
+     * 每节课所属课程的第一节课和最后一节课 + 1，同一课程的节课索引连续
+     */
+    private final int[] courseStart;
+    private final int[] courseEnd;
+
+    public SoftConstraintCost(CspModel model, double preferenceWeight, double spreadWeight) {
+        this.model = model;
+        this.problem = model.getProblem();
+        this.preferenceWeight = preferenceWeight;
+        this.spreadWeight = spreadWeight;
+        int lessonCount = problem.getLessonCount();
+        int slotCount = problem.getSlotCount();
+
+        List<TimeSlot> timeSlots = problem.getTimeSlots();
+        List<Teacher> teachers = problem.getTeachers();
+        boolean[][] notPreferred = new boolean[teachers.size()][];
+        this.hasPreference = new boolean[teachers.size()];
+        for (int teacher = 0; teacher < teachers.size(); teacher++) {
+            List<String> preferred = teachers.get(teacher).getPreferredTimeSlots();
+            if (preferred != null && !preferred.isEmpty()) {
+                Set<String> preferredIds = new HashSet<>(preferred);
+                hasPreference[teacher] = true;
+                notPreferred[teacher] = new boolean[slotCount];
+                for (int slot = 0; slot < slotCount; slot++) {
+                    notPreferred[teacher][slot] = !preferredIds.contains(timeSlots.get(slot).getId());
+                }
+            }
+        }
+        this.preferenceCost = new double[lessonCount * slotCount];
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            boolean[] slots = notPreferred[problem.lessonTeacher(lesson)];
+            for (int slot = 0; slot < slotCount && slots != null; slot++) {
+                preferenceCost[lesson * slotCount + slot] = slots[slot] ? preferenceWeight : 0.0;
+            }
+        }
+
+        this.slotDayIndex = new int[slotCount];
+        Map<Integer, Integer> dayIndex = new HashMap<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            slotDayIndex[slot] = dayIndex.computeIfAbsent(problem.slotDay(slot), day -> dayIndex.size());
+        }
+        this.dayCount = dayIndex.size();
+
+        this.courseStart = new int[lessonCount];
+        this.courseEnd = new int[lessonCount];
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            int previous = problem.previousIdenticalLesson(lesson);
+            courseStart[lesson] = previous >= 0 ? courseStart[previous] : lesson;
+        }
+        for (int lesson = lessonCount - 1; lesson >= 0; lesson--) {
+            courseEnd[lesson] = lesson + 1 < lessonCount && courseStart[lesson + 1] == courseStart[lesson]
+                    ? courseEnd[lesson + 1] : lesson + 1;
+        }
+    }
+
+    /**
+     * 把节课安排在指定时间段的增量代价：教师偏好代价，加上与同一课程已赋值节课同一天的分散代价
+     *
+     * @param domains 可撤销的变量域，只读取已赋值节课
+     * @param lesson 节课
+     * @param slot 时间段
+     * @return 增量代价
+     */
+    public double slotCost(TrailedDomains domains, int lesson, int slot) {
+        double cost = preferenceCost[lesson * problem.getSlotCount() + slot];
+        if (spreadWeight > 0.0) {
+            int day = problem.slotDay(slot);
+            for (int other = courseStart[lesson]; other < courseEnd[lesson]; other++) {
+                int assigned = domains.assignment(other);
+                if (other != lesson && assigned >= 0 && problem.slotDay(model.slotOf(other, assigned)) == day) {
+                    cost += spreadWeight;
+                }
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * 值的增量代价
+     */
+    public double valueCost(TrailedDomains domains, int lesson, int value) {
+        return slotCost(domains, lesson, model.slotOf(lesson, value));
+    }
+
+    /**
+     * 部分赋值的代价下界，超过 limit 后立即返回
+     *
+     * @param domains 可撤销的变量域
+     * @param limit 已知的上界，下界不小于它时不必算完
+     * @return 代价下界；所有节课都已赋值时就是课表的代价
+     */
+    public double lowerBound(TrailedDomains domains, double limit) {
+        int lessonCount = problem.getLessonCount();
+        double bound = 0.0;
+        // 已赋值节课：偏好代价，以及与更早的同一课程已赋值节课之间的分散代价，每对只计一次
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            int assigned = domains.assignment(lesson);
+            if (assigned >= 0) {
+                bound += assignedCost(domains, lesson, model.slotOf(lesson, assigned));
+            }
+        }
+        if (bound >= limit) {
+            return bound;
+        }
+
+        int slotCount = problem.getSlotCount();
+        int teacherCount = hasPreference.length;
+        int words = (slotCount + 63) >>> 6;
+        // 每位教师：域中有偏好时间段的未赋值节课数、域中没有偏好时间段的未赋值节课数、偏好时间段的并集
+        int[] candidates = new int[teacherCount];
+        int[] forced = new int[teacherCount];
+        long[] preferredSlots = new long[teacherCount * words];
+        // 每门课程（以第一节课为下标）：未赋值节课数、域中日子的并集
+        int[] remaining = new int[lessonCount];
+        long[] courseDays = new long[lessonCount];
+
+        double lessonBound = 0.0;
+        for (int lesson = 0; lesson < lessonCount; lesson++) {
+            if (domains.assignment(lesson) >= 0) {
+                continue;
+            }
+            int teacher = problem.lessonTeacher(lesson);
+            double minimum = Double.MAX_VALUE;
+            boolean preferred = false;
+            long days = 0L;
+            // 同一时间段的值代价相同，每个时间段只计算一次
+            for (int value = domains.next(lesson, 0); value >= 0;) {
+                int slot = model.slotOf(lesson, value);
+                minimum = Math.min(minimum, slotCost(domains, lesson, slot));
+                if (hasPreference[teacher] && preferenceCost[lesson * slotCount + slot] == 0.0) {
+                    preferred = true;
+                    preferredSlots[teacher * words + (slot >>> 6)] |= 1L << slot;
+                }
+                days |= 1L << slotDayIndex[slot];
+                int end = model.slotValueEnd(lesson, slot);
+                value = end < model.valueCount(lesson) ? domains.next(lesson, end) : -1;
+            }
+            lessonBound += minimum == Double.MAX_VALUE ? 0.0 : minimum;
+            if (hasPreference[teacher]) {
+                if (preferred) {
+                    candidates[teacher]++;
+                } else {
+                    forced[teacher]++;
+                }
+            }
+            remaining[courseStart[lesson]]++;
+            courseDays[courseStart[lesson]] |= days;
+        }
+
+        double groupBound = 0.0;
+        for (int teacher = 0; teacher < teacherCount; teacher++) {
+            int free = 0;
+            for (int word = 0; word < words; word++) {
+                free += Long.bitCount(preferredSlots[teacher * words + word]);
+            }
+            groupBound += (forced[teacher] + Math.max(0, candidates[teacher] - free)) * preferenceWeight;
+        }
+        if (spreadWeight > 0.0 && dayCount <= Long.SIZE) {
+            int[] dayLessons = new int[dayCount];
+            for (int start = 0; start < lessonCount; start = courseEnd[start]) {
+                if (remaining[start] > 0) {
+                    groupBound += minimumSpread(domains, start, remaining[start], courseDays[start], dayLessons);
+                }
+            }
+        }
+        return bound + Math.max(lessonBound, groupBound);
+    }
+
+    /**
+     * 课程的未赋值节课逐一放到域中已有节课最少的那一天，每次放置的增量分散代价单调不减，逐一贪心即为最小值
+     */
+    private double minimumSpread(TrailedDomains domains, int start, int remaining, long days, int[] dayLessons) {
+        Arrays.fill(dayLessons, 0);
+        for (int lesson = start; lesson < courseEnd[start]; lesson++) {
+            int assigned = domains.assignment(lesson);
+            if (assigned >= 0) {
+                dayLessons[slotDayIndex[model.slotOf(lesson, assigned)]]++;
+            }
+        }
+        double cost = 0.0;
+        for (int placed = 0; placed < remaining && days != 0L; placed++) {
+            int best = -1;
+            for (long rest = days; rest != 0L; rest &= rest - 1) {
+                int day = Long.numberOfTrailingZeros(rest);
+                if (best < 0 || dayLessons[day] < dayLessons[best]) {
+                    best = day;
+                }
+            }
+            cost += dayLessons[best] * spreadWeight;
+            dayLessons[best]++;
+        }
+        return cost;
+    }
+
+    private double assignedCost(TrailedDomains domains, int lesson, int slot) {
+        double cost = preferenceCost[lesson * problem.getSlotCount() + slot];
+        int day = problem.slotDay(slot);
+        for (int other = courseStart[lesson]; other < lesson; other++) {
+            int assigned = domains.assignment(other);
+            if (assigned >= 0 && problem.slotDay(model.slotOf(other, assigned)) == day) {
+                cost += spreadWeight;
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * 完整课表的代价
+     *
+     * @param slots 每节课的时间段
+     * @return 软约束代价
+     */
+    public double cost(int[] slots) {
+        double cost = 0.0;
+        for (int lesson = 0; lesson < slots.length; lesson++) {
+            cost += preferenceCost[lesson * problem.getSlotCount() + slots[lesson]];
+            for (int other = courseStart[lesson]; other < lesson; other++) {
+                if (problem.slotDay(slots[other]) == problem.slotDay(slots[lesson])) {
+                    cost += spreadWeight;
+                }
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,176 @@
+package com.scott.schedule.algorithm.csp;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+
+import java.util.Arrays;
+
+/**
+ * 对称破缺
+ * 课表中有大量对称：同一课程的各节课可以互换，同一等价类的教室可以互换，
+ * 不破除对称时搜索会把同一张课表的各种排列都探索一遍，无解时更要把它们全部证伪
+ *
+ * 两种对称分别处理：
+ * - 同一课程的节课按时间段严格递增，一节课被赋值后删除前一节课不早于它、后一节课不晚于它的时间段
+ * - 同一时间段内，同一等价类中当前空闲的教室只尝试编号最小的一间，
+ *   其余空闲教室得到的子树与它只差一次教室交换
+ *
+ * 两者都只排除与已保留的赋值对称的赋值，问题有解时保留至少一个解；
+ * 教室交换不改变任何节课的时间段，两种破缺可以同时使用
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class SymmetryBreaker {
+
+    private final ConstraintGraph graph;
+    private final CspModel model;
+    private final ScheduleProblem problem;
+
+    /**
+     * 每个等价类的教室，按编号升序
+     */
+    private final int[][] classRooms;
+
+    /**
+     * 已赋值邻居占用的 (时间段, 教室)，下标为 时间段 × 教室数 + 教室，每次过滤后清空
+     */
+    private final boolean[] occupied;
+
+    /**
+     * 累计按时间段顺序删除的值个数
+     */
+    private long prunedValues;
+
+    /**
+     * 累计跳过的对称教室个数
+     */
+    private long skippedValues;
+
+    public SymmetryBreaker(ConstraintGraph graph) {
+        this.graph = graph;
+        this.model = graph.getModel();
+        this.problem = model.getProblem();
+        int classCount = 0;
+        for (int room = 0; room < problem.getRoomCount(); room++) {
+            classCount = Math.max(classCount, problem.roomClass(room) + 1);
+        }
+        int[] sizes = new int[classCount];
+        for (int room = 0; room < problem.getRoomCount(); room++) {
+            sizes[problem.roomClass(room)]++;
+        }
+        this.classRooms = new int[classCount][];
+        for (int roomClass = 0; roomClass < classCount; roomClass++) {
+            classRooms[roomClass] = new int[sizes[roomClass]];
+        }
+        Arrays.fill(sizes, 0);
+        for (int room = 0; room < problem.getRoomCount(); room++) {
+            int roomClass = problem.roomClass(room);
+            classRooms[roomClass][sizes[roomClass]++] = room;
+        }
+        this.occupied = new boolean[problem.getSlotCount() * problem.getRoomCount()];
+    }
+
+    /**
+     * 变量被赋值后，按时间段顺序删除同一课程前后两节课中不满足顺序的值
+     *
+     * @param domains 可撤销的变量域
+     * @param variable 被赋值的变量
+     * @param value 赋给变量的值
+     * @return 没有变量的域被删空时返回true
+     */
+    public boolean propagate(TrailedDomains domains, int variable, int value) {
+        int slot = model.slotOf(variable, value);
+        int previous = problem.previousIdenticalLesson(variable);
+        if (previous >= 0 && domains.assignment(previous) < 0 && !removeSlots(domains, previous, slot, false, variable)) {
+            return false;
+        }
+        int next = variable + 1 < model.variableCount() && problem.previousIdenticalLesson(variable + 1) == variable
+                ? variable + 1 : -1;
+        return next < 0 || domains.assignment(next) >= 0 || removeSlots(domains, next, slot, true, variable);
+    }
+
+    /**
+     * 删除变量中时间段不在 slot 指定一侧的值，值按时间段升序编号
+     *
+     * @param after 为true时只保留晚于 slot 的时间段，否则只保留早于 slot 的时间段
+     */
+    private boolean removeSlots(TrailedDomains domains, int variable, int slot, boolean after, int reason) {
+        for (int value = domains.next(variable, 0); value >= 0; value = domains.next(variable, value + 1)) {
+            int valueSlot = model.slotOf(variable, value);
+            if (after ? valueSlot <= slot : valueSlot >= slot) {
+                if (domains.remove(variable, value, reason)) {
+                    prunedValues++;
+                }
+            } else if (after) {
+                break; // 之后的值都晚于 slot
+            }
+        }
+        return domains.size(variable) > 0;
+    }
+
+    /**
+     * 过滤变量的候选值，同一时间段内同一等价类的空闲教室只保留编号最小的一间
+     * 被已赋值邻居占用的教室不是空闲教室，交给一致性检查处理
+     *
+     * @param domains 可撤销的变量域
+     * @param variable 待赋值的变量
+     * @param values 按选择顺序排列的候选值
+     * @return 过滤后的候选值，保持原有顺序
+     */
+    public int[] filter(TrailedDomains domains, int variable, int[] values) {
+        int roomCount = problem.getRoomCount();
+        int[] neighbours = graph.neighbours(variable);
+        for (int other : neighbours) {
+            int assigned = domains.assignment(other);
+            if (assigned >= 0) {
+                occupied[model.slotOf(other, assigned) * roomCount + model.roomOf(other, assigned)] = true;
+            }
+        }
+
+        int kept = 0;
+        int[] filtered = new int[values.length];
+        for (int value : values) {
+            int slot = model.slotOf(variable, value);
+            int room = model.roomOf(variable, value);
+            if (isRepresentative(slot, room, roomCount)) {
+                filtered[kept++] = value;
+            } else {
+                skippedValues++;
+            }
+        }
+
+        for (int other : neighbours) {
+            int assigned = domains.assignment(other);
+            if (assigned >= 0) {
+                occupied[model.slotOf(other, assigned) * roomCount + model.roomOf(other, assigned)] = false;
+            }
+        }
+        return kept == values.length ? values : Arrays.copyOf(filtered, kept);
+    }
+
+    /**
+     * 教室被占用，或同类中没有编号更小的空闲教室
+     */
+    private boolean isRepresentative(int slot, int room, int roomCount) {
+        if (occupied[slot * roomCount + room]) {
+            return true;
+        }
+        for (int other : classRooms[problem.roomClass(room)]) {
+            if (other == room) {
+                return true;
+            }
+            if (!occupied[slot * roomCount + other]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getPrunedValues() {
+        return prunedValues;
+    }
+
+    public long getSkippedValues() {
+        return skippedValues;
+    }
+}
@@ -0,0 +1,48 @@
+package com.scott.schedule.algorithm.csp;
+
+/**
+ * 可撤销的变量域
+ * 搜索过程中的域删除通过它进行，删除会记录在搜索状态的撤销轨迹上，回溯时自动恢复
+ *
+ * 每次删除都要给出原因变量：删除是因为原因变量的当前域（已赋值时即它的值）与被删除的值不相容。
+ * 启用回跳或学习时，搜索状态据此为每个变量累积冲突集，即导致其域缩小的赋值层
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public interface TrailedDomains {
+
+    int size(int variable);
+
+    boolean contains(int variable, int value);
+
+    /**
+     * 查找域中不小于 from 的第一个值
+     *
+     * @return 值编号，不存在时为-1
+     */
+    int next(int variable, int from);
+
+    /**
+     * 获取变量的赋值
+     *
+     * @return 值编号，未赋值时为-1
+     */
+    int assignment(int variable);
+
+    /**
+     * 从域中删除一个值并记录到撤销轨迹
+     *
+     * @param reason 原因变量
+     * @return 值原本在域中时返回true
+     */
+    boolean remove(int variable, int value, int reason);
+
+    /**
+     * 从域中删除一个值并记录到撤销轨迹，原因是多个变量共同造成的
+     *
+     * @param reasons 原因变量，其中与被删除变量相同的忽略
+     * @return 值原本在域中时返回true
+     */
+    boolean remove(int variable, int value, int[] reasons);
+}
@@ -0,0 +1,126 @@
+package com.scott.schedule.algorithm.impl;
+
+import com.scott.schedule.algorithm.CrossoverOperator;
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * 块交叉操作基类
+ * 将节课按块（班级、星期等）分组，以块为单位整体继承另一个父代的安排，
+ * 保留父代在块内已有的课表结构，而不是像均匀交叉那样逐个基因拆散
+ *
+ * 任一父代把某节课安排在被选中块内时，两个子代交换这节课的安排：
+ * 子代1在被选中块内的内容与父代2完全相同，子代2对称地与父代1相同，
+ * 块内不会因为交叉产生新的冲突；被移出块的节课可能与块外的安排冲突，留给修复操作处理。
+ * 染色体没有关联排课问题时退化为均匀交叉
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public abstract class AbstractBlockCrossoverOperator implements CrossoverOperator {
+
+    private final GeneticAlgorithmConfig config;
+
+    protected AbstractBlockCrossoverOperator(GeneticAlgorithmConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected, RandomGenerator random) {
+        return crossover(selected, config.getCrossoverRate(), random);
+    }
+
+    @Override
+    public List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected, double crossoverRate,
+                                              RandomGenerator random) {
+        var offspring = new ArrayList<ScheduleChromosome>(selected.size());
+
+        // 两两配对进行交叉
+        for (int i = 0; i < selected.size() - 1; i += 2) {
+            var parent1 = selected.get(i);
+            var parent2 = selected.get(i + 1);
+
+            if (random.nextDouble() < crossoverRate) {
+                offspring.addAll(performCrossover(parent1, parent2, random));
+            } else {
+                offspring.add(parent1.clone());
+                offspring.add(parent2.clone());
+            }
+        }
+
+        // 如果种群大小为奇数，处理最后一个个体
+        if (selected.size() % 2 == 1) {
+            offspring.add(selected.get(selected.size() - 1).clone());
+        }
+
+        return offspring;
+    }
+
+    /**
+     * 获取块的数量
+     *
+     * @param problem 排课问题
+     * @return 块数量，块编号取值范围为 [0, 块数量)
+     */
+    protected abstract int blockCount(ScheduleProblem problem);
+
+    /**
+     * 获取基因所属的块
+     *
+     * @param problem 排课问题
+     * @param gene 节课在某个父代中的安排
+     * @return 块编号
+     */
+    protected abstract int blockOf(ScheduleProblem problem, ScheduleChromosome.CourseSchedule gene);
+
+    private List<ScheduleChromosome> performCrossover(ScheduleChromosome parent1,
+                                                     ScheduleChromosome parent2,
+                                                     RandomGenerator random) {
+        var child1 = parent1.clone();
+        var child2 = parent2.clone();
+        var problem = parent1.getProblem();
+
+        if (problem == null) {
+            uniformCrossover(child1.getGenes(), child2.getGenes(), random);
+            return List.of(child1, child2);
+        }
+
+        // 每个块以1/2概率整体交换
+        boolean[] chosen = new boolean[blockCount(problem)];
+        for (int block = 0; block < chosen.length; block++) {
+            chosen[block] = random.nextBoolean();
+        }
+
+        var genes1 = parent1.getGenes();
+        var genes2 = parent2.getGenes();
+        for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+            long key = lesson;
+            var gene1 = genes1.get(key);
+            var gene2 = genes2.get(key);
+            if (chosen[blockOf(problem, gene1)] || chosen[blockOf(problem, gene2)]) {
+                child1.getGenes().put(key, gene2);
+                child2.getGenes().put(key, gene1);
+            }
+        }
+
+        return List.of(child1, child2);
+    }
+
+    private void uniformCrossover(Map<Long, ScheduleChromosome.CourseSchedule> genes1,
+                                  Map<Long, ScheduleChromosome.CourseSchedule> genes2,
+                                  RandomGenerator random) {
+        genes1.keySet().forEach(courseId -> {
+            if (random.nextBoolean()) {
+                var temp = genes1.get(courseId);
+                genes1.put(courseId, genes2.get(courseId));
+                genes2.put(courseId, temp);
+            }
+        });
+    }
+}
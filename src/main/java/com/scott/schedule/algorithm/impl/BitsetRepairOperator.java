@@ -0,0 +1,130 @@
+package com.scott.schedule.algorithm.impl;
+
+import com.scott.schedule.algorithm.RepairOperator;
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * 基于位图的冲突修复操作实现
+ * 按随机顺序逐节课放入课表，用 long[] 位图记录教师、班级、教室在各时间段的占用，
+ * 节课当前位置冲突时，通过 可用时间段 & ~教师占用 & ~班级占用 的按位运算一次筛出
+ * 64个候选时间段，再在候选时间段中寻找空闲、容量合适且不在维护中的教室
+ *
+ * 找不到空闲位置的节课保持原安排，由适应度函数继续惩罚
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Component
+public class BitsetRepairOperator implements RepairOperator {
+
+    @Override
+    public int repair(ScheduleChromosome chromosome, RandomGenerator random) {
+        ScheduleProblem problem = chromosome.getProblem();
+        if (problem == null || problem.isEmpty()) {
+            return 0;
+        }
+
+        int lessonCount = problem.getLessonCount();
+        int words = (problem.getSlotCount() + 63) >>> 6;
+        long[] teacherBusy = new long[problem.getTeacherCount() * words];
+        long[] classBusy = new long[problem.getClassCount() * words];
+        long[] roomBusy = new long[problem.getRoomCount() * words];
+        Map<Long, ScheduleChromosome.CourseSchedule> genes = chromosome.getGenes();
+
+        // 随机顺序，避免总是让索引靠前的节课占据原位置
+        int[] order = new int[lessonCount];
+        for (int i = 0; i < lessonCount; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+
+        int repaired = 0;
+        for (int lesson : order) {
+            var gene = genes.get((long) lesson);
+            int slot = gene.timeSlotId().intValue();
+            int room = gene.classroomId().intValue();
+            int teacherBase = problem.lessonTeacher(lesson) * words;
+            int classBase = problem.lessonClass(lesson) * words;
+
+            if (!isBusy(teacherBusy, teacherBase, slot) && !isBusy(classBusy, classBase, slot)) {
+                if (isBusy(roomBusy, room * words, slot) || !problem.isRoomOpen(room, slot)) {
+                    // 时间段可用，只需要换一间空闲且不在维护中的教室
+                    int freeRoom = findFreeRoom(problem, lesson, slot, roomBusy, words, random);
+                    if (freeRoom >= 0) {
+                        room = freeRoom;
+                        repaired++;
+                    }
+                }
+            } else {
+                int[] placement = findFreePlacement(problem, lesson, teacherBusy, teacherBase,
+                        classBusy, classBase, roomBusy, words, random);
+                if (placement != null) {
+                    slot = placement[0];
+                    room = placement[1];
+                    repaired++;
+                }
+            }
+
+            mark(teacherBusy, teacherBase, slot);
+            mark(classBusy, classBase, slot);
+            mark(roomBusy, room * words, slot);
+            genes.put((long) lesson, problem.toGene(lesson, slot, room));
+        }
+        return repaired;
+    }
+
+    /**
+     * 在节课可用时间段中查找教师和班级都空闲、且存在空闲教室的位置
+     * 从随机的字开始循环扫描，使修复后的时间段分布不偏向一周的开头
+     */
+    private int[] findFreePlacement(ScheduleProblem problem, int lesson,
+                                    long[] teacherBusy, int teacherBase,
+                                    long[] classBusy, int classBase,
+                                    long[] roomBusy, int words, RandomGenerator random) {
+        long[] allowed = problem.lessonSlotMask(lesson);
+        int start = random.nextInt(words);
+        for (int k = 0; k < words; k++) {
+            int w = (start + k) % words;
+            long candidates = allowed[w] & ~teacherBusy[teacherBase + w] & ~classBusy[classBase + w];
+            while (candidates != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(candidates);
+                int room = findFreeRoom(problem, lesson, slot, roomBusy, words, random);
+                if (room >= 0) {
+                    return new int[]{slot, room};
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在节课可用教室中查找指定时间段空闲且不在维护中的教室
+     */
+    private int findFreeRoom(ScheduleProblem problem, int lesson, int slot,
+                             long[] roomBusy, int words, RandomGenerator random) {
+        int[] rooms = problem.lessonRooms(lesson);
+        int start = random.nextInt(rooms.length);
+        for (int k = 0; k < rooms.length; k++) {
+            int room = rooms[(start + k) % rooms.length];
+            if (!isBusy(roomBusy, room * words, slot) && problem.isRoomOpen(room, slot)) {
+                return room;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBusy(long[] busy, int base, int slot) {
+        return (busy[base + (slot >>> 6)] & (1L << slot)) != 0;
+    }
+
+    private static void mark(long[] busy, int base, int slot) {
+        busy[base + (slot >>> 6)] |= 1L << slot;
+    }
+}
@@ -0,0 +1,44 @@
+package com.scott.schedule.algorithm.impl;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.common.enums.CrossoverType;
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 班级块交叉操作实现
+ * 以班级为单位整体交换，子代完整继承某个父代中一个班级的整张周课表，
+ * 班级内部不会因为交叉产生新的冲突
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Component
+public class ClassBlockCrossoverOperator extends AbstractBlockCrossoverOperator {
+
+    public ClassBlockCrossoverOperator() {
+        this(new GeneticAlgorithmConfig());
+    }
+
+    @Autowired
+    public ClassBlockCrossoverOperator(GeneticAlgorithmConfig config) {
+        super(config);
+    }
+
+    @Override
+    public CrossoverType getType() {
+        return CrossoverType.CLASS_BLOCK;
+    }
+
+    @Override
+    protected int blockCount(ScheduleProblem problem) {
+        return problem.getClassCount();
+    }
+
+    @Override
+    protected int blockOf(ScheduleProblem problem, ScheduleChromosome.CourseSchedule gene) {
+        return gene.classId().intValue();
+    }
+}
@@ -0,0 +1,49 @@
+package com.scott.schedule.algorithm.impl;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.common.enums.CrossoverType;
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 星期块交叉操作实现
+ * 以星期为单位整体交换，子代在被选中日期上的安排与另一个父代完全相同，
+ * 同一天内教师、教室、班级的占用关系保持不变；原先排在这些日期、
+ * 在另一个父代中位于其他日期的节课随之移出，可能与其他日期的安排冲突
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Component
+public class DayBlockCrossoverOperator extends AbstractBlockCrossoverOperator {
+
+    public DayBlockCrossoverOperator() {
+        this(new GeneticAlgorithmConfig());
+    }
+
+    @Autowired
+    public DayBlockCrossoverOperator(GeneticAlgorithmConfig config) {
+        super(config);
+    }
+
+    @Override
+    public CrossoverType getType() {
+        return CrossoverType.DAY_BLOCK;
+    }
+
+    @Override
+    protected int blockCount(ScheduleProblem problem) {
+        int maxDay = 0;
+        for (int slot = 0; slot < problem.getSlotCount(); slot++) {
+            maxDay = Math.max(maxDay, problem.slotDay(slot));
+        }
+        return maxDay + 1;
+    }
+
+    @Override
+    protected int blockOf(ScheduleProblem problem, ScheduleChromosome.CourseSchedule gene) {
+        return Math.max(0, problem.slotDay(gene.timeSlotId().intValue()));
+    }
+}
@@ -2,6 +2,7 @@ package com.scott.schedule.algorithm.impl;
 
 import com.scott.schedule.algorithm.FitnessCalculator;
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -49,7 +50,7 @@ public class DefaultFitnessCalculator implements FitnessCalculator {
         var genes = chromosome.getGenes();
         
         // 硬约束检查
-        var hardViolations = checkHardConstraints(genes);
+        var hardViolations = checkHardConstraints(genes) + checkRoomMaintenance(chromosome);
         
         // 软约束检查
         var softViolations = checkSoftConstraints(genes);
@@ -82,6 +83,20 @@ public class DefaultFitnessCalculator implements FitnessCalculator {
         return violations;
     }
     
+    /**
+     * 检查教室维护时间
+     * 基于真实排课问题时，每节课安排在维护中的教室记一次冲突
+     */
+    private int checkRoomMaintenance(ScheduleChromosome chromosome) {
+        ScheduleProblem problem = chromosome.getProblem();
+        if (problem == null) {
+            return 0;
+        }
+        return (int) chromosome.getGenes().values().stream()
+                .filter(gene -> !problem.isRoomOpen(gene.classroomId().intValue(), gene.timeSlotId().intValue()))
+                .count();
+    }
+
     /**
      * 检查软约束
      */
@@ -0,0 +1,112 @@
+package com.scott.schedule.algorithm.impl;
+
+import com.scott.schedule.algorithm.LocalSearchOperator;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.algorithm.TimetableEvaluator;
+import org.springframework.stereotype.Component;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * 爬山局部搜索实现
+ * 邻域包含三种移动：交换两节课的时间段、将一节课移到其他时间段、更换教室
+ * 每次移动通过增量评估在O(1)时间内得到违反数变化，不劣化的移动即被接受
+ * 移动只到达节课可行的位置，不会把节课移进维护中的教室
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Component
+public class HillClimbingLocalSearch implements LocalSearchOperator {
+
+    /**
+     * 挑选冲突节课的最大尝试次数
+     */
+    private static final int CONFLICT_PICK_ATTEMPTS = 4;
+
+    @Override
+    public int improve(TimetableEvaluator evaluator, int budget, RandomGenerator random) {
+        ScheduleProblem problem = evaluator.getProblem();
+        if (problem.getLessonCount() == 0) {
+            return 0;
+        }
+
+        int totalDelta = 0;
+        for (int step = 0; step < budget && evaluator.getViolations() > 0; step++) {
+            int lesson = pickLesson(evaluator, random);
+            totalDelta += switch (random.nextInt(3)) {
+                case 0 -> trySwapSlots(evaluator, lesson, random);
+                case 1 -> tryMoveSlot(evaluator, lesson, random);
+                default -> tryChangeRoom(evaluator, lesson, random);
+            };
+        }
+        return totalDelta;
+    }
+
+    /**
+     * 优先挑选处于冲突中的节课
+     */
+    private int pickLesson(TimetableEvaluator evaluator, RandomGenerator random) {
+        int lessonCount = evaluator.getProblem().getLessonCount();
+        int lesson = random.nextInt(lessonCount);
+        for (int attempt = 1; attempt < CONFLICT_PICK_ATTEMPTS && !evaluator.isConflicting(lesson); attempt++) {
+            lesson = random.nextInt(lessonCount);
+        }
+        return lesson;
+    }
+
+    /**
+     * 交换两节课的时间段，教室保持不变
+     */
+    private int trySwapSlots(TimetableEvaluator evaluator, int lesson, RandomGenerator random) {
+        ScheduleProblem problem = evaluator.getProblem();
+        int other = random.nextInt(problem.getLessonCount());
+        int slot = evaluator.slotOf(lesson);
+        int otherSlot = evaluator.slotOf(other);
+        if (other == lesson || slot == otherSlot
+                || !problem.isFeasible(lesson, otherSlot, evaluator.roomOf(lesson))
+                || !problem.isFeasible(other, slot, evaluator.roomOf(other))) {
+            return 0;
+        }
+
+        int delta = evaluator.move(lesson, otherSlot, evaluator.roomOf(lesson));
+        delta += evaluator.move(other, slot, evaluator.roomOf(other));
+        if (delta > 0) {
+            // 劣化则撤销
+            evaluator.move(other, otherSlot, evaluator.roomOf(other));
+            evaluator.move(lesson, slot, evaluator.roomOf(lesson));
+            return 0;
+        }
+        return delta;
+    }
+
+    /**
+     * 将节课移动到其他可用时间段
+     */
+    private int tryMoveSlot(TimetableEvaluator evaluator, int lesson, RandomGenerator random) {
+        ScheduleProblem problem = evaluator.getProblem();
+        int[] slots = problem.lessonSlots(lesson);
+        int newSlot = slots[random.nextInt(slots.length)];
+        int room = evaluator.roomOf(lesson);
+        if (newSlot == evaluator.slotOf(lesson) || !problem.isFeasible(lesson, newSlot, room)
+                || evaluator.moveDelta(lesson, newSlot, room) > 0) {
+            return 0;
+        }
+        return evaluator.move(lesson, newSlot, room);
+    }
+
+    /**
+     * 在当前时间段内为节课更换教室
+     */
+    private int tryChangeRoom(TimetableEvaluator evaluator, int lesson, RandomGenerator random) {
+        ScheduleProblem problem = evaluator.getProblem();
+        int[] rooms = problem.lessonRooms(lesson);
+        int newRoom = rooms[random.nextInt(rooms.length)];
+        int slot = evaluator.slotOf(lesson);
+        if (newRoom == evaluator.roomOf(lesson) || !problem.isFeasible(lesson, slot, newRoom)
+                || evaluator.moveDelta(lesson, slot, newRoom) > 0) {
+            return 0;
+        }
+        return evaluator.move(lesson, slot, newRoom);
+    }
+}
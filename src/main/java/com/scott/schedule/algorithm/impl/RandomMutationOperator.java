@@ -2,11 +2,14 @@ package com.scott.schedule.algorithm.impl;
 
 import com.scott.schedule.algorithm.MutationOperator;
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Random;
 import java.util.Map;
+import java.util.random.RandomGenerator;
 
 /**
  * 随机变异操作实现
@@ -18,22 +21,40 @@ import java.util.Map;
 @Component
 public class RandomMutationOperator implements MutationOperator {
     
-    private static final double MUTATION_RATE = 0.1;
-    private final Random random = new Random();
+    private final GeneticAlgorithmConfig config;
+
+    public RandomMutationOperator() {
+        this(new GeneticAlgorithmConfig());
+    }
+
+    @Autowired
+    public RandomMutationOperator(GeneticAlgorithmConfig config) {
+        this.config = config;
+    }
     
     @Override
-    public void mutate(List<ScheduleChromosome> population) {
+    public void mutate(List<ScheduleChromosome> population, RandomGenerator random) {
+        mutate(population, config.getMutationRate(), random);
+    }
+
+    @Override
+    public void mutate(List<ScheduleChromosome> population, double mutationRate, RandomGenerator random) {
         population.stream()
-            .filter(chromosome -> random.nextDouble() < MUTATION_RATE)
-            .forEach(this::performMutation);
+            .filter(chromosome -> random.nextDouble() < mutationRate)
+            .forEach(chromosome -> performMutation(chromosome, random));
     }
     
     /**
      * 执行变异操作
      * 使用JDK 21的模式匹配和switch表达式
      */
-    private void performMutation(ScheduleChromosome chromosome) {
+    private void performMutation(ScheduleChromosome chromosome, RandomGenerator random) {
         Map<Long, ScheduleChromosome.CourseSchedule> genes = chromosome.getGenes();
+
+        if (chromosome.getProblem() != null) {
+            mutateLesson(chromosome.getProblem(), genes, random);
+            return;
+        }
         
         // 随机选择一个基因进行变异
         if (!genes.isEmpty()) {
@@ -45,10 +66,10 @@ public class RandomMutationOperator implements MutationOperator {
             // 使用JDK 21的switch表达式和模式匹配
             var mutationType = random.nextInt(4);
             var newSchedule = switch (mutationType) {
-                case 0 -> schedule.withTeacherId(generateRandomTeacherId());
-                case 1 -> schedule.withClassroomId(generateRandomClassroomId());
-                case 2 -> schedule.withTimeSlotId(generateRandomTimeSlotId());
-                case 3 -> schedule.withClassId(generateRandomClassId());
+                case 0 -> schedule.withTeacherId(generateRandomTeacherId(random));
+                case 1 -> schedule.withClassroomId(generateRandomClassroomId(random));
+                case 2 -> schedule.withTimeSlotId(generateRandomTimeSlotId(random));
+                case 3 -> schedule.withClassId(generateRandomClassId(random));
                 default -> throw new IllegalStateException("Unexpected mutation type: " + mutationType);
             };
             
@@ -57,11 +78,37 @@ public class RandomMutationOperator implements MutationOperator {
         }
     }
     
+    /**
+     * 基于真实排课问题的变异
+     * 教师和班级由课程决定，只在节课可用的时间段和教室中重新选择，
+     * 新位置的教室在维护中时换一间不在维护中的教室，找不到时放弃本次变异
+     */
+    private void mutateLesson(ScheduleProblem problem, Map<Long, ScheduleChromosome.CourseSchedule> genes,
+                              RandomGenerator random) {
+        int lesson = random.nextInt(problem.getLessonCount());
+        ScheduleChromosome.CourseSchedule schedule = genes.get((long) lesson);
+        int[] slots = problem.lessonSlots(lesson);
+        int[] rooms = problem.lessonRooms(lesson);
+        int slot = schedule.timeSlotId().intValue();
+        int room = schedule.classroomId().intValue();
+        if (random.nextInt(2) == 0) {
+            slot = slots[random.nextInt(slots.length)];
+            if (!problem.isRoomOpen(room, slot)) {
+                room = problem.findOpenRoom(lesson, slot, random.nextInt(rooms.length));
+            }
+        } else {
+            room = problem.findOpenRoom(lesson, slot, random.nextInt(rooms.length));
+        }
+        if (room >= 0) {
+            genes.put((long) lesson, schedule.withTimeSlotId((long) slot).withClassroomId((long) room));
+        }
+    }
+
     /**
      * 生成随机教师ID
      * 使用JDK 21的文本块特性
      */
-    private Long generateRandomTeacherId() {
+    private Long generateRandomTeacherId(RandomGenerator random) {
         // TODO: 根据实际数据生成随机教师ID
         // 这里使用模拟数据，实际应该从数据库查询
         var teacherIds = List.of(1L, 2L, 3L, 4L, 5L);
@@ -71,7 +118,7 @@ public class RandomMutationOperator implements MutationOperator {
     /**
      * 生成随机教室ID
      */
-    private Long generateRandomClassroomId() {
+    private Long generateRandomClassroomId(RandomGenerator random) {
         // TODO: 根据实际数据生成随机教室ID
         var classroomIds = List.of(101L, 102L, 103L, 201L, 202L, 203L);
         return classroomIds.get(random.nextInt(classroomIds.size()));
@@ -80,7 +127,7 @@ public class RandomMutationOperator implements MutationOperator {
     /**
      * 生成随机时间段ID
      */
-    private Long generateRandomTimeSlotId() {
+    private Long generateRandomTimeSlotId(RandomGenerator random) {
         // TODO: 根据实际数据生成随机时间段ID
         // 假设每天8节课，每周5天
         var timeSlotIds = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
@@ -90,7 +137,7 @@ public class RandomMutationOperator implements MutationOperator {
     /**
      * 生成随机班级ID
      */
-    private Long generateRandomClassId() {
+    private Long generateRandomClassId(RandomGenerator random) {
         // TODO: 根据实际数据生成随机班级ID
         var classIds = List.of(1001L, 1002L, 1003L, 2001L, 2002L, 2003L);
         return classIds.get(random.nextInt(classIds.size()));
@@ -2,10 +2,12 @@ package com.scott.schedule.algorithm.impl;
 
 import com.scott.schedule.algorithm.SelectionOperator;
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * 锦标赛选择操作实现
@@ -17,14 +19,29 @@ import java.util.Random;
 @Component
 public class TournamentSelectionOperator implements SelectionOperator {
     
-    private static final int TOURNAMENT_SIZE = 3;
-    private final Random random = new Random();
+    private final GeneticAlgorithmConfig config;
+
+    public TournamentSelectionOperator() {
+        this(new GeneticAlgorithmConfig());
+    }
+
+    @Autowired
+    public TournamentSelectionOperator(GeneticAlgorithmConfig config) {
+        this.config = config;
+    }
     
     @Override
-    public List<ScheduleChromosome> select(List<ScheduleChromosome> population) {
+    public List<ScheduleChromosome> select(List<ScheduleChromosome> population, RandomGenerator random) {
+        return select(population, config.getTournamentSize(), random);
+    }
+
+    @Override
+    public List<ScheduleChromosome> select(List<ScheduleChromosome> population, int tournamentSize,
+                                           RandomGenerator random) {
+        int size = Math.max(1, tournamentSize);
         // 使用Stream API和函数式编程特性
         return population.stream()
-            .map(chromosome -> tournamentSelect(population))
+            .map(chromosome -> tournamentSelect(population, size, random))
             .map(ScheduleChromosome::clone)
             .toList();
     }
@@ -33,9 +50,10 @@ public class TournamentSelectionOperator implements SelectionOperator {
      * 锦标赛选择
      * 使用JDK 21的函数式编程特性
      */
-    private ScheduleChromosome tournamentSelect(List<ScheduleChromosome> population) {
-        // 随机选择TOURNAMENT_SIZE个个体进行比较
-        var tournamentParticipants = random.ints(TOURNAMENT_SIZE, 0, population.size())
+    private ScheduleChromosome tournamentSelect(List<ScheduleChromosome> population, int tournamentSize,
+                                                RandomGenerator random) {
+        // 随机选择tournamentSize个个体进行比较
+        var tournamentParticipants = random.ints(tournamentSize, 0, population.size())
             .mapToObj(population::get)
             .toList();
         
@@ -2,11 +2,14 @@ package com.scott.schedule.algorithm.impl;
 
 import com.scott.schedule.algorithm.CrossoverOperator;
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.common.enums.CrossoverType;
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * 均匀交叉操作实现
@@ -18,11 +21,30 @@ import java.util.Random;
 @Component
 public class UniformCrossoverOperator implements CrossoverOperator {
     
-    private static final double CROSSOVER_RATE = 0.8;
-    private final Random random = new Random();
+    private final GeneticAlgorithmConfig config;
+
+    public UniformCrossoverOperator() {
+        this(new GeneticAlgorithmConfig());
+    }
+
+    @Autowired
+    public UniformCrossoverOperator(GeneticAlgorithmConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public CrossoverType getType() {
+        return CrossoverType.UNIFORM;
+    }
     
     @Override
-    public List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected) {
+    public List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected, RandomGenerator random) {
+        return crossover(selected, config.getCrossoverRate(), random);
+    }
+
+    @Override
+    public List<ScheduleChromosome> crossover(List<ScheduleChromosome> selected, double crossoverRate,
+                                              RandomGenerator random) {
         var offspring = new ArrayList<ScheduleChromosome>();
         
         // 两两配对进行交叉
@@ -30,9 +52,9 @@ public class UniformCrossoverOperator implements CrossoverOperator {
             var parent1 = selected.get(i);
             var parent2 = selected.get(i + 1);
             
-            if (random.nextDouble() < CROSSOVER_RATE) {
+            if (random.nextDouble() < crossoverRate) {
                 // 执行交叉
-                var children = performCrossover(parent1, parent2);
+                var children = performCrossover(parent1, parent2, random);
                 offspring.addAll(children);
             } else {
                 // 不交叉，直接复制父代
@@ -54,7 +76,8 @@ public class UniformCrossoverOperator implements CrossoverOperator {
      * 使用JDK 21的模式匹配和函数式编程特性
      */
     private List<ScheduleChromosome> performCrossover(ScheduleChromosome parent1, 
-                                                     ScheduleChromosome parent2) {
+                                                     ScheduleChromosome parent2,
+                                                     RandomGenerator random) {
         var child1 = parent1.clone();
         var child2 = parent2.clone();
         
@@ -0,0 +1,37 @@
+package com.scott.schedule.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 交叉类型枚举
+ * 决定遗传算法使用哪种交叉操作
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Getter
+public enum CrossoverType {
+
+    /**
+     * 均匀交叉，逐个基因随机交换
+     */
+    UNIFORM("UNIFORM", "均匀交叉"),
+
+    /**
+     * 班级块交叉，以班级为单位整体交换该班级的所有节课
+     */
+    CLASS_BLOCK("CLASS_BLOCK", "班级块交叉"),
+
+    /**
+     * 星期块交叉，以星期为单位整体交换某一天的课表
+     */
+    DAY_BLOCK("DAY_BLOCK", "星期块交叉");
+
+    private final String code;
+    private final String description;
+
+    CrossoverType(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+}
@@ -0,0 +1,80 @@
+package com.scott.schedule.common.enums;
+
+/**
+ * 重启策略枚举
+ * 决定回溯搜索每次重启前允许的失败次数
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public enum RestartStrategy {
+
+    /**
+     * Luby序列
+     * 失败上限为 重启间隔 × (1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...)
+     *
+     * 特点：
+     * - 不需要事先知道合适的上限，与最优固定上限只差对数因子
+     * - 大部分重启很短，偶尔有很长的一次，能应对运行时间的重尾分布
+     */
+    LUBY("Luby序列"),
+
+    /**
+     * 几何增长
+     * 失败上限为 重启间隔 × 增长系数^(重启次数)
+     *
+     * 特点：
+     * - 上限持续增长，最终退化为不重启的完整搜索
+     * - 适合大多数实例只需少量重启的场景
+     */
+    GEOMETRIC("几何增长");
+
+    /**
+     * 策略描述
+     */
+    private final String description;
+
+    RestartStrategy(String description) {
+        this.description = description;
+    }
+
+    /**
+     * 获取策略描述
+     *
+     * @return 策略描述
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 计算第 restart 次搜索（从1开始）允许的失败次数
+     *
+     * @param restart 搜索序号，从1开始
+     * @param interval 重启间隔
+     * @param growthFactor 几何增长系数
+     * @return 失败次数上限
+     */
+    public long failureLimit(int restart, int interval, double growthFactor) {
+        return switch (this) {
+            case LUBY -> interval * luby(restart);
+            case GEOMETRIC -> (long) Math.min(Long.MAX_VALUE, interval * Math.pow(growthFactor, restart - 1));
+        };
+    }
+
+    /**
+     * Luby序列的第 i 项（从1开始）
+     */
+    static long luby(int i) {
+        while (true) {
+            int k = 1;
+            while ((1L << k) - 1 < i) {
+                k++;
+            }
+            if ((1L << k) - 1 == i) {
+                return 1L << (k - 1);
+            }
+            i -= (1 << (k - 1)) - 1;
+        }
+    }
+}
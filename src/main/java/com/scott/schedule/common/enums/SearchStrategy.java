@@ -51,7 +51,18 @@ public enum SearchStrategy {
      * - 找到最短解且内存需求小
      * - 有重复计算开销
      */
-    ITERATIVE_DEEPENING("迭代加深搜索", "逐步增加深度限制的搜索");
+    ITERATIVE_DEEPENING("迭代加深搜索", "逐步增加深度限制的搜索"),
+
+    /**
+     * 有限差异搜索 (Limited Discrepancy Search)
+     * 偏离值启发式首选值的次数称为差异，依次搜索差异不超过 0、1、2…… 的路径
+     *
+     * 特点：
+     * - 值启发式较准确时，解往往只需要很少几次偏离
+     * - 不会在一棵浅层选错的子树中耗尽时间
+     * - 差异上限足够大后等价于深度优先搜索，保持完备性
+     */
+    LIMITED_DISCREPANCY("有限差异搜索", "按偏离值启发式的次数逐步放宽的搜索");
 
     /**
      * 策略名称
@@ -102,6 +113,7 @@ public enum SearchStrategy {
             case DEPTH_FIRST -> 1;
             case DEPTH_LIMITED -> 1;
             case ITERATIVE_DEEPENING -> 2;
+            case LIMITED_DISCREPANCY -> 1;
             case BREADTH_FIRST -> 4;
         };
     }
@@ -117,6 +129,7 @@ public enum SearchStrategy {
             case DEPTH_LIMITED -> 2;
             case BREADTH_FIRST -> 3;
             case ITERATIVE_DEEPENING -> 4;
+            case LIMITED_DISCREPANCY -> 3;
         };
     }
 
@@ -131,6 +144,7 @@ public enum SearchStrategy {
             case DEPTH_LIMITED -> false;
             case BREADTH_FIRST -> true;
             case ITERATIVE_DEEPENING -> true;
+            case LIMITED_DISCREPANCY -> false;
         };
     }
 
@@ -145,6 +159,7 @@ public enum SearchStrategy {
             case BREADTH_FIRST -> "寻找最优解、解的深度较浅的问题";
             case DEPTH_LIMITED -> "已知解的大致深度、避免无限搜索";
             case ITERATIVE_DEEPENING -> "寻找最优解且内存受限、不知道解的深度";
+            case LIMITED_DISCREPANCY -> "值启发式较准确、希望尽快找到较好的解";
         };
     }
 }
@@ -106,6 +106,37 @@ public class AntColonyConfig {
      */
     private double localSearchProbability = 0.2;
 
+    /**
+     * 每只蚂蚁局部搜索的最大移动次数
+     * 控制局部搜索的耗时上限
+     * 建议值：50-500
+     */
+    private int localSearchBudget = 100;
+
+    /**
+     * 候选列表大小
+     * 每节课只从 τ^α·η^β 排名前若干的候选中用别名表采样，
+     * 候选列表中的位置都已被占用时才回退到全部候选的轮盘赌
+     * 不大于0时禁用候选列表，每次决策都对全部候选做轮盘赌
+     * 建议值：10-30
+     */
+    private int candidateListSize = 20;
+
+    /**
+     * 蚁群数量
+     * 大于1时蚂蚁平均分配到多个独立蚁群，每个蚁群在自己的任务中运行并拥有独立的信息素表，
+     * 蚁群之间没有逐轮同步，适合多核机器；多蚁群模式下的结果受线程调度影响，不保证可复现
+     * 建议值：1 或 CPU核心数 / 4
+     */
+    private int colonyCount = 1;
+
+    /**
+     * 蚁群交换间隔
+     * 多蚁群模式下每个蚁群每隔多少轮提交自己的最优解并采纳更好的全局最优解
+     * 建议值：5-20
+     */
+    private int colonyExchangeInterval = 10;
+
     /**
      * 是否启用精英策略
      * 是否只允许最优蚂蚁更新信息素
@@ -156,6 +187,15 @@ public class AntColonyConfig {
         if (localSearchProbability < 0 || localSearchProbability > 1) {
             throw new IllegalArgumentException("局部搜索概率必须在[0,1]范围内");
         }
+        if (colonyCount <= 0) {
+            throw new IllegalArgumentException("蚁群数量必须大于0");
+        }
+        if (colonyExchangeInterval <= 0) {
+            throw new IllegalArgumentException("蚁群交换间隔必须大于0");
+        }
+        if (localSearchBudget < 0) {
+            throw new IllegalArgumentException("局部搜索移动次数必须非负");
+        }
     }
 
     /**
@@ -207,12 +247,17 @@ public class AntColonyConfig {
                 ├── 精英蚂蚁数量: %d
                 ├── 收敛阈值: %.4f
                 ├── 局部搜索概率: %.2f
+                ├── 局部搜索移动次数: %d
+                ├── 候选列表大小: %d
+                ├── 蚁群数量: %d
+                ├── 蚁群交换间隔: %d
                 ├── 精英策略: %s
                 └── 最大最小蚂蚁系统: %s
                 %n""",
                 antCount, maxIterations, alpha, beta, evaporationRate,
                 pheromoneIntensity, initialPheromone, minPheromone, maxPheromone,
-                eliteAntCount, convergenceThreshold, localSearchProbability,
+                eliteAntCount, convergenceThreshold, localSearchProbability, localSearchBudget, candidateListSize,
+                colonyCount, colonyExchangeInterval,
                 eliteStrategy ? "启用" : "禁用",
                 maxMinAntSystem ? "启用" : "禁用"
         );
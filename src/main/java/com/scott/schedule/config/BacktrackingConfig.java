@@ -1,6 +1,7 @@
 package com.scott.schedule.config;
 
 import com.scott.schedule.common.enums.ConstraintPropagationType;
+import com.scott.schedule.common.enums.RestartStrategy;
 import com.scott.schedule.common.enums.SearchStrategy;
 import com.scott.schedule.common.enums.ValueSelectionStrategy;
 import com.scott.schedule.common.enums.VariableSelectionStrategy;
@@ -40,7 +41,8 @@ public class BacktrackingConfig {
 
     /**
      * 最大搜索深度
-     * 限制搜索树的最大深度，防止无限递归
+     * 限制深度搜索只在前 maxSearchDepth 层回溯，更深的层只尝试值启发式的首选值；
+     * 搜索使用显式栈，其他搜索策略不受此限制
      */
     private int maxSearchDepth = 1000;
 
@@ -88,10 +90,22 @@ public class BacktrackingConfig {
 
     /**
      * 重启间隔
-     * 每隔多少次失败后重启搜索
+     * 每隔多少次失败后重启搜索，按重启策略乘以相应倍数
      */
     private int restartInterval = 100;
 
+    /**
+     * 重启策略
+     * 决定每次重启前允许的失败次数如何变化
+     */
+    private RestartStrategy restartStrategy = RestartStrategy.LUBY;
+
+    /**
+     * 重启增长系数
+     * 几何增长策略下每次重启后失败上限乘以该系数
+     */
+    private double restartGrowthFactor = 1.5;
+
     /**
      * 是否启用随机化
      * 在变量和值选择中引入随机性
@@ -104,6 +118,43 @@ public class BacktrackingConfig {
      */
     private double randomizationProbability = 0.1;
 
+    /**
+     * 是否启用并行搜索
+     * 在搜索树的浅层把分支拆成任务，由 ForkJoinPool 工作窃取执行，任一任务找到解后其余任务停止
+     */
+    private boolean enableParallelSearch = false;
+
+    /**
+     * 并行线程数
+     * 0表示使用可用处理器数
+     */
+    private int parallelism = 0;
+
+    /**
+     * 每个线程的任务数
+     * 浅层分支拆分到任务数达到 线程数 × 该值 为止，任务越多负载越均衡，复制状态的开销也越大
+     */
+    private int parallelTasksPerThread = 16;
+
+    /**
+     * 是否启用分支定界
+     * 找到第一个可行解后继续搜索软约束代价更小的解，剪掉代价下界不小于当前最优代价的子树，
+     * 直到证明最优或超出最大搜索时间
+     */
+    private boolean enableBranchAndBound = false;
+
+    /**
+     * 教师偏好权重
+     * 每节不在教师偏好时间段内的课计入的代价
+     */
+    private double teacherPreferenceWeight = 1.0;
+
+    /**
+     * 课程分散权重
+     * 同一课程每两节课在同一天计入的代价
+     */
+    private double courseSpreadWeight = 1.0;
+
     /**
      * 是否启用对称破缺
      * 消除问题中的对称性以减少搜索空间
@@ -152,6 +203,12 @@ public class BacktrackingConfig {
      */
     private SearchStrategy searchStrategy = SearchStrategy.DEPTH_FIRST;
 
+    /**
+     * 宽度优先搜索的前沿上限
+     * 下一层节点数超过上限后，对前沿中的每个节点依次进行深度优先搜索，避免内存耗尽
+     */
+    private int breadthFirstFrontierLimit = 10000;
+
     /**
      * 启发式权重配置
      * 用于调整不同启发式在选择过程中的重要性
@@ -234,10 +291,30 @@ public class BacktrackingConfig {
             throw new IllegalArgumentException("重启间隔必须大于0");
         }
 
+        if (restartGrowthFactor <= 1.0) {
+            throw new IllegalArgumentException("重启增长系数必须大于1.0");
+        }
+
         if (randomizationProbability < 0.0 || randomizationProbability > 1.0) {
             throw new IllegalArgumentException("随机化概率必须在[0.0, 1.0]范围内");
         }
 
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("并行线程数必须非负");
+        }
+
+        if (parallelTasksPerThread <= 0) {
+            throw new IllegalArgumentException("每个线程的任务数必须大于0");
+        }
+
+        if (teacherPreferenceWeight < 0.0 || courseSpreadWeight < 0.0) {
+            throw new IllegalArgumentException("软约束权重必须非负");
+        }
+
+        if (breadthFirstFrontierLimit <= 0) {
+            throw new IllegalArgumentException("宽度优先搜索的前沿上限必须大于0");
+        }
+
         if (maxNodes <= 0) {
             throw new IllegalArgumentException("节点限制必须大于0");
         }
@@ -281,11 +358,13 @@ public class BacktrackingConfig {
                         ├── 前向检查: %s
                         ├── 回跳: %s
                         ├── 学习: %s (最大子句: %d)
-                        ├── 重启: %s (间隔: %d)
+                        ├── 重启: %s (间隔: %d, 策略: %s)
                         ├── 随机化: %s (概率: %.2f)
+                        ├── 并行搜索: %s (线程: %d, 每线程任务: %d)
+                        ├── 分支定界: %s (教师偏好权重: %.2f, 课程分散权重: %.2f)
                         ├── 对称破缺: %s
                         ├── 动态排序: 变量(%s) 值(%s)
-                        ├── 搜索策略: %s
+                        ├── 搜索策略: %s (宽度优先前沿上限: %d)
                         ├── 节点限制: %d
                         ├── 失败限制: %d
                         ├── 解数量限制: %d
@@ -299,12 +378,14 @@ public class BacktrackingConfig {
                 enableForwardChecking ? "启用" : "禁用",
                 enableBackjumping ? "启用" : "禁用",
                 enableLearning ? "启用" : "禁用", maxLearnedClauses,
-                enableRestart ? "启用" : "禁用", restartInterval,
+                enableRestart ? "启用" : "禁用", restartInterval, restartStrategy.getDescription(),
                 enableRandomization ? "启用" : "禁用", randomizationProbability,
+                enableParallelSearch ? "启用" : "禁用", parallelism, parallelTasksPerThread,
+                enableBranchAndBound ? "启用" : "禁用", teacherPreferenceWeight, courseSpreadWeight,
                 enableSymmetryBreaking ? "启用" : "禁用",
                 enableDynamicVariableOrdering ? "启用" : "禁用",
                 enableDynamicValueOrdering ? "启用" : "禁用",
-                searchStrategy.getDescription(),
+                searchStrategy.getDescription(), breadthFirstFrontierLimit,
                 maxNodes,
                 maxFailures,
                 maxSolutions,
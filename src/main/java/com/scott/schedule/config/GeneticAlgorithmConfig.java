@@ -1,5 +1,6 @@
 package com.scott.schedule.config;
 
+import com.scott.schedule.common.enums.CrossoverType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -53,6 +54,66 @@ public class GeneticAlgorithmConfig {
      */
     private int maxGenerationsWithoutImprovement = 100;
     
+    /**
+     * 是否启用模因算法（每代对最优后代执行局部搜索）
+     */
+    private boolean memeticEnabled = false;
+    
+    /**
+     * 每代执行局部搜索的最优后代数量
+     */
+    private int memeticEliteCount = 5;
+    
+    /**
+     * 每个个体局部搜索的最大移动次数
+     */
+    private int localSearchBudget = 200;
+    
+    /**
+     * 交叉类型
+     */
+    private CrossoverType crossoverType = CrossoverType.UNIFORM;
+    
+    /**
+     * 交叉后是否对后代执行冲突修复
+     */
+    private boolean crossoverRepair = false;
+    
+    /**
+     * 是否启用自适应算子参数（根据种群多样性逐代调整变异概率和锦标赛规模）
+     */
+    private boolean adaptiveRatesEnabled = false;
+    
+    /**
+     * 自适应变异概率下限
+     */
+    private double minMutationRate = 0.01;
+    
+    /**
+     * 自适应变异概率上限
+     */
+    private double maxMutationRate = 0.5;
+    
+    /**
+     * 自适应锦标赛规模下限
+     */
+    private int minTournamentSize = 2;
+    
+    /**
+     * 自适应锦标赛规模上限
+     */
+    private int maxTournamentSize = 7;
+    
+    /**
+     * 多样性下阈值，低于该值认为种群坍缩
+     */
+    private double diversityLowThreshold = 0.05;
+    
+    /**
+     * 多样性上阈值，高于该值认为种群仍在探索
+     */
+    private double diversityHighThreshold = 0.3;
+    
     // Getters and Setters
     public int getPopulationSize() {
         return populationSize;
@@ -117,4 +178,100 @@ public class GeneticAlgorithmConfig {
     public void setMaxGenerationsWithoutImprovement(int maxGenerationsWithoutImprovement) {
         this.maxGenerationsWithoutImprovement = maxGenerationsWithoutImprovement;
     }
+    
+    public boolean isMemeticEnabled() {
+        return memeticEnabled;
+    }
+    
+    public void setMemeticEnabled(boolean memeticEnabled) {
+        this.memeticEnabled = memeticEnabled;
+    }
+    
+    public int getMemeticEliteCount() {
+        return memeticEliteCount;
+    }
+    
+    public void setMemeticEliteCount(int memeticEliteCount) {
+        this.memeticEliteCount = memeticEliteCount;
+    }
+    
+    public int getLocalSearchBudget() {
+        return localSearchBudget;
+    }
+    
+    public void setLocalSearchBudget(int localSearchBudget) {
+        this.localSearchBudget = localSearchBudget;
+    }
+    
+    public CrossoverType getCrossoverType() {
+        return crossoverType;
+    }
+    
+    public void setCrossoverType(CrossoverType crossoverType) {
+        this.crossoverType = crossoverType;
+    }
+    
+    public boolean isCrossoverRepair() {
+        return crossoverRepair;
+    }
+    
+    public void setCrossoverRepair(boolean crossoverRepair) {
+        this.crossoverRepair = crossoverRepair;
+    }
+    
+    public boolean isAdaptiveRatesEnabled() {
+        return adaptiveRatesEnabled;
+    }
+    
+    public void setAdaptiveRatesEnabled(boolean adaptiveRatesEnabled) {
+        this.adaptiveRatesEnabled = adaptiveRatesEnabled;
+    }
+    
+    public double getMinMutationRate() {
+        return minMutationRate;
+    }
+    
+    public void setMinMutationRate(double minMutationRate) {
+        this.minMutationRate = minMutationRate;
+    }
+    
+    public double getMaxMutationRate() {
+        return maxMutationRate;
+    }
+    
+    public void setMaxMutationRate(double maxMutationRate) {
+        this.maxMutationRate = maxMutationRate;
+    }
+    
+    public int getMinTournamentSize() {
+        return minTournamentSize;
+    }
+    
+    public void setMinTournamentSize(int minTournamentSize) {
+        this.minTournamentSize = minTournamentSize;
+    }
+    
+    public int getMaxTournamentSize() {
+        return maxTournamentSize;
+    }
+    
+    public void setMaxTournamentSize(int maxTournamentSize) {
+        this.maxTournamentSize = maxTournamentSize;
+    }
+    
+    public double getDiversityLowThreshold() {
+        return diversityLowThreshold;
+    }
+    
+    public void setDiversityLowThreshold(double diversityLowThreshold) {
+        this.diversityLowThreshold = diversityLowThreshold;
+    }
+    
+    public double getDiversityHighThreshold() {
+        return diversityHighThreshold;
+    }
+    
+    public void setDiversityHighThreshold(double diversityHighThreshold) {
+        this.diversityHighThreshold = diversityHighThreshold;
+    }
 }
@@ -0,0 +1,43 @@
+package com.scott.schedule.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 算法竞速配置类
+ * 贪心、遗传、蚁群、回溯算法同时求解同一个问题，达到目标或超出时间预算后取消其余算法
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "algorithm.portfolio")
+public class PortfolioConfig {
+
+    /**
+     * 目标适应度
+     * 任一算法找到无冲突且达到该适应度的解后取消其余算法
+     * 适应度为 1 / (1 + 约束违反数)，默认值1.0即第一个无冲突解
+     */
+    private double targetFitness = 1.0;
+
+    /**
+     * 时间预算（秒）
+     * 超过后取消所有仍在运行的算法，返回当时的最优解
+     */
+    private int timeBudgetSeconds = 60;
+
+    /**
+     * 验证配置参数的有效性
+     */
+    public void validate() {
+        if (targetFitness <= 0.0 || targetFitness > 1.0) {
+            throw new IllegalArgumentException("目标适应度必须在(0, 1]范围内");
+        }
+        if (timeBudgetSeconds <= 0) {
+            throw new IllegalArgumentException("时间预算必须大于0");
+        }
+    }
+}
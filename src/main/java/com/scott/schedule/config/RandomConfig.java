@@ -0,0 +1,24 @@
+package com.scott.schedule.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 随机数配置类
+ * 所有排课算法共用同一个运行种子，便于复现搜索过程和性能回归
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "algorithm.random")
+public class RandomConfig {
+
+    /**
+     * 运行种子
+     * 为空时每次运行随机生成种子，并记录到排课结果的算法参数中
+     */
+    private Long seed;
+}
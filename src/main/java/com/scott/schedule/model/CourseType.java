@@ -46,5 +46,25 @@ public enum CourseType {
     public String getDescription() {
         return description;
     }
-}
 
+    /**
+     * 判断该类型课程能否在指定类型的教室上课
+     * 实验课只能使用实验室或机房，体育课只能使用体育馆，其他课程不使用这几类专用场地；
+     * 教室类型未知时视为兼容
+     *
+     * @param classroomType 教室类型
+     * @return 兼容时返回true
+     */
+    public boolean accepts(ClassroomType classroomType) {
+        if (classroomType == null) {
+            return true;
+        }
+        return switch (this) {
+            case LAB -> classroomType == ClassroomType.LAB || classroomType == ClassroomType.COMPUTER_LAB;
+            case PE -> classroomType == ClassroomType.GYM;
+            default -> classroomType != ClassroomType.LAB
+                    && classroomType != ClassroomType.COMPUTER_LAB
+                    && classroomType != ClassroomType.GYM;
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package com.scott.schedule.service;
 
+import com.scott.schedule.algorithm.SharedIncumbent;
+
 /**
  * 学校排课服务
  *
@@ -8,4 +10,15 @@ package com.scott.schedule.service;
  */
 public interface ClassScheduler {
     void schedule();
+
+    /**
+     * 与其他算法竞速排课
+     * 使用共享最优解中的编译后问题，找到更优解时提交，取消信号发出后尽快结束
+     * 默认忽略共享最优解，独立运行
+     *
+     * @param incumbent 共享最优解
+     */
+    default void schedule(SharedIncumbent incumbent) {
+        schedule();
+    }
 }
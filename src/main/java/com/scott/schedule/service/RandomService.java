@@ -0,0 +1,33 @@
+package com.scott.schedule.service;
+
+import com.scott.schedule.config.RandomConfig;
+import com.scott.schedule.utils.RandomStreams;
+import org.springframework.stereotype.Service;
+
+/**
+ * 随机数服务
+ * 为每次排课运行生成一组由同一种子派生的随机数流
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Service
+public class RandomService {
+
+    private final RandomConfig config;
+
+    public RandomService(RandomConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 开始一次新的运行
+     * 配置了种子时使用配置的种子，否则随机生成种子
+     *
+     * @return 本次运行的随机数流集合
+     */
+    public RandomStreams newRun() {
+        Long seed = config.getSeed();
+        return seed != null ? RandomStreams.of(seed) : RandomStreams.randomSeed();
+    }
+}
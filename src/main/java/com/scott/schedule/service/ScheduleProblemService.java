@@ -0,0 +1,35 @@
+package com.scott.schedule.service;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+import org.springframework.stereotype.Service;
+
+/**
+ * 排课问题服务
+ * 从当前数据源读取课程、教师、教室、时间段数据并编译为排课问题
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Service
+public class ScheduleProblemService {
+
+    private final DataService dataService;
+
+    public ScheduleProblemService(DataService dataService) {
+        this.dataService = dataService;
+    }
+
+    /**
+     * 编译当前数据对应的排课问题
+     *
+     * @return 编译后的排课问题
+     */
+    public ScheduleProblem getProblem() {
+        return ScheduleProblem.compile(
+                dataService.getAllCourses(),
+                dataService.getAllTeachers(),
+                dataService.getAllClassrooms(),
+                dataService.getAllTimeSlots()
+        );
+    }
+}
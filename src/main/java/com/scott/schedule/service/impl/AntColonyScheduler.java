@@ -1,14 +1,28 @@
 package com.scott.schedule.service.impl;
 
+import com.scott.schedule.algorithm.LocalSearchOperator;
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.algorithm.SharedIncumbent;
+import com.scott.schedule.algorithm.TimetableEvaluator;
+import com.scott.schedule.algorithm.aco.CandidateSampler;
+import com.scott.schedule.algorithm.aco.HeuristicCalculator;
+import com.scott.schedule.algorithm.aco.SparsePheromoneStore;
 import com.scott.schedule.config.AntColonyConfig;
 import com.scott.schedule.service.ClassScheduler;
+import com.scott.schedule.service.RandomService;
+import com.scott.schedule.service.ScheduleProblemService;
+import com.scott.schedule.utils.RandomStreams;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
 
 /**
@@ -22,6 +36,18 @@ import java.util.stream.IntStream;
 @Service
 public class AntColonyScheduler implements ClassScheduler {
 
+    /**
+     * 已被其他节课占用的候选位置的权重系数
+     * 不直接禁止，保留少量概率，避免所有候选都冲突时无法选择
+     */
+    private static final double CONFLICT_PENALTY = 0.01;
+
+    /**
+     * 从候选列表采样的最大尝试次数
+     * 连续采到已占用的位置时回退到全部候选的轮盘赌
+     */
+    private static final int MAX_SAMPLE_ATTEMPTS = 8;
+
     /**
      * 蚁群算法配置参数
      * 包含蚂蚁数量、迭代次数、信息素参数等核心配置
@@ -29,51 +55,103 @@ public class AntColonyScheduler implements ClassScheduler {
     private final AntColonyConfig config;
 
     /**
-     * 随机数生成器
-     * 用于蚂蚁路径选择中的随机决策
+     * 随机数服务
+     * 每次运行为每只蚂蚁派生独立的随机数流，用于路径选择中的随机决策
+     */
+    private final RandomService randomService;
+
+    /**
+     * 排课问题服务
+     * 提供编译后的真实排课数据，信息素表的维度由问题规模决定
      */
-    private final Random random = new Random();
+    private final ScheduleProblemService problemService;
 
     /**
-     * 信息素矩阵
-     * 存储课程-时间-教室组合的信息素浓度
-     * 维度：[课程数][时间段数][教室数]
+     * 局部搜索操作器
+     * 蚂蚁构建完成后按 localSearchProbability 的概率对其解做有限步数的增量局部搜索
      */
-    private double[][][] pheromoneMatrix;
+    private final LocalSearchOperator localSearchOperator;
 
     /**
-     * 启发式信息矩阵
-     * 存储课程安排的启发式价值（如教室容量匹配度、时间偏好等）
-     * 维度：[课程数][时间段数][教室数]
+     * 最近一次运行的随机数流集合，记录运行种子以便复现
      */
-    private double[][][] heuristicMatrix;
+    private RandomStreams randomStreams;
+
+    /**
+     * 当前运行的排课问题，数据为空时为null，此时蚂蚁退化为随机构建
+     */
+    private ScheduleProblem problem;
+
+    /**
+     * 启发式信息缓存，按数据指纹复用，数据不变时再次求解不需要重新计算
+     */
+    private volatile HeuristicCache heuristicCache;
+
+    /**
+     * 节课构建顺序，可选位置越少的节课越先安排
+     */
+    private int[] constructionOrder;
 
     /**
      * 蚂蚁群体
-     * 每只蚂蚁代表一个独立的排课方案构建者
+     * 每只蚂蚁代表一个独立的排课方案构建者，运行时按编号分配到各个蚁群
      */
     private List<Ant> ants;
 
     /**
-     * 全局最优解
-     * 记录到目前为止找到的最好排课方案
+     * 本次运行的蚁群，默认只有一个
+     */
+    private List<Colony> colonies;
+
+    /**
+     * 全局最优解及其路径
+     * 多蚁群模式下各蚁群通过CAS无锁地提交自己的最优解，交换时从这里读取
      */
-    private ScheduleChromosome globalBestSolution;
+    private final AtomicReference<Incumbent> sharedBest = new AtomicReference<>();
+
+    /**
+     * 多蚁群模式下的停止标志，任一蚁群找到无冲突解后其他蚁群尽快结束
+     */
+    private final AtomicBoolean stopRequested = new AtomicBoolean();
 
     /**
      * 虚拟线程执行器
-     * 使用JDK 21的虚拟线程特性，用于并行执行蚂蚁的路径构建
+     * 使用JDK 21的虚拟线程特性，用于并行执行蚂蚁的路径构建，多蚁群模式下每个蚁群占用一个任务
+     * 每次运行创建、运行结束时关闭，同一实例可以多次运行
+     */
+    private ExecutorService executor;
+
+    /**
+     * 下次运行用于初始化信息素的种子解，运行开始时取出并清空
+     */
+    private volatile List<ScheduleChromosome> seedSolutions = List.of();
+
+    /**
+     * 最近一次运行所有蚁群完成的迭代轮数之和
+     */
+    private final AtomicInteger completedIterations = new AtomicInteger();
+
+    /**
+     * 本次运行的共享最优解，以及最近一次采纳的外部解
      */
-    private final ExecutorService executor;
+    private SharedIncumbent incumbent;
+    private volatile ScheduleChromosome lastImported;
 
     /**
      * 构造函数，初始化蚁群算法排课服务
      *
      * @param config 蚁群算法配置参数
+     * @param randomService 随机数服务
+     * @param problemService 排课问题服务
+     * @param localSearchOperator 局部搜索操作器
      */
-    public AntColonyScheduler(AntColonyConfig config) {
+    public AntColonyScheduler(AntColonyConfig config, RandomService randomService,
+                              ScheduleProblemService problemService,
+                              LocalSearchOperator localSearchOperator) {
         this.config = config;
-        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.randomService = randomService;
+        this.problemService = problemService;
+        this.localSearchOperator = localSearchOperator;
         initializeComponents();
     }
 
@@ -84,58 +162,98 @@ public class AntColonyScheduler implements ClassScheduler {
      * 2. 迭代执行蚂蚁路径构建
      * 3. 更新信息素
      * 4. 记录最优解
+     *
+     * colonyCount 大于1时各蚁群在独立的任务中运行，拥有各自的信息素表，
+     * 每隔 colonyExchangeInterval 轮与全局最优解交换一次，迭代之间没有全局屏障
      */
     @Override
     public void schedule() {
+        schedule(new SharedIncumbent());
+    }
+
+    /**
+     * 与其他算法竞速执行蚁群算法排课
+     * 蚁群最优解改进时提交到共享最优解；交换全局最优解时一并采纳其他算法提交的更优解，
+     * 取消信号发出后在当前轮结束时停止
+     *
+     * @param incumbent 共享最优解
+     */
+    @Override
+    public void schedule(SharedIncumbent incumbent) {
+        this.incumbent = incumbent;
+        randomStreams = randomService.newRun();
+        ScheduleProblem compiled = incumbent.getProblem() != null ? incumbent.getProblem() : problemService.getProblem();
+        problem = compiled.isEmpty() ? null : compiled;
+        int colonyCount = problem != null ? Math.max(1, Math.min(config.getColonyCount(), ants.size())) : 1;
+
         System.out.printf(
                 """
                         🐜 开始执行蚁群算法排课
+                        🎲 随机种子: %d
+                        📐 问题规模: %s
                         🔢 蚂蚁数量: %d
+                        🏘️ 蚁群数量: %s
                         🔄 最大迭代次数: %d
                         💧 信息素重要性: %.2f
                         🧠 启发式重要性: %.2f
                         💨 信息素挥发率: %.2f
+                        🔒 最大最小蚂蚁系统: %s
+                        🏅 精英策略: %s
+                        🔍 局部搜索: %s
                         %n""",
+                randomStreams.getSeed(),
+                problem != null
+                        ? "%d节课 × %d时间段 × %d教室".formatted(
+                                problem.getLessonCount(), problem.getSlotCount(), problem.getRoomCount())
+                        : "无数据，使用模拟数据",
                 config.getAntCount(),
+                colonyCount > 1
+                        ? "%d (每%d轮交换一次全局最优解)".formatted(colonyCount, config.getColonyExchangeInterval())
+                        : "1",
                 config.getMaxIterations(),
                 config.getAlpha(),
                 config.getBeta(),
-                config.getEvaporationRate()
+                config.getEvaporationRate(),
+                config.isMaxMinAntSystem()
+                        ? "启用 [%.3f, %.3f]".formatted(config.getMinPheromone(), config.getMaxPheromone())
+                        : "禁用",
+                config.isEliteStrategy() ? "启用" : "禁用",
+                config.getLocalSearchProbability() > 0 && config.getLocalSearchBudget() > 0
+                        ? "概率 %.2f, 每只蚂蚁%d步".formatted(config.getLocalSearchProbability(), config.getLocalSearchBudget())
+                        : "禁用"
         );
 
+        List<ScheduleChromosome> seeds = seedSolutions;
+        seedSolutions = List.of();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
         try {
-            // 初始化信息素和启发式信息
-            initializePheromoneMatrix();
-            initializeHeuristicMatrix();
+            sharedBest.set(null);
+            stopRequested.set(false);
+            lastImported = null;
+            completedIterations.set(0);
 
-            // 主迭代循环
-            for (int iteration = 0; iteration < config.getMaxIterations(); iteration++) {
-                // 并行构建蚂蚁解
-                constructAntSolutionsParallel();
+            // 每只蚂蚁使用独立的随机数流，并行构建时互不竞争
+            ants.forEach(ant -> ant.setRandom(randomStreams.stream("ant", ant.getId())));
 
-                // 更新全局最优解
-                updateGlobalBest();
-
-                // 更新信息素
-                updatePheromone();
-
-                // 信息素挥发
-                evaporatePheromone();
-
-                // 每50代输出一次进度
-                if (iteration % 50 == 0) {
-                    System.out.printf("🔄 第%d代完成，当前最优适应度: %.4f%n",
-                            iteration, globalBestSolution != null ? globalBestSolution.getFitness() : 0.0);
-                }
+            // 初始化信息素和启发式信息
+            initializeColonies(colonyCount);
+            applySeedSolutions(seeds);
 
-                // 检查收敛条件
-                if (isConverged()) {
-                    System.out.printf("✅ 算法在第%d代收敛%n", iteration);
-                    break;
-                }
+            if (colonies.size() == 1) {
+                runSingleColony(colonies.get(0));
+            } else {
+                var futures = colonies.stream()
+                        .map(colony -> CompletableFuture.runAsync(colony::run, executor))
+                        .toList();
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
             }
 
             // 输出最终结果
+            ScheduleChromosome best = getBestSolution();
+            if (best == null) {
+                System.out.println("⏹️ 蚁群算法在第一轮完成前被取消");
+                return;
+            }
             System.out.printf(
                     """
                             ✅ 蚁群算法排课完成
@@ -143,9 +261,9 @@ public class AntColonyScheduler implements ClassScheduler {
                             🐜 参与蚂蚁数量: %d
                             ⚠️ 约束违反数: %d
                             %n""",
-                    globalBestSolution.getFitness(),
+                    best.getFitness(),
                     config.getAntCount(),
-                    globalBestSolution.getConstraintViolations()
+                    best.getConstraintViolations()
             );
 
         } finally {
@@ -153,185 +271,513 @@ public class AntColonyScheduler implements ClassScheduler {
         }
     }
 
+    /**
+     * 单蚁群主循环
+     * 每轮所有蚂蚁并行构建，构建完成后统一挥发和沉积，固定随机种子下结果可复现
+     */
+    private void runSingleColony(Colony colony) {
+        for (int iteration = 0; iteration < config.getMaxIterations() && !incumbent.isCancelled(); iteration++) {
+            // 并行构建蚂蚁解
+            colony.constructSolutions(true);
+            completedIterations.incrementAndGet();
+
+            // 更新全局最优解，并按交换间隔采纳其他算法的更优解
+            colony.updateBest();
+            colony.publish();
+            if ((iteration + 1) % Math.max(1, config.getColonyExchangeInterval()) == 0 && importIncumbent()) {
+                colony.exchange();
+            }
+
+            // 信息素挥发
+            colony.evaporate();
+
+            // 更新信息素
+            colony.updatePheromone();
+
+            // 每50代输出一次进度
+            if (iteration % 50 == 0) {
+                System.out.printf("🔄 第%d代完成，当前最优适应度: %.4f%n",
+                        iteration, colony.getBestFitness());
+            }
+
+            // 找到无冲突解或收敛时停止
+            if (colony.getBestFitness() >= 1.0) {
+                System.out.printf("✅ 在第%d代找到无冲突解%n", iteration);
+                break;
+            }
+            if (colony.isConverged()) {
+                System.out.printf("✅ 算法在第%d代收敛%n", iteration);
+                break;
+            }
+        }
+    }
+
     /**
      * 初始化算法组件
-     * 创建蚂蚁群体和相关数据结构
+     * 创建蚂蚁群体
      */
     private void initializeComponents() {
         // 初始化蚂蚁群体
         this.ants = IntStream.range(0, config.getAntCount())
                 .mapToObj(i -> new Ant(i))
                 .toList();
-
-        // 初始化矩阵维度（这里使用示例维度，实际应根据具体问题调整）
-        int courseCount = 100;  // 课程数量
-        int timeSlotCount = 50; // 时间段数量
-        int classroomCount = 30; // 教室数量
-
-        this.pheromoneMatrix = new double[courseCount][timeSlotCount][classroomCount];
-        this.heuristicMatrix = new double[courseCount][timeSlotCount][classroomCount];
     }
 
     /**
-     * 初始化信息素矩阵
-     * 将所有信息素浓度设置为初始值
+     * 创建蚁群并初始化各自的信息素表
+     * 第 i 只蚂蚁分配到第 i % colonyCount 个蚁群；所有蚁群的信息素表由同一问题构建，
+     * 候选下标一一对应，因此路径可以直接在蚁群之间交换
+     *
+     * @param colonyCount 蚁群数量
      */
-    private void initializePheromoneMatrix() {
-        double initialPheromone = config.getInitialPheromone();
-        for (double[][] courseMatrix : pheromoneMatrix) {
-            for (double[] timeSlotArray : courseMatrix) {
-                Arrays.fill(timeSlotArray, initialPheromone);
-            }
+    private void initializeColonies(int colonyCount) {
+        List<List<Ant>> members = new ArrayList<>();
+        for (int c = 0; c < colonyCount; c++) {
+            members.add(new ArrayList<>());
+        }
+        for (Ant ant : ants) {
+            members.get(ant.getId() % colonyCount).add(ant);
+        }
+
+        if (problem == null) {
+            constructionOrder = new int[0];
+            colonies = List.of(new Colony(0, members.get(0), null));
+            return;
+        }
+
+        List<Colony> created = new ArrayList<>(colonyCount);
+        for (int c = 0; c < colonyCount; c++) {
+            created.add(new Colony(c, members.get(c), SparsePheromoneStore.build(problem)));
         }
+        colonies = created;
+        SparsePheromoneStore store = created.get(0).store;
+
+        // 可行候选越少的节课越难安排，优先构建
+        this.constructionOrder = IntStream.range(0, problem.getLessonCount())
+                .boxed()
+                .sorted(Comparator.comparingInt(lesson -> store.end(lesson) - store.start(lesson)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        float[] heuristics = initializeHeuristicMatrix(store);
+        created.forEach(colony -> colony.initialize(heuristics));
+
+        long denseCells = (long) problem.getLessonCount() * problem.getSlotCount() * problem.getRoomCount();
+        System.out.printf("🧮 可行候选: %d / %d (%.1f%%)，信息素表约 %d KB × %d%n",
+                store.size(), denseCells, 100.0 * store.size() / Math.max(1, denseCells),
+                store.memoryBytes() / 1024, colonyCount);
     }
 
     /**
      * 初始化启发式信息矩阵
-     * 计算每个课程-时间-教室组合的启发式价值
-     */
-    private void initializeHeuristicMatrix() {
-        for (int course = 0; course < heuristicMatrix.length; course++) {
-            for (int timeSlot = 0; timeSlot < heuristicMatrix[course].length; timeSlot++) {
-                for (int classroom = 0; classroom < heuristicMatrix[course][timeSlot].length; classroom++) {
-                    // 计算启发式价值（示例：基于教室容量、时间偏好等）
-                    heuristicMatrix[course][timeSlot][classroom] = calculateHeuristicValue(course, timeSlot, classroom);
-                }
-            }
+     * 根据课程、教师、教室、时间段数据计算每个可行候选的启发式价值，
+     * 数据指纹与上次相同时直接复用缓存的结果
+     *
+     * @param store 按当前问题构建的稀疏信息素表
+     * @return 与候选一一对应的启发式价值
+     */
+    private float[] initializeHeuristicMatrix(SparsePheromoneStore store) {
+        HeuristicCache cache = heuristicCache;
+        if (cache != null && cache.fingerprint() == problem.getFingerprint() && cache.values().length == store.size()) {
+            System.out.println("🧠 数据未变化，复用已缓存的启发式信息");
+        } else {
+            cache = new HeuristicCache(problem.getFingerprint(), HeuristicCalculator.compute(problem, store));
+            heuristicCache = cache;
         }
+        return cache.values();
     }
 
     /**
-     * 计算启发式价值
-     * 根据课程特点、时间偏好、教室适配度等因素计算启发式价值
+     * 设置下次运行的种子解
+     * 种子解的路径在运行开始时按适应度沉积到每个蚁群的信息素表上，
+     * 最优的种子解同时作为初始的全局最优解，使蚁群从已有结果出发而不是冷启动
      *
-     * @param course 课程索引
-     * @param timeSlot 时间段索引
-     * @param classroom 教室索引
-     * @return 启发式价值
-     */
-    private double calculateHeuristicValue(int course, int timeSlot, int classroom) {
-        // 示例计算逻辑，实际应根据具体业务规则调整
-        double capacityMatch = 1.0; // 教室容量匹配度
-        double timePreference = 1.0; // 时间偏好度
-        double resourceAvailability = 1.0; // 资源可用性
-
-        return capacityMatch * timePreference * resourceAvailability;
+     * @param solutions 与本次数据对应的排课解，通常来自遗传算法
+     */
+    public void seedSolutions(List<ScheduleChromosome> solutions) {
+        this.seedSolutions = solutions != null ? List.copyOf(solutions) : List.of();
     }
 
     /**
-     * 并行构建蚂蚁解
-     * 使用虚拟线程并行执行所有蚂蚁的路径构建过程
+     * 将种子解沉积到各蚁群的信息素表并设为初始最优解
+     * 数据与当前问题不一致的种子解被忽略；适应度用增量评估器重新计算，与蚂蚁解的口径一致
+     *
+     * @param seeds 种子解
      */
-    private void constructAntSolutionsParallel() {
-        var futures = ants.stream()
-                .map(ant -> CompletableFuture.runAsync(() -> {
-                    ScheduleChromosome solution = ant.constructSolution(pheromoneMatrix, heuristicMatrix);
-                    ant.setSolution(solution);
-                }, executor))
+    private void applySeedSolutions(List<ScheduleChromosome> seeds) {
+        if (problem == null || seeds.isEmpty()) {
+            return;
+        }
+        List<Incumbent> accepted = seeds.stream()
+                .map(this::toIncumbent)
+                .filter(Objects::nonNull)
                 .toList();
+        if (accepted.isEmpty()) {
+            return;
+        }
 
-        // 等待所有蚂蚁完成路径构建
-        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        List<int[]> paths = accepted.stream().map(Incumbent::candidates).toList();
+        double[] amounts = accepted.stream()
+                .mapToDouble(seed -> config.getPheromoneIntensity() * seed.solution().getFitness())
+                .toArray();
+        Incumbent best = accepted.stream()
+                .max(Comparator.comparingDouble(seed -> seed.solution().getFitness()))
+                .orElseThrow();
+        for (Colony colony : colonies) {
+            colony.depositPheromone(paths, amounts);
+            colony.bestSolution = best.solution();
+            colony.bestCandidates = best.candidates();
+        }
+        sharedBest.set(best);
+        System.out.printf("🌱 使用%d个种子解初始化信息素，初始最优适应度: %.4f%n",
+                accepted.size(), best.solution().getFitness());
     }
 
     /**
-     * 更新全局最优解
-     * 从当前代的所有蚂蚁中找出最优解，并更新全局记录
+     * 采纳其他算法提交到共享最优解的更优解
+     * 只有尚未采纳过且优于当前全局最优解时才转换为信息素表上的路径并替换全局最优解，
+     * 之后各蚁群在交换时读取
+     *
+     * @return 是否采纳了新的外部解
      */
-    private void updateGlobalBest() {
-        ScheduleChromosome iterationBest = ants.stream()
-                .map(Ant::getSolution)
-                .filter(Objects::nonNull)
-                .max(Comparator.comparingDouble(ScheduleChromosome::getFitness))
-                .orElse(null);
+    private boolean importIncumbent() {
+        ScheduleChromosome external = incumbent.getSolution();
+        Incumbent current = sharedBest.get();
+        if (problem == null || external == null || external == lastImported
+                || (current != null && external.getFitness() <= current.solution().getFitness())) {
+            return false;
+        }
+        lastImported = external;
+        Incumbent converted = toIncumbent(external);
+        if (converted == null) {
+            return false;
+        }
+        sharedBest.accumulateAndGet(converted, AntColonyScheduler::better);
+        return true;
+    }
 
-        if (iterationBest != null) {
-            if (globalBestSolution == null || iterationBest.getFitness() > globalBestSolution.getFitness()) {
-                globalBestSolution = iterationBest.clone();
-            }
+    /**
+     * 将外部排课解转换为信息素表上的路径
+     * 数据与当前问题不一致的解返回null；适应度用增量评估器重新计算，与蚂蚁解的口径一致
+     *
+     * @param chromosome 排课解
+     * @return 排课解及其路径
+     */
+    private Incumbent toIncumbent(ScheduleChromosome chromosome) {
+        if (chromosome.getProblem() == null || chromosome.getProblem().getFingerprint() != problem.getFingerprint()
+                || chromosome.getGenes().size() != problem.getLessonCount()) {
+            return null;
         }
+        SparsePheromoneStore layout = colonies.get(0).store;
+        TimetableEvaluator evaluator = TimetableEvaluator.of(problem, chromosome);
+        ScheduleChromosome solution = new ScheduleChromosome(problem);
+        evaluator.writeTo(solution);
+        int[] candidates = new int[problem.getLessonCount()];
+        for (int lesson = 0; lesson < candidates.length; lesson++) {
+            candidates[lesson] = layout.find(lesson, evaluator.slotOf(lesson), evaluator.roomOf(lesson));
+        }
+        return new Incumbent(solution, candidates);
     }
 
     /**
-     * 更新信息素
-     * 根据蚂蚁找到的解的质量更新信息素浓度
-     * 好的解会增强对应路径的信息素
+     * 保留适应度更高的一方，相同时保留当前值
      */
-    private void updatePheromone() {
-        // 只有最优的蚂蚁才能留下信息素（精英蚂蚁策略）
-        List<Ant> eliteAnts = ants.stream()
-                .filter(ant -> ant.getSolution() != null)
-                .sorted((a, b) -> Double.compare(b.getSolution().getFitness(), a.getSolution().getFitness()))
-                .limit(config.getEliteAntCount())
-                .toList();
+    private static Incumbent better(Incumbent current, Incumbent offered) {
+        return current == null || offered.solution().getFitness() > current.solution().getFitness()
+                ? offered : current;
+    }
 
-        for (Ant ant : eliteAnts) {
-            ScheduleChromosome solution = ant.getSolution();
-            double pheromoneDeposit = config.getPheromoneIntensity() * solution.getFitness();
+    /**
+     * 获取最近一次运行所有蚁群完成的迭代轮数之和
+     *
+     * @return 迭代轮数，尚未运行时为0
+     */
+    public int getIterations() {
+        return completedIterations.get();
+    }
 
-            // 在解对应的路径上增加信息素
-            depositPheromone(solution, pheromoneDeposit);
-        }
+    /**
+     * 获取全局最优解
+     *
+     * @return 最近一次运行找到的最优排课方案，尚未运行时为null
+     */
+    public ScheduleChromosome getBestSolution() {
+        Incumbent best = sharedBest.get();
+        return best != null ? best.solution() : null;
+    }
+
+    /**
+     * 获取最近一次运行的随机数流集合
+     *
+     * @return 随机数流集合，尚未运行时为null
+     */
+    public RandomStreams getRandomStreams() {
+        return randomStreams;
     }
 
     /**
-     * 在指定路径上沉积信息素
+     * 全局最优解及其在信息素表中的路径
      *
      * @param solution 排课解
-     * @param amount 信息素沉积量
+     * @param candidates 每节课选择的候选下标，没有真实数据时为null
      */
-    private void depositPheromone(ScheduleChromosome solution, double amount) {
-        // TODO: 根据具体的解结构在对应的信息素矩阵位置增加信息素
-        // 这里需要根据ScheduleChromosome的具体结构来实现
+    private record Incumbent(ScheduleChromosome solution, int[] candidates) {
     }
 
     /**
-     * 信息素挥发
-     * 模拟自然界中信息素随时间挥发的现象，避免算法过早收敛
+     * 蚁群
+     * 持有自己的蚂蚁、稀疏信息素表、候选列表采样器和蚁群内最优解
      */
-    private void evaporatePheromone() {
-        double evaporationRate = config.getEvaporationRate();
-        double minPheromone = config.getMinPheromone();
+    private final class Colony {
+
+        private final int id;
+        private final List<Ant> members;
+
+        /**
+         * 信息素和启发式信息表
+         * 只保存每节课可行的 (时间段, 教室) 候选，每节课的候选在连续内存中，
+         * 信息素浓度和启发式价值（如教室容量匹配度、时间偏好等）与候选一一对应
+         */
+        private final SparsePheromoneStore store;
+
+        /**
+         * 候选列表采样器，缓存 τ^α·η^β 排名靠前的候选及其别名表
+         */
+        private CandidateSampler sampler;
+
+        /**
+         * 蚁群内最优解及其路径，MMAS 精英策略下用于全局最优沉积
+         */
+        private ScheduleChromosome bestSolution;
+        private int[] bestCandidates;
+
+        Colony(int id, List<Ant> members, SparsePheromoneStore store) {
+            this.id = id;
+            this.members = members;
+            this.store = store;
+        }
+
+        /**
+         * 初始化信息素矩阵和启发式信息
+         * 将所有候选的信息素浓度设置为初始值
+         */
+        void initialize(float[] heuristics) {
+            float maxPheromone = config.isMaxMinAntSystem() ? (float) config.getMaxPheromone() : Float.MAX_VALUE;
+            store.reset((float) config.getInitialPheromone(), config.getEvaporationRate(),
+                    (float) config.getMinPheromone(), maxPheromone);
+            store.setHeuristics(heuristics);
+            sampler = new CandidateSampler(store, config.getCandidateListSize(), config.getAlpha(), config.getBeta());
+        }
 
-        for (double[][] courseMatrix : pheromoneMatrix) {
-            for (double[] timeSlotArray : courseMatrix) {
-                for (int i = 0; i < timeSlotArray.length; i++) {
-                    timeSlotArray[i] *= (1.0 - evaporationRate);
-                    // 确保信息素不会低于最小值
-                    timeSlotArray[i] = Math.max(timeSlotArray[i], minPheromone);
+        /**
+         * 多蚁群模式下的独立主循环
+         * 蚂蚁在本任务内依次构建，每隔 colonyExchangeInterval 轮与全局最优解交换一次，
+         * 不等待其他蚁群
+         */
+        void run() {
+            int iteration = 0;
+            while (iteration < config.getMaxIterations() && !stopRequested.get() && !incumbent.isCancelled()) {
+                constructSolutions(false);
+                updateBest();
+                evaporate();
+                updatePheromone();
+                iteration++;
+                completedIterations.incrementAndGet();
+
+                if (getBestFitness() >= 1.0) {
+                    publish();
+                    stopRequested.set(true);
+                    break;
+                }
+                if (iteration % Math.max(1, config.getColonyExchangeInterval()) == 0) {
+                    importIncumbent();
+                    exchange();
+                }
+                if (isConverged()) {
+                    break;
                 }
             }
+            publish();
+            System.out.printf("🏘️ 蚁群%d 完成%d轮，蚁群最优适应度: %.4f%n", id, iteration, getBestFitness());
         }
-    }
 
-    /**
-     * 检查算法是否收敛
-     * 通过分析信息素分布的方差来判断是否收敛
-     *
-     * @return 如果算法收敛返回true，否则返回false
-     */
-    private boolean isConverged() {
-        // 计算信息素矩阵的方差
-        double sum = 0.0;
-        double sumSquare = 0.0;
-        int count = 0;
-
-        for (double[][] courseMatrix : pheromoneMatrix) {
-            for (double[] timeSlotArray : courseMatrix) {
-                for (double pheromone : timeSlotArray) {
-                    sum += pheromone;
-                    sumSquare += pheromone * pheromone;
-                    count++;
+        /**
+         * 构建蚂蚁解
+         * 局部搜索在构建该蚂蚁的同一任务中紧接着执行，使用蚂蚁自己的随机数流
+         *
+         * @param parallel 是否使用虚拟线程并行构建所有蚂蚁，多蚁群模式下每个蚁群已独占一个任务，依次构建
+         */
+        void constructSolutions(boolean parallel) {
+            // 只重建上一轮发生沉积的节课的别名表，构建期间别名表只读
+            if (sampler != null) {
+                sampler.refresh();
+            }
+
+            if (!parallel) {
+                members.forEach(this::construct);
+                return;
+            }
+            var futures = members.stream()
+                    .map(ant -> CompletableFuture.runAsync(() -> construct(ant), executor))
+                    .toList();
+
+            // 等待所有蚂蚁完成路径构建
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        private void construct(Ant ant) {
+            ScheduleChromosome solution = problem != null
+                    ? ant.constructSolution(problem, constructionOrder, store, sampler)
+                    : ant.constructRandomSolution();
+            ant.setSolution(solution);
+            if (problem != null) {
+                ant.localSearch(store, localSearchOperator,
+                        config.getLocalSearchProbability(), config.getLocalSearchBudget());
+            }
+        }
+
+        /**
+         * 更新蚁群内最优解
+         * 从当前代的所有蚂蚁中找出最优解，并更新蚁群记录
+         */
+        void updateBest() {
+            Ant iterationBest = members.stream()
+                    .filter(ant -> ant.getSolution() != null)
+                    .max(Comparator.comparingDouble(ant -> ant.getSolution().getFitness()))
+                    .orElse(null);
+
+            if (iterationBest != null) {
+                ScheduleChromosome solution = iterationBest.getSolution();
+                if (bestSolution == null || solution.getFitness() > bestSolution.getFitness()) {
+                    bestSolution = solution.clone();
+                    bestCandidates = problem != null ? iterationBest.getCandidates().clone() : null;
                 }
             }
         }
 
-        double mean = sum / count;
-        double variance = (sumSquare / count) - (mean * mean);
-        double standardDeviation = Math.sqrt(variance);
+        /**
+         * 以CAS无锁地提交蚁群最优解，只有优于当前全局最优解时才替换
+         */
+        void publish() {
+            if (bestSolution == null) {
+                return;
+            }
+            Incumbent candidate = new Incumbent(bestSolution, bestCandidates);
+            sharedBest.accumulateAndGet(candidate, AntColonyScheduler::better);
+            incumbent.offer(bestSolution, "蚁群算法");
+        }
+
+        /**
+         * 与全局最优解交换
+         * 先提交自己的最优解；全局最优解更好时采纳为蚁群最优解，并在其路径上沉积一次信息素，
+         * 之后的 MMAS 全局最优沉积也会持续强化这条路径
+         */
+        void exchange() {
+            publish();
+            Incumbent best = sharedBest.get();
+            if (best == null || best.candidates() == null || best.candidates() == bestCandidates
+                    || (bestSolution != null && best.solution().getFitness() <= bestSolution.getFitness())) {
+                return;
+            }
+            bestSolution = best.solution();
+            bestCandidates = best.candidates();
+            depositPheromone(List.<int[]>of(bestCandidates),
+                    new double[]{config.getPheromoneIntensity() * bestSolution.getFitness()});
+        }
+
+        /**
+         * 更新信息素
+         * 根据蚂蚁找到的解的质量更新信息素浓度
+         * 好的解会增强对应路径的信息素
+         *
+         * MMAS 模式下只有本代最优蚂蚁沉积，启用精英策略时蚁群最优解也沉积一次；
+         * 普通模式下启用精英策略时由前 eliteAntCount 只蚂蚁沉积，否则所有蚂蚁都沉积
+         *
+         * 所有沉积者的路径一次性交给稀疏表按节课并行沉积，沉积者按适应度降序排列
+         * （适应度相同时保持蚂蚁编号顺序），固定随机种子下结果可复现
+         */
+        void updatePheromone() {
+            if (problem == null) {
+                return;
+            }
+
+            int depositors = config.isMaxMinAntSystem() ? 1
+                    : config.isEliteStrategy() ? config.getEliteAntCount() : members.size();
+            List<Ant> eliteAnts = members.stream()
+                    .filter(ant -> ant.getSolution() != null)
+                    .sorted((a, b) -> Double.compare(b.getSolution().getFitness(), a.getSolution().getFitness()))
+                    .limit(depositors)
+                    .toList();
+
+            List<int[]> paths = new ArrayList<>(eliteAnts.size() + 1);
+            List<Double> amounts = new ArrayList<>(eliteAnts.size() + 1);
+            for (Ant ant : eliteAnts) {
+                paths.add(ant.getCandidates());
+                amounts.add(config.getPheromoneIntensity() * ant.getSolution().getFitness());
+            }
+            if (config.isMaxMinAntSystem() && config.isEliteStrategy() && bestCandidates != null) {
+                paths.add(bestCandidates);
+                amounts.add(config.getPheromoneIntensity() * bestSolution.getFitness());
+            }
+
+            depositPheromone(paths, amounts.stream().mapToDouble(Double::doubleValue).toArray());
+        }
+
+        /**
+         * 在解走过的路径上沉积信息素
+         *
+         * @param paths 每个沉积者在每节课选择的候选下标
+         * @param amounts 每个沉积者的信息素沉积量
+         */
+        private void depositPheromone(List<int[]> paths, double[] amounts) {
+            if (paths.isEmpty()) {
+                return;
+            }
+            store.depositAll(paths, amounts);
+            // 每个沉积者都在每节课上沉积，所有节课的候选列表都需要重建
+            for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+                sampler.markDirty(lesson);
+            }
+        }
+
+        /**
+         * 信息素挥发
+         * 模拟自然界中信息素随时间挥发的现象，避免算法过早收敛
+         * 采用惰性挥发，只推进迭代号，读取时再按经过的迭代数折算
+         */
+        void evaporate() {
+            if (store != null) {
+                store.evaporate();
+            }
+        }
+
+        /**
+         * 检查蚁群是否收敛
+         * 通过分析信息素分布的标准差来判断是否收敛，统计量增量维护，O(1)完成判断
+         *
+         * @return 如果蚁群收敛返回true，否则返回false
+         */
+        boolean isConverged() {
+            // 没有真实数据时信息素表为空，不以收敛为由提前停止
+            if (store == null || store.size() == 0) {
+                return false;
+            }
+            // 如果标准差小于阈值，认为已收敛
+            return store.pheromoneStandardDeviation() < config.getConvergenceThreshold();
+        }
+
+        double getBestFitness() {
+            return bestSolution != null ? bestSolution.getFitness() : 0.0;
+        }
+    }
 
-        // 如果标准差小于阈值，认为已收敛
-        return standardDeviation < config.getConvergenceThreshold();
+    /**
+     * 启发式信息缓存项
+     *
+     * @param fingerprint 计算时的数据指纹
+     * @param values 与候选一一对应的启发式价值
+     */
+    private record HeuristicCache(long fingerprint, float[] values) {
     }
 
     /**
@@ -349,10 +795,35 @@ public class AntColonyScheduler implements ClassScheduler {
          */
         private ScheduleChromosome solution;
 
+        /**
+         * 本次构建中每节课选择的候选下标，以及对应的时间段和教室
+         */
+        private int[] candidates = new int[0];
+        private int[] slots = new int[0];
+        private int[] rooms = new int[0];
+
+        /**
+         * 构建过程中教师、班级、教室在各时间段的占用位图，跨迭代复用
+         */
+        private long[] teacherBusy = new long[0];
+        private long[] classBusy = new long[0];
+        private long[] roomBusy = new long[0];
+
+        /**
+         * 本次构建结果的增量评估器，供局部搜索继续使用
+         */
+        private TimetableEvaluator evaluator;
+
+        /**
+         * 候选位置的选择权重缓冲区，跨节课复用
+         */
+        private double[] weights = new double[0];
+
         /**
          * 随机数生成器
+         * 每次运行由随机数服务按蚂蚁编号分配
          */
-        private final Random random = new Random();
+        private RandomGenerator random;
 
         /**
          * 构造函数
@@ -365,39 +836,189 @@ public class AntColonyScheduler implements ClassScheduler {
 
         /**
          * 构建排课解
-         * 蚂蚁根据信息素和启发式信息构建完整的排课方案
+         * 按构建顺序为每节课在稀疏表的可行候选中概率选择一个位置，
+         * 选择概率正比于 信息素^α × 启发式^β
+         * 先从候选列表的别名表中采样，采到已被占用的位置则重新采样；
+         * 多次都失败时对全部候选做轮盘赌，已被其他节课占用的位置权重大幅降低
          *
-         * @param pheromoneMatrix 信息素矩阵
-         * @param heuristicMatrix 启发式信息矩阵
+         * @param problem 排课问题
+         * @param order 节课构建顺序
+         * @param store 稀疏信息素表
+         * @param sampler 候选列表采样器
          * @return 构建的排课解
          */
-        public ScheduleChromosome constructSolution(double[][][] pheromoneMatrix, double[][][] heuristicMatrix) {
-            ScheduleChromosome chromosome = new ScheduleChromosome();
+        public ScheduleChromosome constructSolution(ScheduleProblem problem, int[] order,
+                                                    SparsePheromoneStore store,
+                                                    CandidateSampler sampler) {
+            prepare(problem, store);
+            int words = (problem.getSlotCount() + 63) >>> 6;
+
+            for (int lesson : order) {
+                int teacherBase = problem.lessonTeacher(lesson) * words;
+                int classBase = problem.lessonClass(lesson) * words;
+                int start = store.start(lesson);
+                int end = store.end(lesson);
 
-            // TODO: 实现具体的解构建逻辑
-            // 1. 遍历所有课程
-            // 2. 为每门课程选择时间段和教室
-            // 3. 选择概率基于信息素浓度和启发式价值
-            // 4. 使用轮盘赌选择或其他概率选择方法
+                // 从候选列表采样，拒绝已被占用的位置
+                int chosen = -1;
+                for (int attempt = 0; attempt < MAX_SAMPLE_ATTEMPTS && sampler.isEnabled(); attempt++) {
+                    int candidate = sampler.sample(lesson, random);
+                    if (candidate < 0) {
+                        break;
+                    }
+                    if (!isOccupied(store, candidate, teacherBase, classBase, words)) {
+                        chosen = candidate;
+                        break;
+                    }
+                }
+
+                if (chosen < 0) {
+                    // 计算所有候选位置的权重
+                    double total = 0.0;
+                    for (int candidate = start; candidate < end; candidate++) {
+                        double weight = sampler.weight(candidate);
+                        if (isOccupied(store, candidate, teacherBase, classBase, words)) {
+                            weight *= CONFLICT_PENALTY;
+                        }
+                        total += weight;
+                        weights[candidate - start] = total;
+                    }
+
+                    // 轮盘赌选择
+                    chosen = start + rouletteSelect(end - start, total);
+                }
+                int slot = store.slotAt(chosen);
+                int room = store.roomAt(chosen);
 
-            // 示例：随机初始化（实际应该基于信息素和启发式信息）
-            chromosome.randomize();
+                candidates[lesson] = chosen;
+                slots[lesson] = slot;
+                rooms[lesson] = room;
+                mark(teacherBusy, teacherBase, slot);
+                mark(classBusy, classBase, slot);
+                mark(roomBusy, room * words, slot);
+            }
 
+            ScheduleChromosome chromosome = new ScheduleChromosome(problem);
+            evaluator = new TimetableEvaluator(problem, slots, rooms);
+            evaluator.writeTo(chromosome);
             return chromosome;
         }
 
         /**
-         * 概率选择
-         * 根据信息素浓度和启发式价值计算选择概率
+         * 以给定概率对本次构建的解做局部搜索
+         * 移动通过增量评估在O(1)时间内判断，改进后的位置写回解，
+         * 并重新映射为候选下标，使信息素沉积在局部搜索后的路径上
          *
-         * @param pheromone 信息素浓度
-         * @param heuristic 启发式价值
-         * @param alpha 信息素重要性参数
-         * @param beta 启发式重要性参数
-         * @return 选择概率
+         * @param store 稀疏信息素表
+         * @param operator 局部搜索操作器
+         * @param probability 执行局部搜索的概率
+         * @param budget 最多尝试的移动次数
+         * @return 约束违反数的变化量，未执行时为0
          */
-        private double calculateProbability(double pheromone, double heuristic, double alpha, double beta) {
-            return Math.pow(pheromone, alpha) * Math.pow(heuristic, beta);
+        public int localSearch(SparsePheromoneStore store, LocalSearchOperator operator,
+                               double probability, int budget) {
+            if (evaluator == null || budget <= 0 || evaluator.getViolations() == 0
+                    || random.nextDouble() >= probability) {
+                return 0;
+            }
+            int delta = operator.improve(evaluator, budget, random);
+            if (delta == 0) {
+                return 0;
+            }
+            for (int lesson = 0; lesson < slots.length; lesson++) {
+                int slot = evaluator.slotOf(lesson);
+                int room = evaluator.roomOf(lesson);
+                if (slot != slots[lesson] || room != rooms[lesson]) {
+                    slots[lesson] = slot;
+                    rooms[lesson] = room;
+                    // 局部搜索只做可行移动，新位置总在稀疏表中；找不到时该节课不沉积
+                    candidates[lesson] = store.find(lesson, slot, room);
+                }
+            }
+            evaluator.writeTo(solution);
+            return delta;
+        }
+
+        /**
+         * 没有真实数据时随机构建排课解
+         *
+         * @return 随机生成的排课解
+         */
+        public ScheduleChromosome constructRandomSolution() {
+            ScheduleChromosome chromosome = new ScheduleChromosome();
+            chromosome.randomize(random);
+            return chromosome;
+        }
+
+        /**
+         * 按问题规模准备复用的缓冲区
+         */
+        private void prepare(ScheduleProblem problem, SparsePheromoneStore store) {
+            int lessonCount = problem.getLessonCount();
+            int words = (problem.getSlotCount() + 63) >>> 6;
+            if (slots.length != lessonCount) {
+                candidates = new int[lessonCount];
+                slots = new int[lessonCount];
+                rooms = new int[lessonCount];
+            }
+            if (teacherBusy.length != problem.getTeacherCount() * words
+                    || classBusy.length != problem.getClassCount() * words
+                    || roomBusy.length != problem.getRoomCount() * words) {
+                teacherBusy = new long[problem.getTeacherCount() * words];
+                classBusy = new long[problem.getClassCount() * words];
+                roomBusy = new long[problem.getRoomCount() * words];
+            } else {
+                Arrays.fill(teacherBusy, 0L);
+                Arrays.fill(classBusy, 0L);
+                Arrays.fill(roomBusy, 0L);
+            }
+            int maxCandidates = store.maxCandidates();
+            if (weights.length < maxCandidates) {
+                weights = new double[maxCandidates];
+            }
+        }
+
+        /**
+         * 在累积权重上做轮盘赌选择
+         *
+         * @param count 候选数量
+         * @param total 权重总和
+         * @return 选中的候选下标
+         */
+        private int rouletteSelect(int count, double total) {
+            if (total <= 0.0) {
+                return random.nextInt(count);
+            }
+            double target = random.nextDouble() * total;
+            int low = 0;
+            int high = count - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (weights[mid] > target) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 候选位置的教师、班级或教室在该时间段是否已被本只蚂蚁之前安排的节课占用
+         */
+        private boolean isOccupied(SparsePheromoneStore store, int candidate,
+                                   int teacherBase, int classBase, int words) {
+            int slot = store.slotAt(candidate);
+            return isBusy(teacherBusy, teacherBase, slot) || isBusy(classBusy, classBase, slot)
+                    || isBusy(roomBusy, store.roomAt(candidate) * words, slot);
+        }
+
+        private static boolean isBusy(long[] busy, int base, int slot) {
+            return (busy[base + (slot >>> 6)] & (1L << slot)) != 0;
+        }
+
+        private static void mark(long[] busy, int base, int slot) {
+            busy[base + (slot >>> 6)] |= 1L << slot;
         }
 
         // Getter和Setter方法
@@ -412,6 +1033,13 @@ public class AntColonyScheduler implements ClassScheduler {
         public void setSolution(ScheduleChromosome solution) {
             this.solution = solution;
         }
+
+        public int[] getCandidates() {
+            return candidates;
+        }
+
+        public void setRandom(RandomGenerator random) {
+            this.random = random;
+        }
     }
 }
-
@@ -1,16 +1,40 @@
 package com.scott.schedule.service.impl;
 
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.algorithm.SharedIncumbent;
+import com.scott.schedule.algorithm.TimetableEvaluator;
+import com.scott.schedule.algorithm.csp.AC3Propagator;
+import com.scott.schedule.algorithm.csp.AC4Propagator;
+import com.scott.schedule.algorithm.csp.BitsetDomains;
+import com.scott.schedule.algorithm.csp.ConstraintGraph;
+import com.scott.schedule.algorithm.csp.ConstraintPropagator;
+import com.scott.schedule.algorithm.csp.CspModel;
+import com.scott.schedule.algorithm.csp.ForwardChecker;
+import com.scott.schedule.algorithm.csp.NogoodStore;
+import com.scott.schedule.algorithm.csp.SoftConstraintCost;
+import com.scott.schedule.algorithm.csp.SymmetryBreaker;
+import com.scott.schedule.algorithm.csp.TrailedDomains;
+import com.scott.schedule.common.enums.ConstraintPropagationType;
+import com.scott.schedule.common.enums.SearchStrategy;
 import com.scott.schedule.config.BacktrackingConfig;
 import com.scott.schedule.service.ClassScheduler;
+import com.scott.schedule.service.RandomService;
+import com.scott.schedule.service.ScheduleProblemService;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
 
 /**
  * 基于回溯算法的排课服务实现
  * 使用深度优先搜索和回溯技术寻找可行的排课方案
  * 适合小到中等规模的排课问题，能够找到精确解
+ * 搜索使用显式栈，按配置的搜索策略进行深度优先、宽度优先、限制深度、迭代加深或有限差异搜索
  *
  * 算法特点：
  * 1. 完备性：能够找到所有可行解或证明无解
@@ -29,13 +53,73 @@ public class BacktrackingScheduler implements ClassScheduler {
      */
     private final BacktrackingConfig config;
 
+    /**
+     * 排课问题服务
+     */
+    private final ScheduleProblemService problemService;
+
+    /**
+     * 随机数服务，随机化值顺序和随机值顺序策略使用本次运行的随机数流
+     */
+    private final RandomService randomService;
+
+    /**
+     * 本次运行的编译后问题，每节课是一个变量，可行的 (时间段, 教室) 组合是它的值域
+     */
+    private ScheduleProblem problem;
+
+    /**
+     * 本次运行的约束满足模型，为每节课的可行 (时间段, 教室) 组合稠密编号
+     */
+    private CspModel model;
+
+    /**
+     * 本次运行的约束图，共用教师、班级、课程或候选教室的节课之间有边
+     */
+    private ConstraintGraph graph;
+
+    /**
+     * 本次运行的共享最优解，取消信号发出后搜索立即返回
+     */
+    private SharedIncumbent incumbent;
+
+    /**
+     * 比较软约束代价时的容差，权重为小数时累加会有舍入误差
+     */
+    private static final double COST_EPSILON = 1e-9;
+
+    /**
+     * 是否已找到解，并行搜索时任一任务找到解后其余任务在下一个节点返回
+     */
+    private final AtomicBoolean solutionFound = new AtomicBoolean();
+
+    /**
+     * 分支定界使用的软约束代价，未启用分支定界时为null
+     */
+    private SoftConstraintCost softCost;
+
+    /**
+     * 分支定界的当前最优软约束代价，尚未找到解时为正无穷
+     */
+    private volatile double incumbentCost;
+
+    /**
+     * 搜索是否因为超时或取消而提前结束，分支定界据此判断是否已证明最优
+     */
+    private volatile boolean searchInterrupted;
+
+    /**
+     * 限制深度搜索是否有分支被截断，截断后搜索不完整，分支定界不能证明最优
+     */
+    private volatile boolean searchTruncated;
+
     /**
      * 搜索统计信息
      */
     private SearchStatistics statistics;
 
     /**
-     * 约束检查器
+     * 约束检查器，每次运行按编译后的问题创建
      */
     private ConstraintChecker constraintChecker;
 
@@ -52,7 +136,7 @@ public class BacktrackingScheduler implements ClassScheduler {
     /**
      * 当前最优解
      */
-    private ScheduleChromosome bestSolution;
+    private volatile ScheduleChromosome bestSolution;
 
     /**
      * 搜索开始时间
@@ -63,11 +147,15 @@ public class BacktrackingScheduler implements ClassScheduler {
      * 构造函数
      *
      * @param config 回溯算法配置参数
+     * @param problemService 排课问题服务
+     * @param randomService 随机数服务
      */
-    public BacktrackingScheduler(BacktrackingConfig config) {
+    public BacktrackingScheduler(BacktrackingConfig config, ScheduleProblemService problemService,
+                                 RandomService randomService) {
         this.config = config;
+        this.problemService = problemService;
+        this.randomService = randomService;
         this.statistics = new SearchStatistics();
-        this.constraintChecker = new ConstraintChecker();
         this.variableSelector = new VariableSelector(config);
         this.valueSelector = new ValueSelector(config);
     }
@@ -77,34 +165,77 @@ public class BacktrackingScheduler implements ClassScheduler {
      */
     @Override
     public void schedule() {
+        schedule(new SharedIncumbent());
+    }
+
+    /**
+     * 与其他算法竞速执行回溯算法排课
+     * 找到完整赋值后提交到共享最优解，取消信号发出后在下一个搜索节点返回
+     *
+     * @param incumbent 共享最优解
+     */
+    @Override
+    public void schedule(SharedIncumbent incumbent) {
+        this.incumbent = incumbent;
+        ScheduleProblem compiled = incumbent.getProblem() != null ? incumbent.getProblem() : problemService.getProblem();
+        problem = compiled.isEmpty() ? null : compiled;
+        bestSolution = null;
         System.out.printf(
                 """
                         🔍 开始执行回溯算法排课
                         📋 变量选择策略: %s
                         🎯 值选择策略: %s
                         ⏰ 最大搜索时间: %d 秒
+                        🧭 搜索策略: %s
                         🌳 最大搜索深度: %d
-                        🔧 启用约束传播: %s
+                        🔧 约束传播: %s
+                        ⏩ 前向检查: %s
+                        🔄 重启: %s
+                        🧵 并行搜索: %s
+                        🪞 对称破缺: %s
+                        💰 分支定界: %s
                         %n""",
                 config.getVariableSelectionStrategy().getDescription(),
                 config.getValueSelectionStrategy().getDescription(),
                 config.getMaxSearchTimeSeconds(),
+                config.getSearchStrategy().getName(),
                 config.getMaxSearchDepth(),
-                config.isEnableConstraintPropagation() ? "是" : "否"
+                config.isEnableConstraintPropagation() ? config.getConstraintPropagationType().getName() : "否",
+                isForwardCheckingEnabled() ? "是" : "否",
+                config.isEnableRestart()
+                        ? "%s (间隔 %d 次失败)".formatted(config.getRestartStrategy().getDescription(), config.getRestartInterval())
+                        : "否",
+                config.isEnableParallelSearch() ? "%d 线程".formatted(parallelism()) : "否",
+                config.isEnableSymmetryBreaking() ? "是" : "否",
+                config.isEnableBranchAndBound() ? "是" : "否"
         );
 
         searchStartTime = System.currentTimeMillis();
         statistics.reset();
+        solutionFound.set(false);
+        incumbentCost = Double.POSITIVE_INFINITY;
+        searchInterrupted = false;
+        searchTruncated = false;
+
+        if (problem == null) {
+            System.out.println("ℹ️ 没有排课数据，跳过回溯搜索");
+            return;
+        }
 
         try {
-            // 初始化搜索状态
-            SearchState initialState = initializeSearchState();
+            // 编译约束满足模型，初始化搜索状态
+            compileModel();
+            Search search = new Search(randomService.newRun().stream("backtracking"));
 
-            // 执行回溯搜索
-            boolean solutionFound = backtrackSearch(initialState, 0);
+            // 执行回溯搜索，分支定界找到解后继续搜索，结束时以最优解为准
+            if (config.isEnableParallelSearch()) {
+                searchInParallel(search);
+            } else {
+                search.run(0);
+            }
 
             // 输出结果
-            outputResults(solutionFound);
+            outputResults(bestSolution != null);
 
         } catch (Exception e) {
             System.err.printf("❌ 回溯算法执行失败: %s%n", e.getMessage());
@@ -113,94 +244,87 @@ public class BacktrackingScheduler implements ClassScheduler {
     }
 
     /**
-     * 初始化搜索状态
-     *
-     * @return 初始搜索状态
+     * 编译约束满足模型和约束图，所有搜索任务共用，搜索开始后只读
      */
-    private SearchState initializeSearchState() {
-        SearchState state = new SearchState();
+    private void compileModel() {
+        model = CspModel.build(problem);
+        graph = ConstraintGraph.build(model);
+        constraintChecker = new ConstraintChecker(graph);
+        softCost = config.isEnableBranchAndBound()
+                ? new SoftConstraintCost(model, config.getTeacherPreferenceWeight(), config.getCourseSpreadWeight())
+                : null;
+    }
 
-        // 初始化变量域
-        initializeVariableDomains(state);
+    /**
+     * 是否进行前向检查，约束传播类型为前向检查时即使关闭开关也进行
+     *
+     * @return 是否进行前向检查
+     */
+    private boolean isForwardCheckingEnabled() {
+        return config.isEnableForwardChecking()
+                || (config.isEnableConstraintPropagation()
+                && config.getConstraintPropagationType() == ConstraintPropagationType.FORWARD_CHECKING);
+    }
 
-        // 如果启用约束传播，进行初始约束传播
-        if (config.isEnableConstraintPropagation()) {
-            propagateConstraints(state);
+    /**
+     * 按配置的约束传播类型创建传播器
+     * 前向检查由 ForwardChecker 完成，不需要传播器；
+     * 路径一致性需要维护变量对之间的关系矩阵，在排课规模上代价过高，使用AC-3代替
+     *
+     * @return 传播器，不进行约束传播时为null
+     */
+    private ConstraintPropagator createPropagator() {
+        if (!config.isEnableConstraintPropagation()) {
+            return null;
         }
+        return switch (config.getConstraintPropagationType()) {
+            case NONE, FORWARD_CHECKING -> null;
+            case AC3, PATH_CONSISTENCY -> new AC3Propagator(graph);
+            case AC4 -> new AC4Propagator(graph);
+        };
+    }
 
-        return state;
+    /**
+     * 并行线程数，未配置时使用可用处理器数
+     */
+    private int parallelism() {
+        return config.getParallelism() > 0 ? config.getParallelism() : Runtime.getRuntime().availableProcessors();
     }
 
     /**
-     * 回溯搜索主算法
+     * 并行回溯搜索
+     * 从根节点开始把搜索树的浅层分支拆成 ForkJoin 任务，每个任务持有自己的搜索状态副本，
+     * 空闲线程从其他线程的任务队列中窃取尚未开始的分支；
+     * 任务总数达到 线程数 × 每线程任务数 后，每个任务在自己的子树上按顺序回溯
      *
-     * @param state 当前搜索状态
-     * @param depth 当前搜索深度
+     * @param root 根节点的搜索
      * @return 是否找到解
      */
-    private boolean backtrackSearch(SearchState state, int depth) {
-        statistics.nodesVisited++;
-
-        // 检查终止条件
-        if (isTimeoutExceeded() || depth > config.getMaxSearchDepth()) {
-            return false;
-        }
-
-        // 检查是否找到完整解
-        if (isCompleteAssignment(state)) {
-            bestSolution = createSolutionFromState(state);
-            statistics.solutionsFound++;
-            return true;
-        }
-
-        // 选择下一个变量
-        Variable nextVariable = variableSelector.selectVariable(state);
-        if (nextVariable == null) {
-            return false; // 无可选变量
-        }
-
-        // 获取变量的可选值
-        List<Value> possibleValues = valueSelector.selectValues(nextVariable, state);
-
-        // 尝试每个可能的值
-        for (Value value : possibleValues) {
-            statistics.assignmentsTried++;
-
-            // 检查赋值是否一致
-            if (isConsistentAssignment(nextVariable, value, state)) {
-                // 进行赋值
-                SearchState newState = makeAssignment(state, nextVariable, value);
-
-                // 约束传播
-                if (config.isEnableConstraintPropagation()) {
-                    if (!propagateConstraints(newState)) {
-                        statistics.constraintPropagationFailures++;
-                        continue; // 约束传播失败，尝试下一个值
-                    }
-                }
-
-                // 递归搜索
-                if (backtrackSearch(newState, depth + 1)) {
-                    return true; // 找到解
-                }
-
-                statistics.backtracks++;
-            } else {
-                statistics.consistencyCheckFailures++;
-            }
+    private boolean searchInParallel(Search root) {
+        int parallelism = parallelism();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new SplitTask(root, parallelism * config.getParallelTasksPerThread()));
+        } finally {
+            pool.shutdownNow();
         }
-
-        return false; // 所有值都尝试过，无解
     }
 
     /**
-     * 检查是否超时
+     * 检查是否超时，竞速模式下取消信号和其他任务已找到解也视为超时
      *
      * @return 是否超时
      */
     private boolean isTimeoutExceeded() {
+        if (solutionFound.get()) {
+            return true;
+        }
         long elapsedTime = (System.currentTimeMillis() - searchStartTime) / 1000;
-        return elapsedTime > config.getMaxSearchTimeSeconds();
+        if (elapsedTime > config.getMaxSearchTimeSeconds() || incumbent.isCancelled()) {
+            searchInterrupted = true;
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -213,73 +337,989 @@ public class BacktrackingScheduler implements ClassScheduler {
         return state.getUnassignedVariables().isEmpty();
     }
 
+    /**
+     * 记录找到的解，并行搜索时只记录第一个
+     *
+     * @param state 完整赋值的搜索状态
+     */
+    private void recordSolution(SearchState state) {
+        if (solutionFound.compareAndSet(false, true)) {
+            bestSolution = createSolutionFromState(state);
+            statistics.solutionsFound.increment();
+            incumbent.offer(bestSolution, "回溯算法");
+        }
+    }
+
+    /**
+     * 分支定界记录代价更小的解，并行搜索的各任务共用同一个最优代价
+     *
+     * @param state 完整赋值的搜索状态
+     * @param cost 解的软约束代价
+     */
+    private synchronized void recordImprovement(SearchState state, double cost) {
+        if (cost < incumbentCost) {
+            incumbentCost = cost;
+            bestSolution = createSolutionFromState(state);
+            statistics.solutionsFound.increment();
+            incumbent.offer(bestSolution, "回溯算法");
+        }
+    }
+
+    /**
+     * 代价下界不小于当前最优代价时，子树中不会有更好的解
+     */
+    private boolean cannotImprove(double bound) {
+        return bound >= incumbentCost - COST_EPSILON;
+    }
+
     /**
      * 检查赋值是否一致
      *
      * @param variable 变量
      * @param value 值
      * @param state 当前状态
-     * @return 是否一致
+     * @return 与之冲突的已赋值变量，一致时为-1
      */
-    private boolean isConsistentAssignment(Variable variable, Value value, SearchState state) {
-        return constraintChecker.isConsistent(variable, value, state);
+    private int findConflictingVariable(Variable variable, int value, SearchState state) {
+        return constraintChecker.findConflict(variable, value, state);
     }
 
     /**
      * 进行变量赋值
+     * 直接修改当前状态并记录到撤销轨迹，返回赋值前的轨迹位置，回溯时撤销到该位置
      *
      * @param state 当前状态
      * @param variable 变量
      * @param value 值
-     * @return 新的搜索状态
+     * @return 赋值前的轨迹位置
      */
-    private SearchState makeAssignment(SearchState state, Variable variable, Value value) {
-        SearchState newState = state.clone();
-        newState.assign(variable, value);
-        return newState;
+    private int makeAssignment(SearchState state, Variable variable, int value) {
+        int mark = state.mark();
+        state.assign(variable, value);
+        return mark;
     }
 
     /**
-     * 约束传播
-     *
-     * @param state 搜索状态
-     * @return 是否成功
-     */
-    private boolean propagateConstraints(SearchState state) {
-        boolean changed = true;
-        while (changed) {
-            changed = false;
-
-            // AC-3算法进行弧一致性检查
-            for (Variable variable : state.getUnassignedVariables()) {
-                List<Value> domain = new ArrayList<>(state.getDomain(variable));
-                for (Value value : domain) {
-                    if (!hasConsistentSupport(variable, value, state)) {
-                        state.removeFromDomain(variable, value);
-                        changed = true;
-
-                        // 检查域是否为空
-                        if (state.getDomain(variable).isEmpty()) {
-                            return false; // 无解
+     * 一次搜索
+     * 持有一个可撤销的搜索状态以及跟踪它的传播器、前向检查和 nogood，
+     * 顺序搜索只有一个实例；并行搜索的每个任务复制父任务的状态，各自独立回溯，互不加锁
+     */
+    private final class Search {
+
+        /**
+         * 本次搜索的状态，只由持有它的线程修改
+         */
+        private final SearchState state;
+
+        /**
+         * 按配置的约束传播类型创建的传播器，不传播时为null
+         */
+        private final ConstraintPropagator propagator;
+
+        /**
+         * 前向检查，未启用时为null
+         */
+        private final ForwardChecker forwardChecker;
+
+        /**
+         * 对称破缺，未启用时为null
+         */
+        private final SymmetryBreaker symmetryBreaker;
+
+        /**
+         * 学习到的 nogood，未启用学习时为null
+         */
+        private final NogoodStore nogoods;
+
+        /**
+         * 本次搜索的随机数流
+         */
+        private final SplittableRandom random;
+
+        /**
+         * 最近一次失败返回的回溯目标层，-1 表示结束整个搜索
+         */
+        private int jumpLevel;
+
+        /**
+         * 最近一次失败返回的冲突集，回溯目标层把它并入自己的冲突集
+         */
+        private BitSet jumpConflict;
+
+        /**
+         * 本次搜索（两次重启之间）允许的失败次数
+         */
+        private long restartLimit;
+
+        /**
+         * 本次搜索已发生的失败次数
+         */
+        private long failuresSinceRestart;
+
+        /**
+         * 是否因为超时或重启需要立即结束当前搜索
+         */
+        private boolean searchStopped;
+
+        /**
+         * 当前搜索是否因为重启而结束
+         */
+        private boolean restartRequested;
+
+        /**
+         * 当前迭代的限制：限制深度和迭代加深搜索为可以回溯的最深层，有限差异搜索为差异上限
+         */
+        private int limit;
+
+        /**
+         * 当前迭代是否有分支被限制截断，没有截断时这次迭代就是完整的搜索
+         */
+        private boolean limitReached;
+
+        /**
+         * 最近一次失败的子树是否有分支被限制截断，这样的失败不能用冲突集解释
+         */
+        private boolean failureTruncated;
+
+        /**
+         * 创建根节点的搜索，初始化变量域并进行初始约束传播
+         *
+         * @param random 随机数流
+         */
+        Search(SplittableRandom random) {
+            this.random = random;
+            this.propagator = createPropagator();
+            this.forwardChecker = isForwardCheckingEnabled() ? new ForwardChecker(graph) : null;
+            this.symmetryBreaker = config.isEnableSymmetryBreaking() ? new SymmetryBreaker(graph) : null;
+            this.nogoods = createNogoodStore();
+            this.state = new SearchState(model, propagator,
+                    config.isEnableBackjumping() || config.isEnableLearning());
+
+            // 初始化变量域
+            initializeVariableDomains(state);
+            System.out.printf("🧮 变量数: %d, 值总数: %d, 域位集合: %d 字节%n",
+                    model.variableCount(), model.totalValueCount(), state.domainMemoryBytes());
+
+            // 如果启用约束传播，进行初始约束传播
+            if (propagator != null && !propagator.propagateAll(state)) {
+                System.out.println("⚠️ 初始约束传播发现某节课没有可行的时间段和教室");
+            }
+        }
+
+        /**
+         * 复制父任务的搜索，父任务在子任务运行期间不修改自己的状态
+         * nogood 由各任务分别学习，变量活跃度随状态复制
+         *
+         * @param parent 父任务的搜索
+         * @param random 在父任务线程中拆分出的随机数流
+         */
+        Search(Search parent, SplittableRandom random) {
+            this.random = random;
+            this.propagator = parent.propagator != null ? parent.propagator.copy() : null;
+            this.forwardChecker = parent.forwardChecker != null ? new ForwardChecker(graph) : null;
+            this.symmetryBreaker = parent.symmetryBreaker != null ? new SymmetryBreaker(graph) : null;
+            this.nogoods = createNogoodStore();
+            this.state = new SearchState(parent.state, propagator);
+        }
+
+        private NogoodStore createNogoodStore() {
+            return config.isEnableLearning()
+                    ? new NogoodStore(model.variableCount(), config.getMaxLearnedClauses()) : null;
+        }
+
+        /**
+         * 从指定层开始搜索，结束后把本次搜索的计数并入统计信息
+         *
+         * @param depth 起始层，即已赋值变量的个数
+         * @return 是否找到解
+         */
+        boolean run(int depth) {
+            try {
+                return solve(depth);
+            } finally {
+                finish();
+            }
+        }
+
+        /**
+         * 从指定层开始搜索，不合并统计信息，调用方结束时调用 finish
+         *
+         * @param depth 起始层
+         * @return 是否找到解
+         */
+        boolean solve(int depth) {
+            limit = initialLimit(depth);
+            return searchWithRestarts(depth);
+        }
+
+        /**
+         * 把前向检查、对称破缺和 nogood 的计数并入统计信息
+         */
+        void finish() {
+            if (forwardChecker != null) {
+                statistics.prunedValues.add(forwardChecker.getPrunedValues());
+            }
+            if (symmetryBreaker != null) {
+                statistics.symmetryPrunedValues.add(symmetryBreaker.getPrunedValues());
+                statistics.symmetrySkippedValues.add(symmetryBreaker.getSkippedValues());
+            }
+            if (nogoods != null) {
+                statistics.nogoodsLearned.add(nogoods.getLearned());
+                statistics.nogoodPrunings.add(nogoods.getPrunings());
+                statistics.nogoodsEvicted.add(nogoods.getEvicted());
+            }
+        }
+
+        /**
+         * 带重启的回溯搜索
+         * 一次搜索的失败次数达到当前上限后撤销到起始层重新搜索，上限按重启策略变化；
+         * 学习到的 nogood 和变量活跃度在重启之间保留，随机化的值顺序让每次搜索走不同的分支，
+         * 避免在一棵长期无解的子树中耗尽时间
+         *
+         * @param depth 起始层
+         * @return 是否找到解
+         */
+        private boolean searchWithRestarts(int depth) {
+            int restart = 1;
+            while (true) {
+                restartLimit = config.isEnableRestart() && config.getSearchStrategy() != SearchStrategy.BREADTH_FIRST
+                        ? config.getRestartStrategy().failureLimit(restart, config.getRestartInterval(),
+                        config.getRestartGrowthFactor())
+                        : Long.MAX_VALUE;
+                failuresSinceRestart = 0;
+                searchStopped = false;
+                restartRequested = false;
+
+                if (searchWithLimits(depth)) {
+                    return true;
+                }
+                if (!restartRequested) {
+                    return false; // 穷举完毕或超时
+                }
+                statistics.restarts.increment();
+                restart++;
+            }
+        }
+
+        /**
+         * 记录一次失败：赋值与已赋值变量不一致，或传播删空了某个变量的域
+         * 被删空的变量活跃度增加，变量选择优先考虑经常导致失败的变量
+         *
+         * @param culprit 导致失败的变量
+         * @return 是否需要重启
+         */
+        private boolean recordFailure(int culprit) {
+            statistics.failures.increment();
+            failuresSinceRestart++;
+            state.bumpActivity(culprit);
+            if (failuresSinceRestart >= restartLimit) {
+                searchStopped = true;
+                restartRequested = true;
+            }
+            return searchStopped;
+        }
+
+        /**
+         * 按搜索策略搜索
+         * 限制深度搜索、迭代加深搜索和有限差异搜索在限制内深度优先搜索，一次迭代中没有分支被截断时，
+         * 这次迭代就是完整的搜索；迭代加深和有限差异搜索在有截断时放宽一级限制再搜索一次，
+         * 重启后从当前限制继续
+         *
+         * @param depth 起始层
+         * @return 是否找到解
+         */
+        private boolean searchWithLimits(int depth) {
+            if (config.getSearchStrategy() == SearchStrategy.BREADTH_FIRST) {
+                return breadthFirstSearch(depth);
+            }
+            while (true) {
+                statistics.iterations.increment();
+                limitReached = false;
+                if (depthFirstSearch(depth)) {
+                    return true;
+                }
+                if (searchStopped || !limitReached) {
+                    return false;
+                }
+                if (!isIterative()) {
+                    searchTruncated = true;
+                    return false;
+                }
+                limit++;
+            }
+        }
+
+        /**
+         * 迭代加深和有限差异搜索在截断后放宽限制重新搜索
+         */
+        private boolean isIterative() {
+            return config.getSearchStrategy() == SearchStrategy.ITERATIVE_DEEPENING
+                    || config.getSearchStrategy() == SearchStrategy.LIMITED_DISCREPANCY;
+        }
+
+        /**
+         * 第一次迭代的限制：限制深度搜索为最大搜索深度，迭代加深从起始层的下一层开始，
+         * 有限差异搜索从不允许差异开始，其他策略不限制
+         *
+         * @param depth 起始层
+         * @return 限制
+         */
+        private int initialLimit(int depth) {
+            return switch (config.getSearchStrategy()) {
+                case DEPTH_LIMITED -> config.getMaxSearchDepth();
+                case ITERATIVE_DEEPENING -> depth + 1;
+                case LIMITED_DISCREPANCY -> 0;
+                case DEPTH_FIRST, BREADTH_FIRST -> Integer.MAX_VALUE;
+            };
+        }
+
+        /**
+         * 节点的首选值失败后是否允许继续尝试其他值
+         * 限制深度和迭代加深只在限制以内的层回溯，更深的层只尝试首选值；
+         * 有限差异搜索只允许路径上累计的差异不超过限制
+         *
+         * @param frame 节点
+         * @return 是否允许
+         */
+        private boolean allowsAlternative(Frame frame) {
+            return switch (config.getSearchStrategy()) {
+                case DEPTH_LIMITED, ITERATIVE_DEEPENING -> frame.depth < limit;
+                case LIMITED_DISCREPANCY -> frame.discrepancies < limit;
+                case DEPTH_FIRST, BREADTH_FIRST -> true;
+            };
+        }
+
+        /**
+         * 显式栈上的深度优先搜索
+         * 栈中每一帧是一个已展开的节点，记录它尝试到第几个值以及当前子节点赋值前的轨迹位置，
+         * 子节点失败后回到栈顶继续尝试下一个值，搜索深度不受线程栈大小限制
+         *
+         * @param depth 起始层
+         * @return 是否找到解；未找到时状态撤销到起始层
+         */
+        private boolean depthFirstSearch(int depth) {
+            int rootMark = state.mark();
+            if (searchFrom(depth)) {
+                return true;
+            }
+            state.undoTo(rootMark);
+            return false;
+        }
+
+        private boolean searchFrom(int rootDepth) {
+            Deque<Frame> stack = new ArrayDeque<>();
+            NodeOutcome outcome = openNode(stack, rootDepth, 0);
+            if (outcome != NodeOutcome.EXPANDED) {
+                return outcome == NodeOutcome.SOLVED;
+            }
+            while (!stack.isEmpty()) {
+                Frame frame = stack.peek();
+                if (frame.mark >= 0) {
+                    // 子节点失败：撤销本层赋值及其引起的所有域删除
+                    state.undoTo(frame.mark);
+                    frame.mark = -1;
+                    statistics.backtracks.increment();
+                    if (searchStopped) {
+                        return false;
+                    }
+                    frame.truncated |= failureTruncated;
+                    if (frame.conflict != null) {
+                        if (jumpLevel < frame.depth) {
+                            stack.pop();
+                            continue; // 失败与本层无关，继续回跳
                         }
+                        frame.conflict.or(jumpConflict);
+                    }
+                }
+                outcome = tryNextValue(stack, frame);
+                if (outcome == NodeOutcome.SOLVED) {
+                    return true;
+                }
+                if (searchStopped) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 进入一个节点：检查终止条件、分支定界和完整解，然后选择变量并把节点压栈
+         *
+         * @param stack 搜索栈
+         * @param depth 节点所在的层
+         * @param discrepancies 从起始层到节点的差异次数
+         * @return 节点是否被展开、失败或找到解
+         */
+        private NodeOutcome openNode(Deque<Frame> stack, int depth, int discrepancies) {
+            statistics.nodesVisited.increment();
+
+            // 检查终止条件，超时后直接结束整个搜索
+            if (isTimeoutExceeded()) {
+                searchStopped = true;
+                return NodeOutcome.FAILED;
+            }
+
+            // 分支定界：剪掉代价下界不小于当前最优代价的子树，完整赋值的下界就是它的代价
+            if (softCost != null) {
+                double bound = softCost.lowerBound(state, incumbentCost);
+                if (cannotImprove(bound)) {
+                    statistics.boundPrunings.increment();
+                    failChronologically(depth);
+                    return NodeOutcome.FAILED;
+                }
+                if (isCompleteAssignment(state)) {
+                    recordImprovement(state, bound);
+                    failChronologically(depth); // 继续寻找代价更小的解
+                    return NodeOutcome.FAILED;
+                }
+            }
+
+            // 检查是否找到完整解
+            if (isCompleteAssignment(state)) {
+                recordSolution(state);
+                return NodeOutcome.SOLVED;
+            }
+
+            // 选择下一个变量
+            Variable nextVariable = variableSelector.selectVariable(state);
+            if (nextVariable == null) {
+                failChronologically(depth); // 无可选变量
+                return NodeOutcome.FAILED;
+            }
+
+            stack.push(new Frame(depth, nextVariable, selectValues(nextVariable), discrepancies,
+                    state.isExplaining() ? new BitSet() : null));
+            return NodeOutcome.EXPANDED;
+        }
+
+        /**
+         * 尝试节点的下一个值，通过一致性检查和传播后进入子节点；
+         * 所有值都尝试过或被限制截断时确定回溯目标并出栈
+         *
+         * @param stack 搜索栈
+         * @param frame 栈顶节点
+         * @return 子节点被展开、失败或找到解，节点本身失败时也返回失败
+         */
+        private NodeOutcome tryNextValue(Deque<Frame> stack, Frame frame) {
+            Variable variable = frame.variable;
+            while (frame.next < frame.values.length) {
+                // 首选值的子树已经搜索过，再进入子节点就是一次差异
+                if (frame.explored > 0 && !allowsAlternative(frame)) {
+                    frame.truncated = true;
+                    limitReached = true;
+                    statistics.limitPrunings.increment();
+                    break;
+                }
+                int value = frame.values[frame.next++];
+                statistics.assignmentsTried.increment();
+
+                // 检查赋值是否一致，前向检查保证域中剩下的值都与已赋值变量相容，不需要再检查
+                int blocker = forwardChecker != null ? -1 : findConflictingVariable(variable, value, state);
+                if (blocker >= 0) {
+                    statistics.consistencyCheckFailures.increment();
+                    if (frame.conflict != null) {
+                        frame.conflict.set(state.levelOf(blocker));
+                    }
+                    if (recordFailure(variable.getId())) {
+                        return NodeOutcome.FAILED;
+                    }
+                    continue;
+                }
+
+                // 进行赋值
+                int mark = makeAssignment(state, variable, value);
+
+                // 前向检查、nogood 检查和约束传播，被删空的变量的冲突集就是本次失败的原因
+                if (!propagateAssignment(variable, value)) {
+                    if (frame.conflict != null) {
+                        frame.conflict.or(state.getConflict(state.getWipedOut()));
+                    }
+                    state.undoTo(mark);
+                    if (recordFailure(state.getWipedOut())) {
+                        return NodeOutcome.FAILED;
+                    }
+                    continue; // 某个变量的域被删空，尝试下一个值
+                }
+
+                // 进入子节点，子节点失败后回到本帧时撤销到 mark
+                int discrepancies = frame.discrepancies + (frame.explored > 0 ? 1 : 0);
+                frame.explored++;
+                frame.mark = mark;
+                return openNode(stack, frame.depth + 1, discrepancies);
+            }
+
+            failWithConflict(frame); // 所有值都尝试过，无解
+            stack.pop();
+            return NodeOutcome.FAILED;
+        }
+
+        /**
+         * 本层所有值都失败后确定回溯目标
+         * 冲突集是各个值失败的原因，加上本变量的域在进入本层前被删减的原因。
+         * 冲突集中最深的一层就是回跳目标：比它更深的层与失败无关，在那些层换值也无济于事。
+         * 冲突集为空说明问题本身无解，搜索直接结束
+         * 启用学习时，冲突集中各层的赋值不能同时成立，记为一个 nogood
+         *
+         * 本层或子树中有分支被限制截断时，失败不是冲突造成的，按时间顺序回溯且不学习
+         *
+         * @param frame 本层的节点
+         */
+        private void failWithConflict(Frame frame) {
+            int depth = frame.depth;
+            BitSet conflict = frame.conflict;
+            if (frame.truncated) {
+                failChronologically(depth);
+                failureTruncated = true;
+                return;
+            }
+            if (conflict == null) {
+                jumpLevel = depth - 1;
+                failureTruncated = false;
+                return;
+            }
+            conflict.or(state.getConflict(frame.variable.getId()));
+            conflict.clear(depth, Math.max(depth, conflict.length()));
+
+            if (nogoods != null && !conflict.isEmpty()) {
+                int[] variables = new int[conflict.cardinality()];
+                int[] values = new int[variables.length];
+                int index = 0;
+                for (int level = conflict.nextSetBit(0); level >= 0; level = conflict.nextSetBit(level + 1)) {
+                    variables[index] = state.variableAtLevel(level);
+                    values[index] = state.assignment(variables[index]);
+                    index++;
+                }
+                nogoods.learn(variables, values);
+            }
+
+            int target = config.isEnableBackjumping() ? conflict.length() - 1 : depth - 1;
+            if (target < depth - 1) {
+                statistics.backjumps.increment();
+                statistics.levelsSkipped.add(depth - 1 - target);
+            }
+            if (target >= 0) {
+                conflict.clear(target);
+            }
+            jumpLevel = target;
+            jumpConflict = conflict;
+            failureTruncated = false;
+        }
+
+        /**
+         * 无法解释失败原因时（如分支定界剪枝）按时间顺序回溯，假定所有更浅的层都与失败有关
+         *
+         * @param depth 本层
+         */
+        private void failChronologically(int depth) {
+            jumpLevel = depth - 1;
+            jumpConflict = new BitSet();
+            jumpConflict.set(0, Math.max(0, depth - 1));
+            failureTruncated = false;
+        }
+
+        /**
+         * 宽度优先搜索
+         * 逐层展开，前沿中的节点用从起始层出发的赋值序列表示，展开时从起始层重放赋值和传播，
+         * 内存只与前沿大小成正比；下一层超过前沿上限后，对前沿中剩下的节点依次进行深度优先搜索，
+         * 搜索仍然完备。宽度优先搜索不重启
+         *
+         * @param depth 起始层
+         * @return 是否找到解
+         */
+        private boolean breadthFirstSearch(int depth) {
+            int rootMark = state.mark();
+            List<int[]> frontier = List.of(new int[0]);
+            for (int level = depth; !frontier.isEmpty(); level++) {
+                statistics.iterations.increment();
+                List<int[]> next = new ArrayList<>();
+                for (int index = 0; index < frontier.size(); index++) {
+                    if (next.size() >= config.getBreadthFirstFrontierLimit()) {
+                        statistics.limitPrunings.increment();
+                        return depthFirstFromEach(rootMark, frontier.subList(index, frontier.size()), level)
+                                || (!searchStopped && depthFirstFromEach(rootMark, next, level + 1));
                     }
+                    int[] path = frontier.get(index);
+                    boolean found = replay(path) && expand(path, next);
+                    if (found) {
+                        return true;
+                    }
+                    state.undoTo(rootMark);
+                    if (searchStopped) {
+                        return false;
+                    }
+                }
+                frontier = next;
+            }
+            return false;
+        }
+
+        /**
+         * 从起始层重放赋值序列，重放中任一步传播失败说明此后学到的 nogood 已排除该节点
+         *
+         * @param path 交替存放的 (变量, 值)
+         * @return 重放是否成功
+         */
+        private boolean replay(int[] path) {
+            for (int index = 0; index < path.length; index += 2) {
+                Variable variable = state.getVariable(path[index]);
+                makeAssignment(state, variable, path[index + 1]);
+                if (!propagateAssignment(variable, path[index + 1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 展开宽度优先搜索的一个节点，通过一致性检查和传播的子节点加入下一层
+         *
+         * @param path 节点的赋值序列，状态已重放到该节点
+         * @param next 下一层
+         * @return 是否找到解
+         */
+        private boolean expand(int[] path, List<int[]> next) {
+            statistics.nodesVisited.increment();
+            if (isTimeoutExceeded()) {
+                searchStopped = true;
+                return false;
+            }
+            if (softCost != null) {
+                double bound = softCost.lowerBound(state, incumbentCost);
+                if (cannotImprove(bound)) {
+                    statistics.boundPrunings.increment();
+                    return false;
+                }
+                if (isCompleteAssignment(state)) {
+                    recordImprovement(state, bound);
+                    return false;
+                }
+            }
+            if (isCompleteAssignment(state)) {
+                recordSolution(state);
+                return true;
+            }
+
+            Variable variable = variableSelector.selectVariable(state);
+            if (variable == null) {
+                return false;
+            }
+            for (int value : selectValues(variable)) {
+                statistics.assignmentsTried.increment();
+                if (forwardChecker == null && findConflictingVariable(variable, value, state) >= 0) {
+                    statistics.consistencyCheckFailures.increment();
+                    recordFailure(variable.getId());
+                    continue;
+                }
+                int mark = makeAssignment(state, variable, value);
+                boolean consistent = propagateAssignment(variable, value);
+                if (!consistent) {
+                    recordFailure(state.getWipedOut());
+                }
+                state.undoTo(mark);
+                if (consistent) {
+                    int[] child = Arrays.copyOf(path, path.length + 2);
+                    child[path.length] = variable.getId();
+                    child[path.length + 1] = value;
+                    next.add(child);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 前沿已满时对其中的节点依次进行深度优先搜索
+         *
+         * @param rootMark 起始层的轨迹位置
+         * @param paths 节点的赋值序列
+         * @param depth 节点所在的层
+         * @return 是否找到解
+         */
+        private boolean depthFirstFromEach(int rootMark, List<int[]> paths, int depth) {
+            for (int[] path : paths) {
+                if (replay(path) && depthFirstSearch(depth)) {
+                    return true;
+                }
+                state.undoTo(rootMark);
+                if (searchStopped) {
+                    return false;
                 }
             }
+            return false;
+        }
+
+        /**
+         * 按值选择策略排列变量的候选值，启用对称破缺时去掉与已保留的值对称的教室，
+         * 启用分支定界时再按增量代价排序
+         *
+         * @param variable 待赋值的变量
+         * @return 候选值
+         */
+        private int[] selectValues(Variable variable) {
+            int[] values = valueSelector.selectValues(variable, state, random);
+            if (symmetryBreaker != null) {
+                values = symmetryBreaker.filter(state, variable.getId(), values);
+            }
+            return softCost != null ? orderByCost(variable.getId(), values) : values;
+        }
+
+        /**
+         * 分支定界时按增量代价稳定排序，先尝试代价小的值，尽早得到好的上界
+         */
+        private int[] orderByCost(int variable, int[] values) {
+            double[] costs = new double[model.valueCount(variable)];
+            for (int value : values) {
+                costs[value] = softCost.valueCost(state, variable, value);
+            }
+            return Arrays.stream(values).boxed()
+                    .sorted(Comparator.comparingDouble(value -> costs[value]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        /**
+         * 赋值后的传播
+         * 赋值已把变量的域缩小为单个值，依次进行对称破缺、前向检查、nogood 检查和约束传播，
+         * 任一步删空某个变量的域时立即返回失败
+         *
+         * @param variable 刚被赋值的变量
+         * @param value 赋给变量的值
+         * @return 没有变量的域为空时返回true
+         */
+        private boolean propagateAssignment(Variable variable, int value) {
+            int id = variable.getId();
+            if (symmetryBreaker != null && !symmetryBreaker.propagate(state, id, value)) {
+                statistics.symmetryFailures.increment();
+                resetPropagator();
+                return false;
+            }
+            if (forwardChecker != null && !forwardChecker.check(state, id, value)) {
+                statistics.forwardCheckingFailures.increment();
+                resetPropagator();
+                return false;
+            }
+            if (nogoods != null && !nogoods.propagate(state, id)) {
+                statistics.nogoodFailures.increment();
+                resetPropagator();
+                return false;
+            }
+            if (propagator != null && !propagator.propagate(state, id)) {
+                statistics.constraintPropagationFailures.increment();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * 丢弃传播器中尚未处理的删除通知，这些删除即将被撤销
+         */
+        private void resetPropagator() {
+            if (propagator != null) {
+                propagator.reset();
+            }
+        }
+    }
+
+    /**
+     * 进入一个搜索节点的结果
+     */
+    private enum NodeOutcome {
+        EXPANDED, // 节点已压栈，等待尝试它的值
+        FAILED, // 节点失败或搜索已停止
+        SOLVED // 找到完整解
+    }
+
+    /**
+     * 显式栈上的一个搜索节点
+     */
+    private static final class Frame {
+
+        /**
+         * 节点所在的层
+         */
+        final int depth;
+
+        /**
+         * 本层赋值的变量
+         */
+        final Variable variable;
+
+        /**
+         * 按选择顺序排列的候选值
+         */
+        final int[] values;
+
+        /**
+         * 从起始层到本节点的差异次数
+         */
+        final int discrepancies;
+
+        /**
+         * 本层各个值失败的原因，即导致失败的赋值层，不解释失败原因时为null
+         */
+        final BitSet conflict;
+
+        /**
+         * 下一个要尝试的值在 values 中的位置
+         */
+        int next;
+
+        /**
+         * 已进入子节点的值的个数
+         */
+        int explored;
+
+        /**
+         * 当前子节点赋值前的轨迹位置，没有子节点时为-1
+         */
+        int mark = -1;
+
+        /**
+         * 本层或子树中是否有分支被限制截断
+         */
+        boolean truncated;
+
+        Frame(int depth, Variable variable, int[] values, int discrepancies, BitSet conflict) {
+            this.depth = depth;
+            this.variable = variable;
+            this.values = values;
+            this.discrepancies = discrepancies;
+            this.conflict = conflict;
         }
-        return true;
     }
 
     /**
-     * 检查值是否有一致性支持
+     * 并行搜索任务
+     * 复制父任务的状态，依次进行本任务各个值的赋值和传播；剩余任务配额大于1时继续按下一个变量的值拆分，
+     * 否则在该分支的子树上按顺序回溯
      *
-     * @param variable 变量
-     * @param value 值
-     * @param state 搜索状态
-     * @return 是否有支持
+     * 拆分出的子任务数不超过配额：值多于配额时按轮转把值分成配额个组，每组由一个子任务依次尝试，
+     * 各组都从排在前面的值开始；配额平均分给各个子任务
+     *
+     * 父任务的状态在子任务全部结束前保持不变，子任务在各自的线程中复制它，不需要加锁；
+     * 已找到解、超时或取消后开始的任务不再复制状态
      */
-    private boolean hasConsistentSupport(Variable variable, Value value, SearchState state) {
-        // TODO: 实现具体的一致性检查逻辑
-        return constraintChecker.hasSupport(variable, value, state);
+    private final class SplitTask extends RecursiveTask<Boolean> {
+
+        /**
+         * 父任务的搜索，根任务为本任务自己的搜索
+         */
+        private final Search parent;
+
+        /**
+         * 本任务赋值的变量，根任务为-1
+         */
+        private final int variable;
+
+        /**
+         * 本任务依次赋给变量的值，根任务为null
+         */
+        private final int[] values;
+
+        /**
+         * 本任务赋值所在的层
+         */
+        private final int depth;
+
+        /**
+         * 本任务还可以拆分出的任务数
+         */
+        private final int budget;
+
+        /**
+         * 在父任务线程中拆分出的随机数流
+         */
+        private final SplittableRandom random;
+
+        /**
+         * 创建根任务，直接在根节点的搜索上拆分
+         */
+        SplitTask(Search root, int budget) {
+            this(root, -1, null, 0, budget, null);
+        }
+
+        private SplitTask(Search parent, int variable, int[] values, int depth, int budget, SplittableRandom random) {
+            this.parent = parent;
+            this.variable = variable;
+            this.values = values;
+            this.depth = depth;
+            this.budget = budget;
+            this.random = random;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (isTimeoutExceeded()) {
+                return false;
+            }
+            Search search = variable >= 0 ? new Search(parent, random) : parent;
+            try {
+                if (variable < 0) {
+                    return split(search, depth);
+                }
+                Variable assigned = search.state.getVariable(variable);
+                for (int value : values) {
+                    statistics.assignmentsTried.increment();
+                    if (search.forwardChecker == null && findConflictingVariable(assigned, value, search.state) >= 0) {
+                        statistics.consistencyCheckFailures.increment();
+                        statistics.failures.increment();
+                        continue;
+                    }
+                    int mark = makeAssignment(search.state, assigned, value);
+                    if (!search.propagateAssignment(assigned, value)) {
+                        statistics.failures.increment();
+                    } else if (split(search, depth + 1)) {
+                        return true;
+                    }
+                    search.state.undoTo(mark);
+                    if (isTimeoutExceeded()) {
+                        return false;
+                    }
+                }
+                return false;
+            } finally {
+                search.finish();
+            }
+        }
+
+        /**
+         * 在搜索的当前节点按下一个变量的值拆分，本任务的状态在子任务结束前不再修改；
+         * 配额用完、超时或已是完整赋值时在本任务中按顺序回溯
+         *
+         * @param search 本任务的搜索
+         * @param nextDepth 当前节点所在的层
+         * @return 是否找到解
+         */
+        private boolean split(Search search, int nextDepth) {
+            if (budget <= 1 || isTimeoutExceeded() || isCompleteAssignment(search.state)) {
+                return search.solve(nextDepth);
+            }
+
+            statistics.nodesVisited.increment();
+            Variable next = variableSelector.selectVariable(search.state);
+            int[] nextValues = search.selectValues(next);
+            if (nextValues.length == 0) {
+                return false;
+            }
+            int groups = Math.min(nextValues.length, budget);
+            int[][] grouped = new int[groups][];
+            for (int group = 0; group < groups; group++) {
+                grouped[group] = new int[(nextValues.length - group + groups - 1) / groups];
+            }
+            for (int index = 0; index < nextValues.length; index++) {
+                grouped[index % groups][index / groups] = nextValues[index];
+            }
+            List<SplitTask> children = new ArrayList<>(groups);
+            for (int[] group : grouped) {
+                children.add(new SplitTask(search, next.getId(), group, nextDepth, budget / groups,
+                        search.random.split()));
+            }
+
+            boolean found = false;
+            for (SplitTask child : invokeAll(children)) {
+                found |= child.join();
+            }
+            return found;
+        }
     }
 
     /**
@@ -289,8 +1329,18 @@ public class BacktrackingScheduler implements ClassScheduler {
      * @return 排课解
      */
     private ScheduleChromosome createSolutionFromState(SearchState state) {
-        ScheduleChromosome solution = new ScheduleChromosome();
-        // TODO: 根据搜索状态构建具体的排课解
+        if (problem == null) {
+            return new ScheduleChromosome();
+        }
+        int[] slots = new int[problem.getLessonCount()];
+        int[] rooms = new int[problem.getLessonCount()];
+        for (int lesson = 0; lesson < slots.length; lesson++) {
+            int value = state.getAssignment(state.getVariable(lesson));
+            slots[lesson] = model.slotOf(lesson, value);
+            rooms[lesson] = model.roomOf(lesson, value);
+        }
+        ScheduleChromosome solution = new ScheduleChromosome(problem);
+        new TimetableEvaluator(problem, slots, rooms).writeTo(solution);
         return solution;
     }
 
@@ -300,8 +1350,14 @@ public class BacktrackingScheduler implements ClassScheduler {
      * @param state 搜索状态
      */
     private void initializeVariableDomains(SearchState state) {
-        // TODO: 根据具体问题初始化变量和域
-        // 示例：为每门课程创建变量，域为可选的时间段和教室组合
+        if (problem == null) {
+            return;
+        }
+        // 每节课创建一个变量，初始域为模型中该节课所有可行的时间段和教室组合
+        for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+            String courseName = problem.getCourses().get(problem.lessonCourse(lesson)).getName();
+            state.addVariable(new Variable(lesson, courseName + "#" + lesson, VariableType.COURSE_ASSIGNMENT));
+        }
     }
 
     /**
@@ -324,6 +1380,13 @@ public class BacktrackingScheduler implements ClassScheduler {
                         ├── 回溯次数: %d
                         ├── 一致性检查失败: %d
                         ├── 约束传播失败: %d
+                        ├── 前向检查失败: %d (删除值 %d 个)
+                        ├── 对称破缺: 失败 %d 次, 删除值 %d 个, 跳过对称教室 %d 个
+                        ├── 回跳: %d 次 (跳过 %d 层)
+                        ├── 失败: %d 次, 重启 %d 次
+                        ├── nogood: 学习 %d 个, 剪枝 %d 次, 淘汰 %d 个
+                        ├── 分支定界: %s
+                        ├── 搜索策略: %s, 迭代 %d 次, 限制截断 %d 次
                         └── 找到解的数量: %d
                         
                         🎯 回溯算法特点: 完备性强，能找到精确解，适合小到中等规模问题
@@ -331,12 +1394,33 @@ public class BacktrackingScheduler implements ClassScheduler {
                 solutionFound ? "✅" : "❌",
                 solutionFound ? "是" : "否",
                 totalTime,
-                statistics.nodesVisited,
-                statistics.assignmentsTried,
-                statistics.backtracks,
-                statistics.consistencyCheckFailures,
-                statistics.constraintPropagationFailures,
-                statistics.solutionsFound
+                statistics.nodesVisited.sum(),
+                statistics.assignmentsTried.sum(),
+                statistics.backtracks.sum(),
+                statistics.consistencyCheckFailures.sum(),
+                statistics.constraintPropagationFailures.sum(),
+                statistics.forwardCheckingFailures.sum(),
+                statistics.prunedValues.sum(),
+                statistics.symmetryFailures.sum(),
+                statistics.symmetryPrunedValues.sum(),
+                statistics.symmetrySkippedValues.sum(),
+                statistics.backjumps.sum(),
+                statistics.levelsSkipped.sum(),
+                statistics.failures.sum(),
+                statistics.restarts.sum(),
+                statistics.nogoodsLearned.sum(),
+                statistics.nogoodPrunings.sum(),
+                statistics.nogoodsEvicted.sum(),
+                softCost == null ? "未启用"
+                        : "最优代价 %s, 定界剪枝 %d 次, %s".formatted(
+                        solutionFound ? "%.2f".formatted(incumbentCost) : "无",
+                        statistics.boundPrunings.sum(),
+                        searchInterrupted ? "未证明最优（超时）"
+                                : searchTruncated ? "未证明最优（深度限制截断）" : "已证明最优"),
+                config.getSearchStrategy().getName(),
+                statistics.iterations.sum(),
+                statistics.limitPrunings.sum(),
+                statistics.solutionsFound.sum()
         );
     }
 
@@ -344,58 +1428,343 @@ public class BacktrackingScheduler implements ClassScheduler {
 
     /**
      * 搜索状态类
-     * 维护当前的变量赋值和域信息
+     * 整个搜索过程只有一个可变状态：赋值和域删除都记录在撤销轨迹上，回溯时按轨迹逆序撤销，
+     * 每个搜索节点的开销与本节点的改动数成正比，而不是与问题规模成正比
+     *
+     * 变量编号即节课索引，值为模型中按变量稠密编号的 (时间段, 教室) 组合，
+     * 赋值按编号存放在整数数组中，域是位集合；未赋值变量用稀疏集合维护，
+     * 删除是与末尾元素交换，按后进先出顺序撤销时只需把计数加回去
      */
-    private static class SearchState implements Cloneable {
-        private Map<Variable, Value> assignments = new HashMap<>();
-        private Map<Variable, Set<Value>> domains = new HashMap<>();
-        private Set<Variable> unassignedVariables = new HashSet<>();
+    private static class SearchState implements TrailedDomains {
+        private final Variable[] variables;
+        private final int[] assignments;
+        private final BitsetDomains domains;
+
+        /**
+         * 未赋值变量的稀疏集合，前 unassignedCount 个元素为未赋值变量的编号
+         */
+        private final int[] unassigned;
+        private final int[] position;
+        private int unassignedCount;
+
+        /**
+         * 撤销轨迹，每条记录占两个整数 (变量, 值)，值为 ASSIGNED 表示一次赋值，否则表示从该变量的域中删除了该值
+         */
+        private int[] trail = new int[256];
+        private int trailSize;
+
+        private static final int ASSIGNED = -1;
+
+        /**
+         * 未赋值变量的只读视图，不复制集合
+         */
+        private final List<Variable> unassignedView = new AbstractList<>() {
+            @Override
+            public Variable get(int index) {
+                return variables[unassigned[index]];
+            }
 
-        public void assign(Variable variable, Value value) {
-            assignments.put(variable, value);
-            unassignedVariables.remove(variable);
+            @Override
+            public int size() {
+                return unassignedCount;
+            }
+        };
+
+        /**
+         * 接收域删除和恢复通知的传播器，可以为null
+         */
+        private final ConstraintPropagator listener;
+
+        /**
+         * 每个变量的冲突集：导致其域缩小的赋值层，不需要解释失败原因时为null
+         * 第 L 层的删除只会加入不超过 L 的层，撤销第 L 层的删除时清除该变量 L 及以上的层；
+         * 更低的层可能因此多保留一些，冲突集偏大只会让回跳保守，不影响正确性
+         */
+        private final BitSet[] conflicts;
+
+        /**
+         * 最近一次被删空的变量
+         */
+        private int wipedOut = -1;
+
+        /**
+         * 每个变量导致失败的次数，不随回溯撤销，在重启之间保留
+         */
+        private final double[] activity;
+
+        SearchState(CspModel model, ConstraintPropagator listener, boolean explaining) {
+            this.listener = listener;
+            int variableCount = model.variableCount();
+            this.conflicts = explaining ? new BitSet[variableCount] : null;
+            this.activity = new double[variableCount];
+            if (explaining) {
+                Arrays.setAll(conflicts, variable -> new BitSet());
+            }
+            this.variables = new Variable[variableCount];
+            this.assignments = new int[variableCount];
+            Arrays.fill(assignments, ASSIGNED);
+            this.domains = new BitsetDomains(model.valueCounts());
+            this.unassigned = new int[variableCount];
+            this.position = new int[variableCount];
+        }
+
+        /**
+         * 复制另一个搜索状态的当前赋值、域、冲突集和变量活跃度，撤销轨迹从空开始
+         * 变量对象不可变，与被复制的状态共用
+         *
+         * @param other 被复制的状态，复制期间不能被修改
+         * @param listener 跟踪复制品的传播器
+         */
+        SearchState(SearchState other, ConstraintPropagator listener) {
+            this.listener = listener;
+            this.variables = other.variables;
+            this.assignments = other.assignments.clone();
+            this.domains = new BitsetDomains(other.domains);
+            this.unassigned = other.unassigned.clone();
+            this.position = other.position.clone();
+            this.unassignedCount = other.unassignedCount;
+            this.activity = other.activity.clone();
+            if (other.conflicts != null) {
+                this.conflicts = new BitSet[other.conflicts.length];
+                Arrays.setAll(conflicts, variable -> (BitSet) other.conflicts[variable].clone());
+            } else {
+                this.conflicts = null;
+            }
+        }
+
+        public void addVariable(Variable variable) {
+            int id = variable.getId();
+            variables[id] = variable;
+            unassigned[unassignedCount] = id;
+            position[id] = unassignedCount++;
+        }
+
+        /**
+         * 为变量赋值，并把它的域缩小为这个值，约束传播从缩小后的域出发
+         * 被赋值的变量作为删除原因时由它的赋值层解释，缩小自身的域不需要记录原因
+         */
+        public void assign(Variable variable, int value) {
+            int id = variable.getId();
+            assignments[id] = value;
+            int last = unassigned[--unassignedCount];
+            unassigned[position[id]] = last;
+            position[last] = position[id];
+            unassigned[unassignedCount] = id;
+            position[id] = unassignedCount;
+            push(id, ASSIGNED);
+            for (int other = domains.next(id, 0); other >= 0; other = domains.next(id, other + 1)) {
+                if (other != value) {
+                    prune(id, other);
+                }
+            }
         }
 
-        public Value getAssignment(Variable variable) {
-            return assignments.get(variable);
+        /**
+         * 当前赋值层，第一个被赋值的变量在第0层，尚未赋值时为-1
+         */
+        public int level() {
+            return variables.length - unassignedCount - 1;
         }
 
-        public Set<Value> getDomain(Variable variable) {
-            return domains.getOrDefault(variable, new HashSet<>());
+        /**
+         * 已赋值变量的赋值层
+         */
+        public int levelOf(int variable) {
+            return variables.length - 1 - position[variable];
         }
 
-        public void setDomain(Variable variable, Set<Value> domain) {
-            domains.put(variable, new HashSet<>(domain));
+        /**
+         * 在指定层被赋值的变量
+         */
+        public int variableAtLevel(int level) {
+            return unassigned[variables.length - 1 - level];
         }
 
-        public void removeFromDomain(Variable variable, Value value) {
-            domains.computeIfAbsent(variable, k -> new HashSet<>()).remove(value);
+        public void bumpActivity(int variable) {
+            activity[variable]++;
         }
 
-        public Set<Variable> getUnassignedVariables() {
-            return new HashSet<>(unassignedVariables);
+        public double getActivity(int variable) {
+            return activity[variable];
         }
 
-        public void addVariable(Variable variable, Set<Value> domain) {
-            unassignedVariables.add(variable);
-            setDomain(variable, domain);
+        public boolean isExplaining() {
+            return conflicts != null;
+        }
+
+        /**
+         * 获取变量的冲突集，调用方只能读取，撤销后内容会变化
+         */
+        public BitSet getConflict(int variable) {
+            return conflicts[variable];
+        }
+
+        /**
+         * 获取最近一次被删空的变量
+         */
+        public int getWipedOut() {
+            return wipedOut;
+        }
+
+        /**
+         * 获取变量的赋值
+         *
+         * @return 值编号，未赋值时为-1
+         */
+        public int getAssignment(Variable variable) {
+            return assignments[variable.getId()];
+        }
+
+        public Variable getVariable(int id) {
+            return variables[id];
+        }
+
+        public int getVariableCount() {
+            return variables.length;
+        }
+
+        public int getDomainSize(Variable variable) {
+            return domains.size(variable.getId());
+        }
+
+        public boolean isDomainEmpty(Variable variable) {
+            return domains.isEmpty(variable.getId());
+        }
+
+        /**
+         * 查找域中不小于 from 的第一个值，不存在时为-1
+         */
+        public int nextValue(Variable variable, int from) {
+            return domains.next(variable.getId(), from);
+        }
+
+        public long domainMemoryBytes() {
+            return domains.memoryBytes();
+        }
+
+        public int[] getDomainValues(Variable variable) {
+            return domains.values(variable.getId());
         }
 
         @Override
-        public SearchState clone() {
-            try {
-                SearchState cloned = (SearchState) super.clone();
-                cloned.assignments = new HashMap<>(this.assignments);
-                cloned.domains = new HashMap<>();
-                for (Map.Entry<Variable, Set<Value>> entry : this.domains.entrySet()) {
-                    cloned.domains.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        public int size(int variable) {
+            return domains.size(variable);
+        }
+
+        @Override
+        public boolean contains(int variable, int value) {
+            return domains.contains(variable, value);
+        }
+
+        @Override
+        public int next(int variable, int from) {
+            return domains.next(variable, from);
+        }
+
+        @Override
+        public int assignment(int variable) {
+            return assignments[variable];
+        }
+
+        @Override
+        public boolean remove(int variable, int value, int reason) {
+            if (!prune(variable, value)) {
+                return false;
+            }
+            if (conflicts != null) {
+                explain(variable, reason);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean remove(int variable, int value, int[] reasons) {
+            if (!prune(variable, value)) {
+                return false;
+            }
+            if (conflicts != null) {
+                for (int reason : reasons) {
+                    explain(variable, reason);
                 }
-                cloned.unassignedVariables = new HashSet<>(this.unassignedVariables);
-                return cloned;
-            } catch (CloneNotSupportedException e) {
-                throw new RuntimeException(e);
+            }
+            return true;
+        }
+
+        /**
+         * 原因变量已赋值时加入它的赋值层，否则加入它的冲突集
+         */
+        private void explain(int variable, int reason) {
+            if (reason == variable) {
+                return;
+            }
+            if (assignments[reason] != ASSIGNED) {
+                conflicts[variable].set(levelOf(reason));
+            } else {
+                conflicts[variable].or(conflicts[reason]);
             }
         }
+
+        private boolean prune(int variable, int value) {
+            if (!domains.remove(variable, value)) {
+                return false;
+            }
+            push(variable, value);
+            if (listener != null) {
+                listener.removed(variable, value);
+            }
+            if (domains.isEmpty(variable)) {
+                wipedOut = variable;
+            }
+            return true;
+        }
+
+        public List<Variable> getUnassignedVariables() {
+            return unassignedView;
+        }
+
+        /**
+         * 记录当前轨迹位置，之后的改动可以用 undoTo 撤销
+         *
+         * @return 轨迹位置
+         */
+        public int mark() {
+            return trailSize;
+        }
+
+        /**
+         * 按逆序撤销轨迹位置之后的所有改动
+         *
+         * @param mark 之前记录的轨迹位置
+         */
+        public void undoTo(int mark) {
+            while (trailSize > mark) {
+                trailSize -= 2;
+                int variable = trail[trailSize];
+                int value = trail[trailSize + 1];
+                if (value == ASSIGNED) {
+                    // 被赋值的变量在稀疏集合中紧跟在未赋值部分之后
+                    assignments[variable] = ASSIGNED;
+                    unassignedCount++;
+                } else {
+                    domains.restore(variable, value);
+                    if (listener != null) {
+                        listener.restored(variable, value);
+                    }
+                    if (conflicts != null) {
+                        // 删除发生在当前层，撤销后它带来的本层及以上的原因不再成立
+                        conflicts[variable].clear(Math.max(0, level()), variables.length);
+                    }
+                }
+            }
+        }
+
+        private void push(int variable, int value) {
+            if (trailSize + 2 > trail.length) {
+                trail = Arrays.copyOf(trail, trail.length * 2);
+            }
+            trail[trailSize++] = variable;
+            trail[trailSize++] = value;
+        }
     }
 
     /**
@@ -430,40 +1799,6 @@ public class BacktrackingScheduler implements ClassScheduler {
         }
     }
 
-    /**
-     * 值类
-     * 表示变量的一个可能取值（如时间段和教室的组合）
-     */
-    private static class Value {
-        private final int timeSlot;
-        private final int classroom;
-        private final int teacher;
-
-        public Value(int timeSlot, int classroom, int teacher) {
-            this.timeSlot = timeSlot;
-            this.classroom = classroom;
-            this.teacher = teacher;
-        }
-
-        public int getTimeSlot() { return timeSlot; }
-        public int getClassroom() { return classroom; }
-        public int getTeacher() { return teacher; }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof Value value)) return false;
-            return timeSlot == value.timeSlot &&
-                   classroom == value.classroom &&
-                   teacher == value.teacher;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(timeSlot, classroom, teacher);
-        }
-    }
-
     /**
      * 变量类型枚举
      */
@@ -475,34 +1810,70 @@ public class BacktrackingScheduler implements ClassScheduler {
 
     /**
      * 搜索统计信息
+     * 并行搜索的所有任务都在累加同一组计数，使用分段计数器 LongAdder，各线程累加不同的单元，
+     * 不会在同一个缓存行上争用，读取时再求和
      */
     private static class SearchStatistics {
-        int nodesVisited = 0;
-        int assignmentsTried = 0;
-        int backtracks = 0;
-        int consistencyCheckFailures = 0;
-        int constraintPropagationFailures = 0;
-        int solutionsFound = 0;
+        final LongAdder nodesVisited = new LongAdder();
+        final LongAdder assignmentsTried = new LongAdder();
+        final LongAdder backtracks = new LongAdder();
+        final LongAdder consistencyCheckFailures = new LongAdder();
+        final LongAdder constraintPropagationFailures = new LongAdder();
+        final LongAdder forwardCheckingFailures = new LongAdder();
+        final LongAdder prunedValues = new LongAdder();
+        final LongAdder symmetryFailures = new LongAdder();
+        final LongAdder symmetryPrunedValues = new LongAdder();
+        final LongAdder symmetrySkippedValues = new LongAdder();
+        final LongAdder nogoodFailures = new LongAdder();
+        final LongAdder nogoodsLearned = new LongAdder();
+        final LongAdder nogoodPrunings = new LongAdder();
+        final LongAdder nogoodsEvicted = new LongAdder();
+        final LongAdder backjumps = new LongAdder();
+        final LongAdder levelsSkipped = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder restarts = new LongAdder();
+        final LongAdder boundPrunings = new LongAdder();
+        final LongAdder iterations = new LongAdder();
+        final LongAdder limitPrunings = new LongAdder();
+        final LongAdder solutionsFound = new LongAdder();
 
         void reset() {
-            nodesVisited = assignmentsTried = backtracks =
-            consistencyCheckFailures = constraintPropagationFailures = solutionsFound = 0;
+            for (LongAdder counter : List.of(nodesVisited, assignmentsTried, backtracks, consistencyCheckFailures,
+                    constraintPropagationFailures, forwardCheckingFailures, prunedValues, symmetryFailures,
+                    symmetryPrunedValues, symmetrySkippedValues, nogoodFailures,
+                    nogoodsLearned, nogoodPrunings, nogoodsEvicted, backjumps, levelsSkipped, failures,
+                    restarts, boundPrunings, iterations, limitPrunings, solutionsFound)) {
+                counter.reset();
+            }
         }
     }
 
     /**
      * 约束检查器
+     * 同一时间段内，同一教师、班级、课程的节课不能重叠，同一教室只能安排一节课
      */
     private static class ConstraintChecker {
-        boolean isConsistent(Variable variable, Value value, SearchState state) {
-            // TODO: 实现具体的约束检查逻辑
-            return true;
+        private final ConstraintGraph graph;
+
+        ConstraintChecker(ConstraintGraph graph) {
+            this.graph = graph;
         }
 
-        boolean hasSupport(Variable variable, Value value, SearchState state) {
-            // TODO: 实现支持检查逻辑
-            return true;
+        /**
+         * 只检查约束图上的邻居，没有边的节课不会与之冲突
+         */
+        int findConflict(Variable variable, int value, SearchState state) {
+            int lesson = variable.getId();
+            int[] neighbours = graph.neighbours(lesson);
+            for (int index = 0; index < neighbours.length; index++) {
+                int assigned = state.assignment(neighbours[index]);
+                if (assigned >= 0 && !graph.isCompatible(lesson, index, value, assigned)) {
+                    return neighbours[index];
+                }
+            }
+            return -1;
         }
+
     }
 
     /**
@@ -516,7 +1887,7 @@ public class BacktrackingScheduler implements ClassScheduler {
         }
 
         Variable selectVariable(SearchState state) {
-            Set<Variable> unassigned = state.getUnassignedVariables();
+            List<Variable> unassigned = state.getUnassignedVariables();
             if (unassigned.isEmpty()) {
                 return null;
             }
@@ -529,18 +1900,33 @@ public class BacktrackingScheduler implements ClassScheduler {
             };
         }
 
-        private Variable selectMRVVariable(Set<Variable> variables, SearchState state) {
-            return variables.stream()
-                    .min(Comparator.comparingInt(v -> state.getDomain(v).size()))
-                    .orElse(null);
+        /**
+         * 选择剩余值最少的变量
+         * 启用动态变量排序时按 域大小 / (1 + 活跃度) 选择，经常被删空的变量更早赋值，
+         * 活跃度在重启之间保留，重启后先处理之前的难点
+         */
+        private Variable selectMRVVariable(List<Variable> variables, SearchState state) {
+            // 域大小已缓存，每个变量只需一次数组读取
+            boolean dynamic = config.isEnableDynamicVariableOrdering();
+            Variable best = null;
+            double bestScore = Double.MAX_VALUE;
+            for (Variable variable : variables) {
+                int size = state.getDomainSize(variable);
+                double score = dynamic ? size / (1.0 + state.getActivity(variable.getId())) : size;
+                if (score < bestScore) {
+                    best = variable;
+                    bestScore = score;
+                }
+            }
+            return best;
         }
 
-        private Variable selectDegreeVariable(Set<Variable> variables, SearchState state) {
+        private Variable selectDegreeVariable(List<Variable> variables, SearchState state) {
             // TODO: 实现度启发式选择
             return variables.iterator().next();
         }
 
-        private Variable selectMostConstrainingVariable(Set<Variable> variables, SearchState state) {
+        private Variable selectMostConstrainingVariable(List<Variable> variables, SearchState state) {
             // TODO: 实现最约束变量选择
             return variables.iterator().next();
         }
@@ -556,23 +1942,45 @@ public class BacktrackingScheduler implements ClassScheduler {
             this.config = config;
         }
 
-        List<Value> selectValues(Variable variable, SearchState state) {
-            List<Value> values = new ArrayList<>(state.getDomain(variable));
+        /**
+         * @param random 调用方所在搜索的随机数流
+         */
+        int[] selectValues(Variable variable, SearchState state, RandomGenerator random) {
+            int[] values = state.getDomainValues(variable);
 
-            return switch (config.getValueSelectionStrategy()) {
+            int[] ordered = switch (config.getValueSelectionStrategy()) {
                 case NATURAL_ORDER -> values;
                 case LEAST_CONSTRAINING -> sortByLeastConstraining(values, variable, state);
                 case MOST_CONSTRAINING -> sortByMostConstraining(values, variable, state);
-                case RANDOM_ORDER -> { Collections.shuffle(values); yield values; }
+                case RANDOM_ORDER -> { shuffle(values, random); yield values; }
             };
+
+            // 随机化：以一定概率把随机一个值提到最前，其余保持启发式顺序，重启后走不同的分支
+            if (config.isEnableRandomization() && ordered.length > 1
+                    && random.nextDouble() < config.getRandomizationProbability()) {
+                int chosen = random.nextInt(ordered.length);
+                int value = ordered[chosen];
+                System.arraycopy(ordered, 0, ordered, 1, chosen);
+                ordered[0] = value;
+            }
+            return ordered;
+        }
+
+        private static void shuffle(int[] values, RandomGenerator random) {
+            for (int i = values.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = values[i];
+                values[i] = values[j];
+                values[j] = tmp;
+            }
         }
 
-        private List<Value> sortByLeastConstraining(List<Value> values, Variable variable, SearchState state) {
+        private int[] sortByLeastConstraining(int[] values, Variable variable, SearchState state) {
             // TODO: 实现最少约束值排序
             return values;
         }
 
-        private List<Value> sortByMostConstraining(List<Value> values, Variable variable, SearchState state) {
+        private int[] sortByMostConstraining(int[] values, Variable variable, SearchState state) {
             // TODO: 实现最多约束值排序
             return values;
         }
@@ -587,6 +1995,15 @@ public class BacktrackingScheduler implements ClassScheduler {
         return bestSolution;
     }
 
+    /**
+     * 分支定界是否证明了最优解：找到了解，且搜索既没有超时也没有被深度限制截断
+     *
+     * @return 是否已证明最优
+     */
+    public boolean isOptimumProven() {
+        return softCost != null && bestSolution != null && !searchInterrupted && !searchTruncated;
+    }
+
     /**
      * 获取搜索统计信息
      *
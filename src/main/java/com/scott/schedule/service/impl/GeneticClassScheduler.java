@@ -1,14 +1,19 @@
 package com.scott.schedule.service.impl;
 
 import com.scott.schedule.algorithm.*;
+import com.scott.schedule.common.enums.CrossoverType;
 import com.scott.schedule.config.GeneticAlgorithmConfig;
 import com.scott.schedule.service.ClassScheduler;
+import com.scott.schedule.service.RandomService;
+import com.scott.schedule.service.ScheduleProblemService;
+import com.scott.schedule.utils.RandomStreams;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.random.RandomGenerator;
 
 /**
  * 基于遗传算法的排课服务实现
@@ -27,10 +32,15 @@ public class GeneticClassScheduler implements ClassScheduler {
     private final GeneticAlgorithmConfig config;
 
     /**
-     * 随机数生成器
-     * 用于遗传算法中的随机操作，如初始化、选择、交叉、变异等
+     * 随机数服务
+     * 每次运行从同一个种子派生随机数流，用于初始化、选择、交叉、变异等随机操作
      */
-    private final Random random = new Random();
+    private final RandomService randomService;
+
+    /**
+     * 最近一次运行的随机数流集合，记录运行种子以便复现
+     */
+    private RandomStreams randomStreams;
 
     /**
      * 适应度计算器
@@ -48,9 +58,15 @@ public class GeneticClassScheduler implements ClassScheduler {
     /**
      * 交叉操作器
      * 实现遗传算法中的交叉操作，将两个父代个体的基因进行交换产生子代
-     * 用于产生新的排课方案组合
+     * 用于产生新的排课方案组合，按交叉类型索引，运行时根据配置选择
      */
-    private final CrossoverOperator crossoverOperator;
+    private final Map<CrossoverType, CrossoverOperator> crossoverOperators;
+
+    /**
+     * 修复操作器
+     * 启用交叉修复时，将后代中冲突的节课重新安排到空闲的时间段和教室
+     */
+    private final RepairOperator repairOperator;
 
     /**
      * 变异操作器
@@ -59,12 +75,57 @@ public class GeneticClassScheduler implements ClassScheduler {
      */
     private final MutationOperator mutationOperator;
 
+    /**
+     * 局部搜索操作器
+     * 模因模式下对每代最优后代执行有限步数的爬山搜索
+     */
+    private final LocalSearchOperator localSearchOperator;
+
+    /**
+     * 排课问题服务
+     * 提供编译后的真实排课数据
+     */
+    private final ScheduleProblemService problemService;
+
+    /**
+     * 当前运行的排课问题，数据为空时为null，此时使用模拟数据
+     */
+    private ScheduleProblem problem;
+
+    /**
+     * 当前运行的自适应算子参数控制器
+     */
+    private AdaptiveOperatorController operatorController;
+
+    /**
+     * 当代适应度的增量统计，用于O(1)收敛判断和自适应参数调整
+     */
+    private final ConvergenceTracker fitnessTracker = new ConvergenceTracker();
+
     /**
      * 虚拟线程执行器
      * 使用JDK 21的虚拟线程特性，用于并行计算适应度，提高算法执行效率
      * 虚拟线程相比传统线程更轻量级，可以创建大量并发任务
+     * 每次运行创建、运行结束时关闭，同一实例可以多次运行
+     */
+    private ExecutorService executor;
+
+    /**
+     * 最近一次运行的最优解和最终种群，供混合算法的后续阶段使用
+     */
+    private volatile ScheduleChromosome bestSolution;
+    private volatile List<ScheduleChromosome> finalPopulation = List.of();
+
+    /**
+     * 最近一次运行实际进化的代数
+     */
+    private volatile int generations;
+
+    /**
+     * 本次运行的共享最优解，以及最近一次并入种群的外部解
      */
-    private final ExecutorService executor;
+    private SharedIncumbent incumbent;
+    private ScheduleChromosome lastImported;
 
     /**
      * 构造函数，初始化遗传算法排课服务
@@ -72,21 +133,32 @@ public class GeneticClassScheduler implements ClassScheduler {
      * @param config 遗传算法配置参数，包含种群大小、代数、概率等设置
      * @param fitnessCalculator 适应度计算器，用于评估排课方案的质量
      * @param selectionOperator 选择操作器，用于从种群中选择优秀个体
-     * @param crossoverOperator 交叉操作器，用于生成新的子代个体
+     * @param crossoverOperators 所有交叉操作器，按配置的交叉类型选用
+     * @param repairOperator 修复操作器，用于消除交叉产生的冲突
      * @param mutationOperator 变异操作器，用于增加种群多样性
+     * @param randomService 随机数服务，用于派生可复现的随机数流
+     * @param localSearchOperator 局部搜索操作器，用于模因模式
+     * @param problemService 排课问题服务，用于获取编译后的排课数据
      */
     public GeneticClassScheduler(GeneticAlgorithmConfig config,
                                  FitnessCalculator fitnessCalculator,
                                  SelectionOperator selectionOperator,
-                                 CrossoverOperator crossoverOperator,
-                                 MutationOperator mutationOperator) {
+                                 List<CrossoverOperator> crossoverOperators,
+                                 RepairOperator repairOperator,
+                                 MutationOperator mutationOperator,
+                                 RandomService randomService,
+                                 LocalSearchOperator localSearchOperator,
+                                 ScheduleProblemService problemService) {
         this.config = config;
+        this.randomService = randomService;
+        this.localSearchOperator = localSearchOperator;
+        this.problemService = problemService;
         this.fitnessCalculator = fitnessCalculator;
         this.selectionOperator = selectionOperator;
-        this.crossoverOperator = crossoverOperator;
+        this.crossoverOperators = new EnumMap<>(CrossoverType.class);
+        crossoverOperators.forEach(operator -> this.crossoverOperators.put(operator.getType(), operator));
+        this.repairOperator = repairOperator;
         this.mutationOperator = mutationOperator;
-        // 使用虚拟线程执行器，提高并发性能
-        this.executor = Executors.newVirtualThreadPerTaskExecutor();
     }
 
     /**
@@ -101,33 +173,69 @@ public class GeneticClassScheduler implements ClassScheduler {
      */
     @Override
     public void schedule() {
+        schedule(new SharedIncumbent());
+    }
+
+    /**
+     * 与其他算法竞速执行遗传算法排课
+     * 每代最优解改进时提交到共享最优解；其他算法提交了更优解时替换种群中最差的个体，
+     * 取消信号发出后在当前代结束时停止进化
+     *
+     * @param incumbent 共享最优解
+     */
+    @Override
+    public void schedule(SharedIncumbent incumbent) {
+        this.incumbent = incumbent;
+        randomStreams = randomService.newRun();
         System.out.printf(
                 """
                         🚀 开始执行遗传算法排课
+                        🎲 随机种子: %d
                         📊 种群大小: %d
                         🔄 最大代数: %d
-                        ✂️ 交叉概率: %.2f
+                        ✂️ 交叉概率: %.2f (%s%s)
                         🧬 变异概率: %.2f
                         🏆 精英比例: %.2f
+                        🧗 模因局部搜索: %s
+                        🎛️ 自适应算子: %s
                         %n""",
+                randomStreams.getSeed(),
                 config.getPopulationSize(),
                 config.getMaxGenerations(),
                 config.getCrossoverRate(),
+                config.getCrossoverType().getDescription(),
+                config.isCrossoverRepair() ? " + 冲突修复" : "",
                 config.getMutationRate(),
-                config.getEliteRate()
+                config.getEliteRate(),
+                config.isMemeticEnabled()
+                        ? "启用 (每代前%d个后代, 每个%d步)".formatted(config.getMemeticEliteCount(), config.getLocalSearchBudget())
+                        : "禁用",
+                config.isAdaptiveRatesEnabled() ? "启用" : "禁用"
         );
 
+        // 使用虚拟线程执行器，提高并发性能
+        executor = Executors.newVirtualThreadPerTaskExecutor();
         try {
+            ScheduleProblem compiled = incumbent.getProblem() != null ? incumbent.getProblem() : problemService.getProblem();
+            problem = compiled.isEmpty() ? null : compiled;
+            operatorController = new AdaptiveOperatorController(config);
+
+            // 遗传操作在主循环线程上串行执行，共用一条随机数流
+            RandomGenerator random = randomStreams.stream("genetic");
+
             // 1. 初始化种群
-            List<ScheduleChromosome> population = initializePopulation();
+            List<ScheduleChromosome> population = initializePopulation(random);
 
             // 2. 计算初始适应度（并行计算）
             calculateFitnessParallel(population);
+            operatorController.update(fitnessTracker);
 
             // 3. 主循环：进化过程
-            var evolutionResult = evolvePopulation(population);
+            var evolutionResult = evolvePopulation(population, random);
 
             // 4. 输出最优解
+            bestSolution = evolutionResult.bestSolution();
+            generations = evolutionResult.generations();
             applySchedule(evolutionResult.bestSolution());
 
             System.out.printf(
@@ -151,13 +259,14 @@ public class GeneticClassScheduler implements ClassScheduler {
      * 创建指定大小的初始种群，每个个体（染色体）代表一个排课方案
      * 使用随机化方法生成多样化的初始解，为后续进化提供基础
      *
+     * @param random 随机数流
      * @return 初始化的种群列表，包含随机生成的排课方案
      */
-    private List<ScheduleChromosome> initializePopulation() {
+    private List<ScheduleChromosome> initializePopulation(RandomGenerator random) {
         return new ArrayList<>(config.getPopulationSize()) {{
             for (int i = 0; i < config.getPopulationSize(); i++) {
-                var chromosome = new ScheduleChromosome();
-                chromosome.randomize(); // 随机初始化染色体的基因
+                var chromosome = new ScheduleChromosome(problem);
+                chromosome.randomize(random); // 随机初始化染色体的基因
                 add(chromosome);
             }
         }};
@@ -167,20 +276,58 @@ public class GeneticClassScheduler implements ClassScheduler {
      * 并行计算种群适应度
      * 使用虚拟线程并行计算种群中每个个体的适应度值，显著提高计算效率
      * 适应度值反映了排课方案的质量，包括时间冲突、教室容量、教师偏好等因素
+     * 全部计算完成后按种群顺序累加统计量，浮点累加顺序固定，结果可复现
      *
      * @param population 需要计算适应度的种群
      */
     private void calculateFitnessParallel(List<ScheduleChromosome> population) {
         // 为每个染色体创建异步计算任务
         var futures = population.stream()
-                .map(chromosome -> CompletableFuture.runAsync(() -> {
-                    double fitness = fitnessCalculator.calculate(chromosome);
-                    chromosome.setFitness(fitness);
-                }, executor))
+                .map(chromosome -> CompletableFuture.runAsync(
+                        () -> chromosome.setFitness(fitnessCalculator.calculate(chromosome)), executor))
                 .toList();
 
         // 等待所有适应度计算完成
         CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        fitnessTracker.reset();
+        population.forEach(chromosome -> fitnessTracker.add(chromosome.getFitness()));
+    }
+
+    /**
+     * 并行局部搜索
+     * 对当前种群中适应度最高的若干个体执行有限步数的爬山搜索，
+     * 每个个体使用由代数和名次派生的独立随机数流，结果与线程调度无关；
+     * 搜索结束后按名次顺序把改进后的适应度替换进本代统计量
+     *
+     * @param population 当前种群（适应度已计算）
+     * @param generation 当前代数
+     */
+    private void applyLocalSearchParallel(List<ScheduleChromosome> population, int generation) {
+        int eliteCount = Math.min(config.getMemeticEliteCount(), population.size());
+        var elites = population.stream()
+                .sorted(Comparator.comparingDouble(ScheduleChromosome::getFitness).reversed())
+                .limit(eliteCount)
+                .toList();
+
+        double[] before = elites.stream().mapToDouble(ScheduleChromosome::getFitness).toArray();
+        var futures = new ArrayList<CompletableFuture<Void>>(eliteCount);
+        for (int i = 0; i < elites.size(); i++) {
+            var chromosome = elites.get(i);
+            var random = randomStreams.stream("memetic", (long) generation * eliteCount + i);
+            futures.add(CompletableFuture.runAsync(
+                    () -> localSearchOperator.improve(chromosome, config.getLocalSearchBudget(), random),
+                    executor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < elites.size(); i++) {
+            double after = elites.get(i).getFitness();
+            if (after != before[i]) {
+                fitnessTracker.replace(before[i], after);
+            }
+        }
     }
 
     /**
@@ -189,22 +336,33 @@ public class GeneticClassScheduler implements ClassScheduler {
      * 包含选择、交叉、变异、精英保留等操作，直到找到满意解或达到终止条件
      *
      * @param population 初始种群
+     * @param random 随机数流
      * @return 进化结果，包含最终代数和最优解
      */
-    private EvolutionResult evolvePopulation(List<ScheduleChromosome> population) {
+    private EvolutionResult evolvePopulation(List<ScheduleChromosome> population, RandomGenerator random) {
+        CrossoverOperator crossoverOperator = resolveCrossoverOperator();
+        boolean repair = config.isCrossoverRepair() && problem != null;
         int generation = 0;
         int generationsWithoutImprovement = 0;
         double bestFitness = 0.0;
+        lastImported = null;
 
-        while (generation < config.getMaxGenerations()) {
+        while (generation < config.getMaxGenerations() && !incumbent.isCancelled()) {
             // 选择
-            List<ScheduleChromosome> selected = selectionOperator.select(population);
+            List<ScheduleChromosome> selected = selectionOperator.select(population,
+                    operatorController.getTournamentSize(), random);
 
             // 交叉
-            List<ScheduleChromosome> offspring = crossoverOperator.crossover(selected);
+            List<ScheduleChromosome> offspring = crossoverOperator.crossover(selected,
+                    operatorController.getCrossoverRate(), random);
+
+            // 修复交叉产生的冲突
+            if (repair) {
+                offspring.forEach(child -> repairOperator.repair(child, random));
+            }
 
             // 变异
-            mutationOperator.mutate(offspring);
+            mutationOperator.mutate(offspring, operatorController.getMutationRate(), random);
 
             // 精英保留
             elitePreservation(population, offspring);
@@ -215,18 +373,30 @@ public class GeneticClassScheduler implements ClassScheduler {
             // 重新计算适应度
             calculateFitnessParallel(population);
 
+            // 模因模式：对最优后代并行执行局部搜索
+            if (config.isMemeticEnabled() && problem != null) {
+                applyLocalSearchParallel(population, generation);
+            }
+
+            // 并入其他算法找到的更优解
+            importIncumbent(population);
+
+            // 根据本代最终适应度的统计调整下一代的算子参数
+            operatorController.update(fitnessTracker);
+
             // 检查改进情况
             var currentBest = getBestSolution(population);
             if (currentBest.getFitness() > bestFitness) {
                 bestFitness = currentBest.getFitness();
                 generationsWithoutImprovement = 0;
+                incumbent.offer(currentBest, "遗传算法");
             } else {
                 generationsWithoutImprovement++;
             }
 
             // 检查是否达到目标或收敛
-            if (isOptimalSolutionFound(population) ||
-                    isConverged(population) ||
+            if (isOptimalSolutionFound(currentBest) ||
+                    isConverged() ||
                     generationsWithoutImprovement >= config.getMaxGenerationsWithoutImprovement()) {
                 break;
             }
@@ -235,14 +405,55 @@ public class GeneticClassScheduler implements ClassScheduler {
 
             // 每100代输出一次进度
             if (generation % 100 == 0) {
-                System.out.printf("🔄 第%d代完成，当前最优适应度: %.4f%n",
-                        generation, bestFitness);
+                System.out.printf("🔄 第%d代完成，当前最优适应度: %.4f，多样性: %.4f，变异概率: %.3f，锦标赛规模: %d%n",
+                        generation, bestFitness, operatorController.getDiversity(),
+                        operatorController.getMutationRate(), operatorController.getTournamentSize());
             }
         }
 
+        finalPopulation = List.copyOf(population);
         return new EvolutionResult(generation, getBestSolution(population));
     }
 
+    /**
+     * 并入共享最优解
+     * 共享最优解来自其他算法、尚未并入过且优于种群最优个体时，用它的副本替换种群中最差的个体
+     *
+     * @param population 当前种群（适应度已计算）
+     */
+    private void importIncumbent(List<ScheduleChromosome> population) {
+        ScheduleChromosome external = incumbent.getSolution();
+        if (problem == null || external == null || external == lastImported || external.getProblem() != problem
+                || external.getFitness() <= getBestSolution(population).getFitness()) {
+            return;
+        }
+        lastImported = external;
+        int worst = 0;
+        for (int i = 1; i < population.size(); i++) {
+            if (population.get(i).getFitness() < population.get(worst).getFitness()) {
+                worst = i;
+            }
+        }
+        fitnessTracker.replace(population.get(worst).getFitness(), external.getFitness());
+        population.set(worst, external.clone());
+    }
+
+    /**
+     * 根据配置选择交叉操作器，未注册的类型退化为均匀交叉
+     *
+     * @return 交叉操作器
+     */
+    private CrossoverOperator resolveCrossoverOperator() {
+        var operator = crossoverOperators.get(config.getCrossoverType());
+        if (operator == null) {
+            operator = crossoverOperators.get(CrossoverType.UNIFORM);
+        }
+        if (operator == null) {
+            throw new IllegalStateException("未找到可用的交叉操作器: " + config.getCrossoverType());
+        }
+        return operator;
+    }
+
     /**
      * 精英保留策略
      * 保留上一代种群中适应度最高的个体到新一代种群中
@@ -270,36 +481,24 @@ public class GeneticClassScheduler implements ClassScheduler {
 
     /**
      * 检查是否找到最优解
-     * 判断种群中是否存在适应度达到1.0（完美解）的个体
+     * 判断当代最优个体的适应度是否达到1.0（完美解）
      *
-     * @param population 当前种群
+     * @param currentBest 当代最优个体
      * @return 如果找到最优解返回true，否则返回false
      */
-    private boolean isOptimalSolutionFound(List<ScheduleChromosome> population) {
-        return population.stream()
-                .anyMatch(chromosome -> chromosome.getFitness() >= 1.0);
+    private boolean isOptimalSolutionFound(ScheduleChromosome currentBest) {
+        return currentBest.getFitness() >= 1.0;
     }
 
     /**
      * 检查种群是否收敛
-     * 通过计算种群适应度的方差来判断是否收敛
-     * 当方差小于阈值时认为种群已收敛，继续进化意义不大
+     * 读取适应度计算时增量维护的标准差，O(1)判断是否收敛
+     * 当标准差小于阈值时认为种群已收敛，继续进化意义不大
      *
-     * @param population 当前种群
      * @return 如果种群已收敛返回true，否则返回false
      */
-    private boolean isConverged(List<ScheduleChromosome> population) {
-        var fitnesses = population.stream()
-                .mapToDouble(ScheduleChromosome::getFitness)
-                .toArray();
-
-        double avg = Arrays.stream(fitnesses).average().orElse(0.0);
-        double variance = Arrays.stream(fitnesses)
-                .map(f -> Math.pow(f - avg, 2))
-                .average()
-                .orElse(0.0);
-
-        return Math.sqrt(variance) < config.getConvergenceThreshold();
+    private boolean isConverged() {
+        return fitnessTracker.getStandardDeviation() < config.getConvergenceThreshold();
     }
 
     /**
@@ -328,6 +527,51 @@ public class GeneticClassScheduler implements ClassScheduler {
         System.out.println("🏆 最优解适应度: " + solution.getFitness());
     }
 
+    /**
+     * 获取最近一次运行的最优解
+     *
+     * @return 最优排课方案，尚未运行时为null
+     */
+    public ScheduleChromosome getBestSolution() {
+        return bestSolution;
+    }
+
+    /**
+     * 获取最近一次运行最终种群中适应度最高的若干个解
+     * 基因完全相同的个体只保留一个
+     *
+     * @param count 最多返回的解数量
+     * @return 按适应度降序排列的解的副本
+     */
+    public List<ScheduleChromosome> getBestSolutions(int count) {
+        Set<Map<Long, ScheduleChromosome.CourseSchedule>> seen = new HashSet<>();
+        return finalPopulation.stream()
+                .sorted(Comparator.comparingDouble(ScheduleChromosome::getFitness).reversed())
+                .filter(chromosome -> seen.add(chromosome.getGenes()))
+                .limit(count)
+                .map(ScheduleChromosome::clone)
+                .toList();
+    }
+
+    /**
+     * 获取最近一次运行实际进化的代数
+     *
+     * @return 进化代数，尚未运行时为0
+     */
+    public int getGenerations() {
+        return generations;
+    }
+
+    /**
+     * 获取最近一次运行的随机数流集合
+     * 可用于将运行种子记录到排课结果中
+     *
+     * @return 随机数流集合，尚未运行时为null
+     */
+    public RandomStreams getRandomStreams() {
+        return randomStreams;
+    }
+
     /**
      * 进化结果记录类
      * 使用JDK 21的record特性，封装遗传算法的执行结果
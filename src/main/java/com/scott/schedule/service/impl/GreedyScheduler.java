@@ -1,18 +1,27 @@
 package com.scott.schedule.service.impl;
 
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.algorithm.SharedIncumbent;
+import com.scott.schedule.algorithm.TimetableEvaluator;
 import com.scott.schedule.common.enums.GreedyStrategyEnum;
 import com.scott.schedule.config.GreedyConfig;
+import com.scott.schedule.config.RandomConfig;
 import com.scott.schedule.service.ClassScheduler;
 import com.scott.schedule.service.DataService;
+import com.scott.schedule.service.RandomService;
 import com.scott.schedule.strategy.GreedyStrategy;
 import com.scott.schedule.strategy.GreedyStrategyFactory;
 import com.scott.schedule.strategy.HybridGreedyStrategy;
+import com.scott.schedule.utils.RandomStreams;
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * 基于贪心算法的排课服务实现（重构版）
@@ -45,6 +54,17 @@ public class GreedyScheduler implements ClassScheduler {
      */
     private final GreedyStrategyFactory strategyFactory;
 
+    /**
+     * 随机数服务
+     */
+    private final RandomService randomService;
+
+    /**
+     * 最近一次运行的随机数流集合
+     */
+    @Getter
+    private RandomStreams randomStreams;
+
     /**
      * 当前最优解
      * -- GETTER --
@@ -61,8 +81,21 @@ public class GreedyScheduler implements ClassScheduler {
      * @param dataService 数据服务
      */
     public GreedyScheduler(GreedyConfig config, DataService dataService) {
+        this(config, dataService, new RandomService(new RandomConfig()));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config        贪心算法配置参数
+     * @param dataService   数据服务
+     * @param randomService 随机数服务
+     */
+    @Autowired
+    public GreedyScheduler(GreedyConfig config, DataService dataService, RandomService randomService) {
         this.config = config;
         this.dataService = dataService;
+        this.randomService = randomService;
         this.strategyFactory = new GreedyStrategyFactory(config, dataService);
     }
 
@@ -72,6 +105,8 @@ public class GreedyScheduler implements ClassScheduler {
      */
     @Override
     public void schedule() {
+        randomStreams = randomService.newRun();
+        strategyFactory.reseed(randomStreams);
         System.out.printf(
                 """
                         🎯 开始执行贪心算法排课
@@ -79,11 +114,13 @@ public class GreedyScheduler implements ClassScheduler {
                         🔄 是否启用随机化: %s
                         🎲 随机化因子: %.2f
                         ⚡ 快速模式: %s
+                        🎲 随机种子: %d
                         %n""",
                 config.getStrategy().getDescription(),
                 config.isRandomized() ? "是" : "否",
                 config.getRandomizationFactor(),
-                config.isFastMode() ? "启用" : "禁用"
+                config.isFastMode() ? "启用" : "禁用",
+                randomStreams.getSeed()
         );
 
         // 根据策略类型选择相应的策略实现
@@ -97,6 +134,101 @@ public class GreedyScheduler implements ClassScheduler {
         }
     }
 
+    /**
+     * 与其他算法竞速执行贪心排课
+     * 共享最优解带有编译后的问题时，直接在该问题上按节课构造课表并提交，
+     * 构造只需一遍，通常最先给出可用的课表；否则按配置的策略独立运行
+     *
+     * @param incumbent 共享最优解
+     */
+    @Override
+    public void schedule(SharedIncumbent incumbent) {
+        ScheduleProblem problem = incumbent.getProblem();
+        if (problem == null || problem.isEmpty()) {
+            schedule();
+            return;
+        }
+        System.out.printf("🎯 开始执行贪心算法排课（编译后问题, %d节课）%n", problem.getLessonCount());
+
+        ScheduleChromosome solution = constructOnProblem(problem, incumbent);
+        if (solution != null) {
+            bestSolution = solution;
+            incumbent.offer(solution, "贪心算法");
+            System.out.printf("✅ 贪心算法排课完成，适应度: %.4f，约束违反数: %d%n",
+                    solution.getFitness(), solution.getConstraintViolations());
+        } else {
+            System.out.println("⏹️ 贪心算法已取消");
+        }
+    }
+
+    /**
+     * 在编译后的问题上贪心构造课表
+     * 可行位置越少的节课越先安排，每节课选择与已安排节课冲突最少的 (时间段, 教室)，
+     * 冲突相同时选择容量最接近学生数的教室，再按时间段、教室索引顺序选择，结果确定
+     *
+     * @param problem 编译后的排课问题
+     * @param incumbent 共享最优解，取消后停止构造
+     * @return 排课解，构造中途被取消时为null
+     */
+    private ScheduleChromosome constructOnProblem(ScheduleProblem problem, SharedIncumbent incumbent) {
+        int slotCount = problem.getSlotCount();
+        int[] teacherLoad = new int[problem.getTeacherCount() * slotCount];
+        int[] classLoad = new int[problem.getClassCount() * slotCount];
+        int[] courseLoad = new int[problem.getCourseCount() * slotCount];
+        int[] roomLoad = new int[problem.getRoomCount() * slotCount];
+        int[] slots = new int[problem.getLessonCount()];
+        int[] rooms = new int[problem.getLessonCount()];
+
+        int[] order = IntStream.range(0, problem.getLessonCount())
+                .boxed()
+                .sorted(Comparator.comparingLong(lesson ->
+                        (long) problem.lessonSlots(lesson).length * problem.lessonRooms(lesson).length))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        for (int lesson : order) {
+            if (incumbent.isCancelled()) {
+                return null;
+            }
+            int students = problem.getCourses().get(problem.lessonCourse(lesson)).getStudentCount();
+            int teacherBase = problem.lessonTeacher(lesson) * slotCount;
+            int classBase = problem.lessonClass(lesson) * slotCount;
+            int courseBase = problem.lessonCourse(lesson) * slotCount;
+            int bestConflicts = Integer.MAX_VALUE;
+            int bestWaste = Integer.MAX_VALUE;
+            for (int slot : problem.lessonSlots(lesson)) {
+                int slotConflicts = teacherLoad[teacherBase + slot] + classLoad[classBase + slot]
+                        + courseLoad[courseBase + slot];
+                for (int room : problem.lessonRooms(lesson)) {
+                    if (!problem.isRoomOpen(room, slot)) {
+                        continue;
+                    }
+                    int conflicts = slotConflicts + roomLoad[room * slotCount + slot];
+                    int waste = Math.abs(problem.roomCapacity(room) - students);
+                    if (conflicts < bestConflicts || (conflicts == bestConflicts && waste < bestWaste)) {
+                        bestConflicts = conflicts;
+                        bestWaste = waste;
+                        slots[lesson] = slot;
+                        rooms[lesson] = room;
+                    }
+                }
+            }
+            if (bestConflicts == Integer.MAX_VALUE) {
+                // 所有教室都在维护，退回第一个允许的位置
+                slots[lesson] = problem.lessonSlots(lesson)[0];
+                rooms[lesson] = problem.lessonRooms(lesson)[0];
+            }
+            teacherLoad[teacherBase + slots[lesson]]++;
+            classLoad[classBase + slots[lesson]]++;
+            courseLoad[courseBase + slots[lesson]]++;
+            roomLoad[rooms[lesson] * slotCount + slots[lesson]]++;
+        }
+
+        ScheduleChromosome solution = new ScheduleChromosome(problem);
+        new TimetableEvaluator(problem, slots, rooms).writeTo(solution);
+        return solution;
+    }
+
     /**
      * 执行指定的贪心策略
      *
@@ -108,7 +240,9 @@ public class GreedyScheduler implements ClassScheduler {
             switch (strategyType) {
                 case HYBRID_GREEDY -> {
                     // 混合策略
-                    HybridGreedyStrategy hybridStrategy = new HybridGreedyStrategy(config, dataService);
+                    HybridGreedyStrategy hybridStrategy = randomStreams != null
+                            ? new HybridGreedyStrategy(config, dataService, randomStreams)
+                            : new HybridGreedyStrategy(config, dataService);
                     return hybridStrategy.execute();
                 }
                 default -> {
@@ -1,9 +1,16 @@
 package com.scott.schedule.service.impl;
 
+import com.scott.schedule.algorithm.LocalSearchOperator;
 import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.algorithm.TimetableEvaluator;
 import com.scott.schedule.service.ClassScheduler;
+import com.scott.schedule.service.RandomService;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.random.RandomGenerator;
+
 /**
  * 混合算法排课服务
  * 结合遗传算法和蚁群算法的优势，提供更强大的排课能力
@@ -13,6 +20,9 @@ import org.springframework.stereotype.Service;
  * 2. 第二阶段：使用蚁群算法进行局部优化，利用信息素机制精细调优
  * 3. 第三阶段：局部搜索进行最终优化
  *
+ * 每个阶段都从上一阶段的结果出发：遗传算法最终种群中的最优若干个解作为蚁群算法的种子，
+ * 在信息素表上预先沉积并作为初始全局最优解；蚁群算法的最优解再交给迭代局部搜索精调
+ *
  * @author mazhenpeng02
  * @since 2025/8/29
  */
@@ -31,21 +41,60 @@ public class HybridScheduler implements ClassScheduler {
      */
     private final AntColonyScheduler antColonyScheduler;
 
+    /**
+     * 局部搜索操作器
+     * 用于第三阶段的增量爬山搜索
+     */
+    private final LocalSearchOperator localSearchOperator;
+
+    /**
+     * 随机数服务
+     * 为第三阶段的局部搜索和扰动派生可复现的随机数流
+     */
+    private final RandomService randomService;
+
     /**
      * 当前最优解
      */
     private ScheduleChromosome bestSolution;
 
+    /**
+     * 最近一次运行各阶段的性能统计
+     */
+    private PerformanceStats performanceStats = new PerformanceStats();
+
+    /**
+     * 传给蚁群算法的遗传算法种子解数量
+     */
+    private static final int SEED_SOLUTION_COUNT = 5;
+
+    /**
+     * 每轮局部搜索的最大移动次数
+     */
+    private static final int LOCAL_SEARCH_BUDGET = 200;
+
+    /**
+     * 局部搜索的最大轮数，以及连续无改进时提前终止的轮数
+     */
+    private static final int MAX_LOCAL_ROUNDS = 100;
+    private static final int MAX_STALLED_ROUNDS = 20;
+
     /**
      * 构造函数
      *
      * @param geneticScheduler 遗传算法排课服务
      * @param antColonyScheduler 蚁群算法排课服务
+     * @param localSearchOperator 局部搜索操作器
+     * @param randomService 随机数服务
      */
     public HybridScheduler(GeneticClassScheduler geneticScheduler,
-                          AntColonyScheduler antColonyScheduler) {
+                          AntColonyScheduler antColonyScheduler,
+                          LocalSearchOperator localSearchOperator,
+                          RandomService randomService) {
         this.geneticScheduler = geneticScheduler;
         this.antColonyScheduler = antColonyScheduler;
+        this.localSearchOperator = localSearchOperator;
+        this.randomService = randomService;
     }
 
     /**
@@ -63,6 +112,8 @@ public class HybridScheduler implements ClassScheduler {
         );
 
         long startTime = System.currentTimeMillis();
+        bestSolution = null;
+        performanceStats = new PerformanceStats();
 
         try {
             // 第一阶段：遗传算法全局搜索
@@ -101,10 +152,12 @@ public class HybridScheduler implements ClassScheduler {
         geneticScheduler.schedule();
 
         // 获取遗传算法的最优解作为下一阶段的输入
-        // TODO: 从遗传算法中获取最优解
-        // bestSolution = geneticScheduler.getBestSolution();
+        updateBestSolution(geneticScheduler.getBestSolution());
 
         long phaseEndTime = System.currentTimeMillis();
+        performanceStats.setGeneticAlgorithmTime(phaseEndTime - phaseStartTime);
+        performanceStats.setInitialFitness(bestSolution != null ? bestSolution.getFitness() : 0.0);
+        performanceStats.setTotalIterations(geneticScheduler.getGenerations());
         System.out.printf("✅ 第一阶段完成，耗时: %d ms%n", phaseEndTime - phaseStartTime);
     }
 
@@ -122,20 +175,26 @@ public class HybridScheduler implements ClassScheduler {
 
         long phaseStartTime = System.currentTimeMillis();
 
+        // 第一阶段已找到无冲突解时无需继续优化
+        if (bestSolution != null && bestSolution.getFitness() >= 1.0) {
+            System.out.println("ℹ️ 遗传算法已找到无冲突解，跳过蚁群算法阶段");
+            return;
+        }
+
         // 如果第一阶段有结果，将其作为蚁群算法的启发式信息
         if (bestSolution != null) {
-            // TODO: 将遗传算法的结果转换为蚁群算法的启发式信息
             initializeAntColonyWithGeneticResult();
         }
 
         // 执行蚁群算法
         antColonyScheduler.schedule();
 
-        // 获取蚁群算法的最优解
-        // TODO: 从蚁群算法中获取最优解并与当前最优解比较
-        // updateBestSolution(antColonyScheduler.getBestSolution());
+        // 获取蚁群算法的最优解并与当前最优解比较
+        updateBestSolution(antColonyScheduler.getBestSolution());
 
         long phaseEndTime = System.currentTimeMillis();
+        performanceStats.setAntColonyTime(phaseEndTime - phaseStartTime);
+        performanceStats.setTotalIterations(performanceStats.getTotalIterations() + antColonyScheduler.getIterations());
         System.out.printf("✅ 第二阶段完成，耗时: %d ms%n", phaseEndTime - phaseStartTime);
     }
 
@@ -168,27 +227,29 @@ public class HybridScheduler implements ClassScheduler {
         }
 
         long phaseEndTime = System.currentTimeMillis();
+        performanceStats.setLocalSearchTime(phaseEndTime - phaseStartTime);
+        performanceStats.setFinalFitness(bestSolution != null ? bestSolution.getFitness() : 0.0);
         System.out.printf("✅ 第三阶段完成，耗时: %d ms%n", phaseEndTime - phaseStartTime);
     }
 
     /**
      * 使用遗传算法结果初始化蚁群算法
-     * 将遗传算法找到的优秀解转换为蚁群算法的启发式信息
+     * 将遗传算法最终种群中的最优若干个解交给蚁群算法，
+     * 在对应的信息素表位置预先沉积信息素，并作为蚁群的初始全局最优解
      */
     private void initializeAntColonyWithGeneticResult() {
         System.out.println("🔄 正在将遗传算法结果转换为蚁群算法启发式信息...");
 
-        // TODO: 实现具体的转换逻辑
-        // 1. 分析遗传算法最优解的特征
-        // 2. 在对应的信息素矩阵位置增加初始信息素
-        // 3. 调整启发式信息矩阵
+        List<ScheduleChromosome> seeds = geneticScheduler.getBestSolutions(SEED_SOLUTION_COUNT);
+        antColonyScheduler.seedSolutions(seeds);
 
-        System.out.println("✅ 启发式信息初始化完成");
+        System.out.printf("✅ 启发式信息初始化完成，传入%d个种子解%n", seeds.size());
     }
 
     /**
      * 执行局部搜索
-     * 对给定解进行局部优化
+     * 对给定解进行迭代局部搜索：每轮先用增量评估的爬山搜索下降到局部最优，
+     * 记录最好的课表后施加一次随机扰动跳出局部最优；扰动后仍未改进则回到最好的课表
      *
      * @param solution 待优化的解
      * @return 优化后的解
@@ -196,28 +257,37 @@ public class HybridScheduler implements ClassScheduler {
     private ScheduleChromosome performLocalSearch(ScheduleChromosome solution) {
         System.out.println("🔍 开始局部搜索优化...");
 
-        ScheduleChromosome currentSolution = solution.clone();
-        ScheduleChromosome bestLocalSolution = solution.clone();
+        ScheduleProblem problem = solution.getProblem();
+        if (problem == null || problem.isEmpty()) {
+            System.out.println("ℹ️ 当前解没有关联排课数据，跳过局部搜索");
+            return solution.clone();
+        }
 
-        // 局部搜索参数
-        int maxLocalIterations = 100;
-        int improvementCount = 0;
+        RandomGenerator random = randomService.newRun().stream("hybrid-local-search");
+        TimetableEvaluator evaluator = TimetableEvaluator.of(problem, solution);
+        ScheduleChromosome bestLocalSolution = new ScheduleChromosome(problem);
+        evaluator.writeTo(bestLocalSolution);
 
-        for (int i = 0; i < maxLocalIterations; i++) {
-            // 生成邻域解
-            ScheduleChromosome neighbor = generateNeighbor(currentSolution);
+        int improvementCount = 0;
+        int stalledRounds = 0;
+        for (int round = 0; round < MAX_LOCAL_ROUNDS && evaluator.getViolations() > 0; round++) {
+            localSearchOperator.improve(evaluator, LOCAL_SEARCH_BUDGET, random);
 
-            // 如果邻域解更优，则接受
-            if (neighbor.getFitness() > bestLocalSolution.getFitness()) {
-                bestLocalSolution = neighbor.clone();
-                currentSolution = neighbor.clone();
+            // 如果找到更优解，则接受
+            if (evaluator.getViolations() < bestLocalSolution.getConstraintViolations()) {
+                evaluator.writeTo(bestLocalSolution);
                 improvementCount++;
+                stalledRounds = 0;
+            } else {
+                evaluator = TimetableEvaluator.of(problem, bestLocalSolution);
+                // 如果连续多次没有改进，提前终止
+                if (++stalledRounds > MAX_STALLED_ROUNDS) {
+                    break;
+                }
             }
 
-            // 如果连续多次没有改进，提前终止
-            if (i - improvementCount > 20) {
-                break;
-            }
+            // 生成邻域解，从新的起点继续搜索
+            generateNeighbor(evaluator, random);
         }
 
         System.out.printf("🔍 局部搜索完成，共进行 %d 次改进%n", improvementCount);
@@ -226,23 +296,36 @@ public class HybridScheduler implements ClassScheduler {
 
     /**
      * 生成邻域解
-     * 通过小幅度修改当前解来生成邻域解
+     * 在评估器上施加一次不论好坏的随机移动：随机交换两节课的时间段，或为一节课更换教室
+     * 扰动总是被接受，是否改进由下一轮爬山搜索后的约束违反数决定
      *
-     * @param solution 当前解
-     * @return 邻域解
+     * @param evaluator 当前课表的增量评估器，移动直接作用于其上
+     * @param random 随机数流
      */
-    private ScheduleChromosome generateNeighbor(ScheduleChromosome solution) {
-        ScheduleChromosome neighbor = solution.clone();
-
-        // TODO: 实现具体的邻域生成策略
-        // 1. 随机选择两门课程交换时间
-        // 2. 随机选择一门课程更换教室
-        // 3. 调整连续课程的时间安排
-
-        // 示例：简单的随机变异
-        // neighbor.mutate(0.1);
+    private void generateNeighbor(TimetableEvaluator evaluator, RandomGenerator random) {
+        ScheduleProblem problem = evaluator.getProblem();
+        int lesson = random.nextInt(problem.getLessonCount());
+
+        if (random.nextBoolean()) {
+            // 随机选择两节课交换时间
+            int other = random.nextInt(problem.getLessonCount());
+            int slot = evaluator.slotOf(lesson);
+            int otherSlot = evaluator.slotOf(other);
+            if (other == lesson || !problem.isFeasible(lesson, otherSlot, evaluator.roomOf(lesson))
+                    || !problem.isFeasible(other, slot, evaluator.roomOf(other))) {
+                return;
+            }
+            evaluator.move(lesson, otherSlot, evaluator.roomOf(lesson));
+            evaluator.move(other, slot, evaluator.roomOf(other));
+            return;
+        }
 
-        return neighbor;
+        // 随机选择一节课更换为当前时间段不在维护中的教室
+        int room = problem.findOpenRoom(lesson, evaluator.slotOf(lesson),
+                random.nextInt(problem.lessonRooms(lesson).length));
+        if (room >= 0) {
+            evaluator.move(lesson, evaluator.slotOf(lesson), room);
+        }
     }
 
     /**
@@ -270,7 +353,9 @@ public class HybridScheduler implements ClassScheduler {
 
                         🎉 === 混合算法排课完成 ===
                         🏆 最优解适应度: %.4f
-                        ⏱️ 总耗时: %d ms
+                        ⏱️ 总耗时: %d ms (遗传算法 %d ms, 蚁群算法 %d ms, 局部搜索 %d ms)
+                        🔄 总迭代次数: %d
+                        📈 适应度提升: %.2f%%
                         ⚠️ 约束违反数: %d
                         📊 算法组合: 遗传算法 + 蚁群算法 + 局部搜索
 
@@ -283,6 +368,11 @@ public class HybridScheduler implements ClassScheduler {
                         %n""",
                 bestSolution != null ? bestSolution.getFitness() : 0.0,
                 totalTime,
+                performanceStats.getGeneticAlgorithmTime(),
+                performanceStats.getAntColonyTime(),
+                performanceStats.getLocalSearchTime(),
+                performanceStats.getTotalIterations(),
+                performanceStats.getImprovementRatio(),
                 bestSolution != null ? bestSolution.getConstraintViolations() : 0
         );
     }
@@ -296,6 +386,15 @@ public class HybridScheduler implements ClassScheduler {
         return bestSolution;
     }
 
+    /**
+     * 获取最近一次运行的性能统计
+     *
+     * @return 各阶段耗时、初始和最终适应度、总迭代次数
+     */
+    public PerformanceStats getPerformanceStats() {
+        return performanceStats;
+    }
+
     /**
      * 算法性能统计
      * 用于分析各阶段的性能表现
@@ -0,0 +1,242 @@
+package com.scott.schedule.service.impl;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.algorithm.SharedIncumbent;
+import com.scott.schedule.config.PortfolioConfig;
+import com.scott.schedule.service.ClassScheduler;
+import com.scott.schedule.service.ScheduleProblemService;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 算法竞速排课服务
+ * 事先无法判断贪心、遗传、蚁群、回溯算法哪个最适合当前学校的数据，
+ * 因此让它们在同一个编译后的问题上同时运行，谁先给出好课表就用谁的
+ *
+ * 运行方式：
+ * 1. 只编译一次问题，所有算法共用
+ * 2. 每个算法在独立的虚拟线程中运行，通过共享最优解无锁地提交和读取当前最优解，
+ *    遗传算法和蚁群算法会把其他算法的更优解并入自己的种群或信息素表
+ * 3. 任一算法提交了无冲突且达到目标适应度的解，或超出时间预算时，取消其余算法
+ *
+ * 得到好课表的时间是各算法中最短的，而不是依次运行的总和
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@Service
+public class PortfolioScheduler implements ClassScheduler {
+
+    /**
+     * 竞速配置参数
+     */
+    private final PortfolioConfig config;
+
+    /**
+     * 排课问题服务
+     */
+    private final ScheduleProblemService problemService;
+
+    /**
+     * 参与竞速的算法，按名称保持固定顺序
+     */
+    private final Map<String, ClassScheduler> solvers = new LinkedHashMap<>();
+
+    /**
+     * 最近一次运行的共享最优解
+     */
+    private volatile SharedIncumbent incumbent;
+
+    /**
+     * 最近一次运行各算法的耗时
+     */
+    private volatile List<SolverRun> solverRuns = List.of();
+
+    /**
+     * 构造函数
+     *
+     * @param config 竞速配置参数
+     * @param problemService 排课问题服务
+     * @param greedyScheduler 贪心算法排课服务
+     * @param geneticScheduler 遗传算法排课服务
+     * @param antColonyScheduler 蚁群算法排课服务
+     * @param backtrackingScheduler 回溯算法排课服务
+     */
+    public PortfolioScheduler(PortfolioConfig config,
+                              ScheduleProblemService problemService,
+                              GreedyScheduler greedyScheduler,
+                              GeneticClassScheduler geneticScheduler,
+                              AntColonyScheduler antColonyScheduler,
+                              BacktrackingScheduler backtrackingScheduler) {
+        this.config = config;
+        this.problemService = problemService;
+        solvers.put("贪心算法", greedyScheduler);
+        solvers.put("遗传算法", geneticScheduler);
+        solvers.put("蚁群算法", antColonyScheduler);
+        solvers.put("回溯算法", backtrackingScheduler);
+    }
+
+    /**
+     * 执行算法竞速排课
+     */
+    @Override
+    public void schedule() {
+        config.validate();
+        ScheduleProblem problem = problemService.getProblem();
+        System.out.printf(
+                """
+                        🏁 开始执行算法竞速排课
+                        🤖 参与算法: %s
+                        🎯 目标适应度: %.4f (无冲突)
+                        ⏰ 时间预算: %d 秒
+                        %n""",
+                String.join("、", solvers.keySet()),
+                config.getTargetFitness(),
+                config.getTimeBudgetSeconds()
+        );
+
+        if (problem.isEmpty()) {
+            System.out.println("ℹ️ 没有排课数据，跳过算法竞速");
+            incumbent = new SharedIncumbent();
+            solverRuns = List.of();
+            return;
+        }
+
+        SharedIncumbent shared = new SharedIncumbent(problem, config.getTargetFitness());
+        incumbent = shared;
+        List<SolverRun> runs = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<SolverRun>> futures = solvers.entrySet().stream()
+                    .map(entry -> CompletableFuture.supplyAsync(
+                            () -> race(entry.getKey(), entry.getValue(), shared), executor))
+                    .toList();
+            CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+
+            try {
+                all.get(config.getTimeBudgetSeconds(), TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                System.out.printf("⏰ 超出%d秒时间预算，取消仍在运行的算法%n", config.getTimeBudgetSeconds());
+                shared.cancel();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shared.cancel();
+            } catch (ExecutionException e) {
+                // 各算法的异常已在任务内处理
+                shared.cancel();
+            }
+
+            // 取消后各算法在下一个检查点结束
+            all.join();
+            futures.forEach(future -> runs.add(future.join()));
+        }
+        solverRuns = List.copyOf(runs);
+
+        outputResults(System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 在当前虚拟线程中运行一个算法，异常不影响其他算法
+     *
+     * @param name 算法名称
+     * @param solver 算法
+     * @param shared 共享最优解
+     * @return 运行记录
+     */
+    private SolverRun race(String name, ClassScheduler solver, SharedIncumbent shared) {
+        long start = System.currentTimeMillis();
+        boolean completed = true;
+        try {
+            solver.schedule(shared);
+        } catch (RuntimeException e) {
+            completed = false;
+            System.err.printf("❌ %s 执行失败: %s%n", name, e.getMessage());
+        }
+        return new SolverRun(name, System.currentTimeMillis() - start, completed);
+    }
+
+    /**
+     * 输出竞速结果
+     *
+     * @param totalTime 总耗时
+     */
+    private void outputResults(long totalTime) {
+        SharedIncumbent.Entry best = incumbent.getBest();
+        StringBuilder runs = new StringBuilder();
+        for (int i = 0; i < solverRuns.size(); i++) {
+            SolverRun run = solverRuns.get(i);
+            runs.append("%s %s: %d ms%s%n".formatted(i == solverRuns.size() - 1 ? "└──" : "├──",
+                    run.name(), run.elapsedMillis(), run.completed() ? "" : " (失败)"));
+        }
+
+        System.out.printf(
+                """
+
+                        🏁 === 算法竞速排课完成 ===
+                        🏆 最优解适应度: %.4f
+                        ⚠️ 约束违反数: %d
+                        🥇 最优解来源: %s (第 %d ms 提交)
+                        🚦 提前取消: %s
+                        ⏱️ 总耗时: %d ms
+                        📊 各算法耗时:
+                        %s%n""",
+                best != null ? best.solution().getFitness() : 0.0,
+                best != null ? best.solution().getConstraintViolations() : 0,
+                best != null ? best.source() : "无",
+                best != null ? best.elapsedMillis() : 0L,
+                incumbent.isCancelled() ? "是" : "否",
+                totalTime,
+                runs
+        );
+    }
+
+    /**
+     * 获取最优解
+     *
+     * @return 最近一次运行所有算法提交的最优解，尚未运行或没有解时为null
+     */
+    public ScheduleChromosome getBestSolution() {
+        SharedIncumbent current = incumbent;
+        return current != null ? current.getSolution() : null;
+    }
+
+    /**
+     * 获取最近一次运行的共享最优解，包含最优解来源和提交时间
+     *
+     * @return 共享最优解，尚未运行时为null
+     */
+    public SharedIncumbent getIncumbent() {
+        return incumbent;
+    }
+
+    /**
+     * 获取最近一次运行各算法的耗时
+     *
+     * @return 运行记录，按算法的固定顺序排列
+     */
+    public List<SolverRun> getSolverRuns() {
+        return solverRuns;
+    }
+
+    /**
+     * 单个算法的运行记录
+     *
+     * @param name 算法名称
+     * @param elapsedMillis 从启动到结束的毫秒数，被取消的算法在检查点结束
+     * @param completed 是否正常结束，抛出异常时为false
+     */
+    public record SolverRun(String name, long elapsedMillis, boolean completed) {
+    }
+}
@@ -10,6 +10,7 @@ import com.scott.schedule.service.DataService;
 import lombok.Getter;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * 抽象贪心策略基类
@@ -26,13 +27,26 @@ public abstract class AbstractGreedyStrategy implements GreedyStrategy {
     @Getter
     protected final DataService dataService;
     
-    protected final Random random = new Random();
+    /**
+     * 随机数生成器
+     * 默认使用独立的SplittableRandom，运行时由策略工厂按运行种子重新分配
+     */
+    protected RandomGenerator random = new SplittableRandom();
 
     public AbstractGreedyStrategy(GreedyConfig config, DataService dataService) {
         this.config = config;
         this.dataService = dataService;
     }
 
+    /**
+     * 设置随机数流
+     *
+     * @param random 本次运行分配给该策略的随机数流
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
     /**
      * 获取所有课程信息
      */
@@ -7,6 +7,7 @@ import com.scott.schedule.strategy.impl.LargestDegreeFirstStrategy;
 import com.scott.schedule.strategy.impl.MinimumRemainingValuesStrategy;
 import com.scott.schedule.strategy.impl.MostConstrainedFirstStrategy;
 import com.scott.schedule.strategy.impl.RandomGreedyStrategy;
+import com.scott.schedule.utils.RandomStreams;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,6 +25,11 @@ public class GreedyStrategyFactory {
     private final GreedyConfig config;
     private final DataService dataService;
 
+    /**
+     * 当前运行的随机数流集合，为空时各策略使用各自的默认随机数生成器
+     */
+    private RandomStreams randomStreams;
+
     public GreedyStrategyFactory(GreedyConfig config, DataService dataService) {
         this.config = config;
         this.dataService = dataService;
@@ -46,13 +52,38 @@ public class GreedyStrategyFactory {
      * @return 策略实例
      */
     private GreedyStrategy createStrategy(GreedyStrategyEnum strategyType) {
-        return switch (strategyType) {
+        GreedyStrategy strategy = switch (strategyType) {
             case LARGEST_DEGREE_FIRST -> new LargestDegreeFirstStrategy(config, dataService);
             case MINIMUM_REMAINING_VALUES -> new MinimumRemainingValuesStrategy(config, dataService);
             case MOST_CONSTRAINED_FIRST -> new MostConstrainedFirstStrategy(config, dataService);
             case RANDOM_GREEDY -> new RandomGreedyStrategy(config, dataService);
             default -> throw new IllegalArgumentException("不支持的贪心策略类型: " + strategyType);
         };
+        assignRandom(strategyType, strategy);
+        return strategy;
+    }
+
+    /**
+     * 切换到新的运行种子
+     * 已缓存的策略会重新分配由该种子派生的随机数流
+     *
+     * @param randomStreams 本次运行的随机数流集合
+     */
+    public void reseed(RandomStreams randomStreams) {
+        this.randomStreams = randomStreams;
+        strategyCache.forEach(this::assignRandom);
+    }
+
+    /**
+     * 为策略分配独立的随机数流
+     *
+     * @param strategyType 策略类型
+     * @param strategy 策略实例
+     */
+    private void assignRandom(GreedyStrategyEnum strategyType, GreedyStrategy strategy) {
+        if (randomStreams != null && strategy instanceof AbstractGreedyStrategy greedyStrategy) {
+            greedyStrategy.setRandom(randomStreams.stream("greedy." + strategyType.name()));
+        }
     }
 
     /**
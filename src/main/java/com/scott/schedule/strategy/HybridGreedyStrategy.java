@@ -6,6 +6,7 @@ import com.scott.schedule.config.GreedyConfig;
 import com.scott.schedule.model.Course;
 import com.scott.schedule.model.TimeSlot;
 import com.scott.schedule.service.DataService;
+import com.scott.schedule.utils.RandomStreams;
 
 import java.util.*;
 
@@ -32,6 +33,11 @@ public class HybridGreedyStrategy implements GreedyStrategy {
         strategies.add(strategyFactory.getStrategy(GreedyStrategyEnum.RANDOM_GREEDY));
     }
 
+    public HybridGreedyStrategy(GreedyConfig config, DataService dataService, RandomStreams randomStreams) {
+        this(config, dataService);
+        strategyFactory.reseed(randomStreams);
+    }
+
     @Override
     public ScheduleChromosome execute() {
         System.out.println("🎯 执行混合贪心算法...");
@@ -0,0 +1,101 @@
+package com.scott.schedule.utils;
+
+import com.scott.schedule.model.ScheduleResult;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * 单次运行的随机数流集合
+ * 从一个运行种子按名称和编号派生出互相独立的SplittableRandom，
+ * 每个工作线程、蚂蚁或岛屿持有自己的随机数流，避免共享Random带来的CAS竞争，
+ * 同时保证相同种子下的运行结果可以复现
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class RandomStreams {
+
+    /**
+     * 记录到算法参数中的种子键名
+     */
+    public static final String SEED_PARAMETER = "randomSeed";
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * 运行种子
+     */
+    private final long seed;
+
+    private RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 使用指定种子创建随机数流集合
+     *
+     * @param seed 运行种子
+     * @return 随机数流集合
+     */
+    public static RandomStreams of(long seed) {
+        return new RandomStreams(seed);
+    }
+
+    /**
+     * 使用随机生成的种子创建随机数流集合
+     *
+     * @return 随机数流集合
+     */
+    public static RandomStreams randomSeed() {
+        return new RandomStreams(new SplittableRandom().nextLong());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 获取指定名称的随机数流
+     *
+     * @param name 流名称，如 "genetic"、"ant"
+     * @return 新的随机数生成器，同名同种子时序列相同
+     */
+    public SplittableRandom stream(String name) {
+        return stream(name, 0L);
+    }
+
+    /**
+     * 获取指定名称和编号的随机数流
+     * 用于为每个工作线程、蚂蚁或岛屿分配独立的随机数流
+     *
+     * @param name 流名称
+     * @param index 流编号
+     * @return 新的随机数生成器
+     */
+    public SplittableRandom stream(String name, long index) {
+        long key = mix64(seed + GOLDEN_GAMMA * name.hashCode());
+        return new SplittableRandom(mix64(key + GOLDEN_GAMMA * (index + 1)));
+    }
+
+    /**
+     * 将运行种子记录到排课结果的算法参数中
+     *
+     * @param result 排课结果
+     */
+    public void recordTo(ScheduleResult result) {
+        if (result.getAlgorithmParameters() == null) {
+            result.setAlgorithmParameters(new HashMap<>());
+        }
+        result.getAlgorithmParameters().put(SEED_PARAMETER, seed);
+    }
+
+    /**
+     * 64位混合函数（SplitMix64 的 Stafford 13 变体）
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,89 @@
+package com.scott.schedule;
+
+import com.scott.schedule.model.Classroom;
+import com.scott.schedule.model.Course;
+import com.scott.schedule.model.Teacher;
+import com.scott.schedule.model.TimeSlot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 排课服务测试共用的小规模真实数据
+ * 6门课程共14节课，三位教师、三个班级，两间容量不同的教室，每天两个时间段
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+public final class ScheduleTestData {
+
+    private ScheduleTestData() {
+    }
+
+    /**
+     * 创建测试课程：6门课程，共14节课，三位教师、三个班级
+     */
+    public static List<Course> createCourses() {
+        List<Course> courses = new ArrayList<>();
+        courses.add(course("C1", "T1", "K1", 3, 40));
+        courses.add(course("C2", "T1", "K2", 2, 30));
+        courses.add(course("C3", "T2", "K1", 3, 40));
+        courses.add(course("C4", "T2", "K3", 2, 60));
+        courses.add(course("C5", "T3", "K2", 2, 30));
+        courses.add(course("C6", "T3", "K3", 2, 60));
+        return courses;
+    }
+
+    public static Course course(String id, String teacherId, String classId, int hours, int students) {
+        Course course = new Course();
+        course.setId(id);
+        course.setName(id);
+        course.setTeacherId(teacherId);
+        course.setClassIds(List.of(classId));
+        course.setHoursPerWeek(hours);
+        course.setStudentCount(students);
+        return course;
+    }
+
+    public static List<Teacher> createTeachers() {
+        List<Teacher> teachers = new ArrayList<>();
+        for (String id : List.of("T1", "T2", "T3")) {
+            Teacher teacher = new Teacher();
+            teacher.setId(id);
+            teacher.setUnavailableTimeSlots(List.of());
+            teachers.add(teacher);
+        }
+        return teachers;
+    }
+
+    public static List<Classroom> createClassrooms() {
+        List<Classroom> classrooms = new ArrayList<>();
+        int[] capacities = {45, 80};
+        for (int i = 0; i < capacities.length; i++) {
+            Classroom classroom = new Classroom();
+            classroom.setId("R" + i);
+            classroom.setCapacity(capacities[i]);
+            classroom.setAvailable(true);
+            classrooms.add(classroom);
+        }
+        return classrooms;
+    }
+
+    /**
+     * 创建时间段，每天两个时间段
+     *
+     * @param count 时间段数
+     */
+    public static List<TimeSlot> createTimeSlots(int count) {
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(i / 2 + 1);
+            timeSlot.setPeriod(i % 2 + 1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+        return timeSlots;
+    }
+}
@@ -0,0 +1,99 @@
+package com.scott.schedule.algorithm;
+
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptiveOperatorController 单元测试类
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@DisplayName("自适应算子参数控制器测试")
+class AdaptiveOperatorControllerTest {
+
+    private GeneticAlgorithmConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new GeneticAlgorithmConfig();
+        config.setAdaptiveRatesEnabled(true);
+    }
+
+    @Test
+    @DisplayName("测试多样性坍缩 - 提高变异概率并降低锦标赛规模")
+    void testCollapsedPopulation() {
+        AdaptiveOperatorController controller = new AdaptiveOperatorController(config);
+        ConvergenceTracker tracker = new ConvergenceTracker();
+        for (int i = 0; i < 50; i++) {
+            tracker.add(0.5);
+        }
+        controller.update(tracker);
+
+        assertEquals(0.0, controller.getDiversity(), 1e-12);
+        assertTrue(controller.getMutationRate() > config.getMutationRate());
+        assertEquals(config.getTournamentSize() - 1, controller.getTournamentSize());
+    }
+
+    @Test
+    @DisplayName("测试种群探索 - 降低变异概率并提高锦标赛规模")
+    void testExploringPopulation() {
+        AdaptiveOperatorController controller = new AdaptiveOperatorController(config);
+        ConvergenceTracker tracker = new ConvergenceTracker();
+        for (int i = 0; i < 50; i++) {
+            tracker.add(i % 2 == 0 ? 0.1 : 0.9);
+        }
+        controller.update(tracker);
+
+        assertEquals(0.8, controller.getDiversity(), 1e-9);
+        assertTrue(controller.getMutationRate() < config.getMutationRate());
+        assertEquals(config.getTournamentSize() + 1, controller.getTournamentSize());
+    }
+
+    @Test
+    @DisplayName("测试未启用自适应 - 参数保持配置值")
+    void testDisabledKeepsConfiguredRates() {
+        config.setAdaptiveRatesEnabled(false);
+        AdaptiveOperatorController controller = new AdaptiveOperatorController(config);
+        ConvergenceTracker tracker = new ConvergenceTracker();
+        for (int i = 0; i < 10; i++) {
+            tracker.add(0.5);
+        }
+        controller.update(tracker);
+
+        assertEquals(config.getMutationRate(), controller.getMutationRate());
+        assertEquals(config.getTournamentSize(), controller.getTournamentSize());
+    }
+
+    @Test
+    @DisplayName("测试收敛跟踪器 - 替换与缩放后统计量与重新计算一致")
+    void testTrackerReplaceAndScale() {
+        double[] values = {0.5, 0.5, 0.5, 0.5};
+        ConvergenceTracker tracker = new ConvergenceTracker();
+        tracker.fill(values.length, 0.5);
+
+        tracker.replace(values[1], 2.0);
+        values[1] = 2.0;
+        tracker.scale(0.8);
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= 0.8;
+        }
+        tracker.replace(values[3], 0.01);
+        values[3] = 0.01;
+
+        double mean = 0.0;
+        for (double value : values) {
+            mean += value / values.length;
+        }
+        double variance = 0.0;
+        for (double value : values) {
+            variance += (value - mean) * (value - mean) / values.length;
+        }
+        assertEquals(mean, tracker.getMean(), 1e-12);
+        assertEquals(variance, tracker.getVariance(), 1e-12);
+    }
+}
@@ -0,0 +1,307 @@
+package com.scott.schedule.algorithm;
+
+import com.scott.schedule.algorithm.impl.BitsetRepairOperator;
+import com.scott.schedule.algorithm.impl.ClassBlockCrossoverOperator;
+import com.scott.schedule.algorithm.impl.DayBlockCrossoverOperator;
+import com.scott.schedule.algorithm.impl.DefaultFitnessCalculator;
+import com.scott.schedule.algorithm.impl.HillClimbingLocalSearch;
+import com.scott.schedule.model.Classroom;
+import com.scott.schedule.model.Course;
+import com.scott.schedule.model.Teacher;
+import com.scott.schedule.model.TimeSlot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimetableEvaluator 单元测试类
+ * 验证增量评估结果与完整适应度计算一致，以及局部搜索能够减少冲突
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@DisplayName("课表增量评估器测试")
+class TimetableEvaluatorTest {
+
+    private ScheduleProblem problem;
+
+    private final DefaultFitnessCalculator fitnessCalculator = new DefaultFitnessCalculator();
+
+    @BeforeEach
+    void setUp() {
+        problem = ScheduleProblem.compile(createCourses(), createTeachers(), createClassrooms(), createTimeSlots());
+    }
+
+    /**
+     * 创建测试课程：4门课程，共10节课，两位教师、两个班级
+     */
+    private List<Course> createCourses() {
+        List<Course> courses = new ArrayList<>();
+        courses.add(course("C1", "T1", "K1", 3, 40));
+        courses.add(course("C2", "T1", "K2", 2, 40));
+        courses.add(course("C3", "T2", "K1", 3, 40));
+        courses.add(course("C4", "T2", "K2", 2, 40));
+        return courses;
+    }
+
+    private Course course(String id, String teacherId, String classId, int hours, int students) {
+        Course course = new Course();
+        course.setId(id);
+        course.setName(id);
+        course.setTeacherId(teacherId);
+        course.setClassIds(List.of(classId));
+        course.setHoursPerWeek(hours);
+        course.setStudentCount(students);
+        return course;
+    }
+
+    private List<Teacher> createTeachers() {
+        List<Teacher> teachers = new ArrayList<>();
+        for (String id : List.of("T1", "T2")) {
+            Teacher teacher = new Teacher();
+            teacher.setId(id);
+            teacher.setUnavailableTimeSlots(List.of());
+            teachers.add(teacher);
+        }
+        return teachers;
+    }
+
+    private List<Classroom> createClassrooms() {
+        List<Classroom> classrooms = new ArrayList<>();
+        for (String id : List.of("R1", "R2")) {
+            Classroom classroom = new Classroom();
+            classroom.setId(id);
+            classroom.setCapacity(50);
+            classroom.setAvailable(true);
+            classrooms.add(classroom);
+        }
+        return classrooms;
+    }
+
+    private List<TimeSlot> createTimeSlots() {
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(i / 2 + 1);
+            timeSlot.setPeriod(i % 2 + 1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+        return timeSlots;
+    }
+
+    @Test
+    @DisplayName("测试问题编译 - 按课时拆分节课")
+    void testCompileSplitsLessons() {
+        assertEquals(10, problem.getLessonCount());
+        assertEquals(8, problem.getSlotCount());
+        assertEquals(2, problem.getRoomCount());
+        assertEquals(2, problem.getClassCount());
+        assertFalse(problem.isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试增量评估 - 与完整适应度计算一致")
+    void testMoveDeltaMatchesFullEvaluation() {
+        SplittableRandom random = new SplittableRandom(42);
+        ScheduleChromosome chromosome = new ScheduleChromosome(problem);
+        chromosome.randomize(random);
+        TimetableEvaluator evaluator = TimetableEvaluator.of(problem, chromosome);
+
+        for (int i = 0; i < 200; i++) {
+            int lesson = random.nextInt(problem.getLessonCount());
+            int slot = random.nextInt(problem.getSlotCount());
+            int room = random.nextInt(problem.getRoomCount());
+
+            int expected = evaluator.getViolations() + evaluator.moveDelta(lesson, slot, room);
+            evaluator.move(lesson, slot, room);
+            assertEquals(expected, evaluator.getViolations());
+
+            evaluator.writeTo(chromosome);
+            assertEquals(fitnessCalculator.calculate(chromosome), evaluator.getFitness(), 1e-12);
+            assertEquals(evaluator.getViolations(), chromosome.getConstraintViolations());
+        }
+    }
+
+    @Test
+    @DisplayName("测试爬山局部搜索 - 不会劣化课表")
+    void testHillClimbingNeverWorsens() {
+        ScheduleChromosome chromosome = new ScheduleChromosome(problem);
+        chromosome.randomize(new SplittableRandom(7));
+        int before = TimetableEvaluator.of(problem, chromosome).getViolations();
+
+        int delta = new HillClimbingLocalSearch().improve(chromosome, 500, new SplittableRandom(7));
+
+        assertTrue(delta <= 0);
+        assertEquals(before + delta, chromosome.getConstraintViolations());
+        assertEquals(fitnessCalculator.calculate(chromosome), chromosome.getFitness(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("测试教室维护 - 维护中的教室计入冲突，初始化、变异、局部搜索和修复都不会安排进去")
+    void testRoomMaintenanceIsHardConstraint() {
+        List<Classroom> classrooms = createClassrooms();
+        classrooms.get(0).setMaintenanceTimeSlots(List.of("S0", "S1", "S2", "S3"));
+        ScheduleProblem maintained = ScheduleProblem.compile(createCourses(), createTeachers(), classrooms,
+                createTimeSlots());
+        assertFalse(maintained.isRoomOpen(0, 0));
+        assertTrue(maintained.isRoomOpen(1, 0));
+
+        // 评估器：维护中的教室记一次冲突，增量评估与重新构建一致
+        int[] slots = new int[maintained.getLessonCount()];
+        int[] rooms = new int[maintained.getLessonCount()];
+        for (int lesson = 0; lesson < slots.length; lesson++) {
+            slots[lesson] = lesson % 8;
+            rooms[lesson] = 1;
+        }
+        TimetableEvaluator evaluator = new TimetableEvaluator(maintained, slots, rooms);
+        int before = evaluator.getViolations();
+        assertFalse(evaluator.isConflicting(2));
+        assertEquals(1, evaluator.moveDelta(2, 2, 0));
+        evaluator.move(2, 2, 0);
+        assertEquals(before + 1, evaluator.getViolations());
+        assertTrue(evaluator.isConflicting(2));
+        rooms[2] = 0;
+        assertEquals(evaluator.getViolations(), new TimetableEvaluator(maintained, slots, rooms).getViolations());
+
+        SplittableRandom random = new SplittableRandom(5);
+        BitsetRepairOperator repairOperator = new BitsetRepairOperator();
+        HillClimbingLocalSearch localSearch = new HillClimbingLocalSearch();
+        for (int round = 0; round < 20; round++) {
+            ScheduleChromosome chromosome = new ScheduleChromosome(maintained);
+            chromosome.randomize(random);
+            assertAllRoomsOpen(maintained, chromosome);
+
+            localSearch.improve(chromosome, 200, random);
+            assertAllRoomsOpen(maintained, chromosome);
+
+            repairOperator.repair(chromosome, random);
+            assertAllRoomsOpen(maintained, chromosome);
+            assertEquals(TimetableEvaluator.of(maintained, chromosome).getFitness(),
+                    fitnessCalculator.calculate(chromosome), 1e-12);
+        }
+    }
+
+    private void assertAllRoomsOpen(ScheduleProblem problem, ScheduleChromosome chromosome) {
+        for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+            var gene = chromosome.getGenes().get((long) lesson);
+            assertTrue(problem.isRoomOpen(gene.classroomId().intValue(), gene.timeSlotId().intValue()));
+        }
+    }
+
+    @Test
+    @DisplayName("测试班级块交叉与位图修复 - 修复后冲突不多于交叉后")
+    void testBlockCrossoverWithRepair() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<ScheduleChromosome> parents = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ScheduleChromosome parent = new ScheduleChromosome(problem);
+            parent.randomize(random);
+            parents.add(parent);
+        }
+
+        List<ScheduleChromosome> offspring = new ClassBlockCrossoverOperator().crossover(parents, random);
+        assertEquals(2, offspring.size());
+
+        BitsetRepairOperator repairOperator = new BitsetRepairOperator();
+        for (ScheduleChromosome child : offspring) {
+            assertEquals(problem.getLessonCount(), child.getGenes().size());
+            int before = TimetableEvaluator.of(problem, child).getViolations();
+            repairOperator.repair(child, random);
+            int after = TimetableEvaluator.of(problem, child).getViolations();
+            assertTrue(after <= before);
+            for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+                var gene = child.getGenes().get((long) lesson);
+                assertTrue(problem.isSlotAllowed(lesson, gene.timeSlotId().intValue()));
+                assertTrue(problem.isRoomAllowed(lesson, gene.classroomId().intValue()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("测试星期块交叉 - 子代在被选中日期上的安排与另一个父代相同，不产生新的冲突")
+    void testDayBlockCrossoverKeepsChosenDays() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<ScheduleChromosome> parents = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ScheduleChromosome parent = new ScheduleChromosome(problem);
+            parent.randomize(random);
+            parents.add(parent);
+        }
+        int day = problem.slotDay(0);
+        assertNotEquals(lessonsOnDay(parents.get(0), day), lessonsOnDay(parents.get(1), day));
+
+        List<ScheduleChromosome> offspring = new DayBlockCrossoverOperator().crossover(parents, chooseBlock(day));
+
+        for (int i = 0; i < 2; i++) {
+            ScheduleChromosome donor = parents.get(1 - i);
+            ScheduleChromosome child = offspring.get(i);
+            assertEquals(problem.getLessonCount(), child.getGenes().size());
+            assertEquals(lessonsOnDay(donor, day), lessonsOnDay(child, day));
+            assertEquals(clashesOnDay(donor, day), clashesOnDay(child, day));
+        }
+    }
+
+    /**
+     * 总是执行交叉、只选中指定块的随机数生成器
+     */
+    private RandomGenerator chooseBlock(int block) {
+        return new RandomGenerator() {
+            private int calls;
+
+            @Override
+            public long nextLong() {
+                return 0L;
+            }
+
+            @Override
+            public double nextDouble() {
+                return 0.0;
+            }
+
+            @Override
+            public boolean nextBoolean() {
+                return calls++ == block;
+            }
+        };
+    }
+
+    private Map<Long, ScheduleChromosome.CourseSchedule> lessonsOnDay(ScheduleChromosome chromosome, int day) {
+        Map<Long, ScheduleChromosome.CourseSchedule> lessons = new HashMap<>();
+        chromosome.getGenes().forEach((lesson, gene) -> {
+            if (problem.slotDay(gene.timeSlotId().intValue()) == day) {
+                lessons.put(lesson, gene);
+            }
+        });
+        return lessons;
+    }
+
+    /**
+     * 统计指定日期内同一时间段共用教师、教室或班级的节课对数
+     */
+    private int clashesOnDay(ScheduleChromosome chromosome, int day) {
+        var genes = List.copyOf(lessonsOnDay(chromosome, day).values());
+        int clashes = 0;
+        for (int i = 0; i < genes.size(); i++) {
+            for (int j = i + 1; j < genes.size(); j++) {
+                var a = genes.get(i);
+                var b = genes.get(j);
+                if (a.timeSlotId().equals(b.timeSlotId()) && (a.teacherId().equals(b.teacherId())
+                        || a.classroomId().equals(b.classroomId()) || a.classId().equals(b.classId()))) {
+                    clashes++;
+                }
+            }
+        }
+        return clashes;
+    }
+}
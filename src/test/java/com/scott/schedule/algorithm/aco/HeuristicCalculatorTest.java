@@ -0,0 +1,105 @@
+package com.scott.schedule.algorithm.aco;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HeuristicCalculator 单元测试类
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@DisplayName("启发式信息计算器测试")
+class HeuristicCalculatorTest {
+
+    @Test
+    @DisplayName("测试启发式价值 - 反映容量匹配、教师偏好、晚上时间段和分散程度")
+    void testHeuristicReflectsData() {
+        Course course = new Course();
+        course.setId("C1");
+        course.setTeacherId("T1");
+        course.setClassIds(List.of("K1"));
+        course.setHoursPerWeek(2);
+        course.setStudentCount(40);
+
+        Teacher teacher = new Teacher();
+        teacher.setId("T1");
+        teacher.setPreferredTimeSlots(List.of("S0", "S2"));
+
+        ScheduleProblem problem = ScheduleProblem.compile(List.of(course), List.of(teacher),
+                List.of(classroom("R0", 40), classroom("R1", 80)), createTimeSlots());
+        SparsePheromoneStore store = SparsePheromoneStore.build(problem);
+        float[] values = HeuristicCalculator.compute(problem, store);
+
+        // 第一节课的目标日为周一，第二节课为周二
+        assertTrue(value(store, values, 0, 0, 0) > value(store, values, 0, 0, 1), "容量更匹配的教室更优");
+        assertTrue(value(store, values, 0, 0, 0) > value(store, values, 0, 1, 0), "教师偏好的时间段更优");
+        assertTrue(value(store, values, 1, 2, 0) > value(store, values, 1, 3, 0), "白天优于晚上");
+        assertTrue(value(store, values, 1, 2, 0) > value(store, values, 1, 0, 0), "第二节课倾向于另一天");
+        for (float value : values) {
+            assertTrue(value >= 0.1f && value <= 1.0f);
+        }
+    }
+
+    @Test
+    @DisplayName("测试数据指纹 - 数据不变时相同，数据变化时不同")
+    void testFingerprintTracksData() {
+        Course course = new Course();
+        course.setId("C1");
+        course.setTeacherId("T1");
+        course.setHoursPerWeek(2);
+        course.setStudentCount(40);
+        Teacher teacher = new Teacher();
+        teacher.setId("T1");
+        List<Classroom> classrooms = List.of(classroom("R0", 40));
+
+        long first = ScheduleProblem.compile(List.of(course), List.of(teacher), classrooms, createTimeSlots())
+                .getFingerprint();
+        long second = ScheduleProblem.compile(List.of(course), List.of(teacher), classrooms, createTimeSlots())
+                .getFingerprint();
+        assertEquals(first, second);
+
+        teacher.setPreferredTimeSlots(List.of("S1"));
+        long changed = ScheduleProblem.compile(List.of(course), List.of(teacher), classrooms, createTimeSlots())
+                .getFingerprint();
+        assertNotEquals(first, changed);
+    }
+
+    private float value(SparsePheromoneStore store, float[] values, int lesson, int slot, int room) {
+        int candidate = store.find(lesson, slot, room);
+        assertTrue(candidate >= 0);
+        return values[candidate];
+    }
+
+    /**
+     * 两天各两个时间段，每天第二个时间段为晚上
+     */
+    private List<TimeSlot> createTimeSlots() {
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(i / 2 + 1);
+            timeSlot.setEvening(i % 2 == 1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+        return timeSlots;
+    }
+
+    private Classroom classroom(String id, int capacity) {
+        Classroom classroom = new Classroom();
+        classroom.setId(id);
+        classroom.setCapacity(capacity);
+        classroom.setType(ClassroomType.NORMAL);
+        classroom.setAvailable(true);
+        return classroom;
+    }
+}
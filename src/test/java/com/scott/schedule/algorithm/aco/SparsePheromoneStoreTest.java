@@ -0,0 +1,269 @@
+package com.scott.schedule.algorithm.aco;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SparsePheromoneStore 单元测试类
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@DisplayName("稀疏信息素表测试")
+class SparsePheromoneStoreTest {
+
+    @Test
+    @DisplayName("测试可行候选 - 排除类型不符、教师不可用和教室维护的组合")
+    void testOnlyFeasibleCandidates() {
+        Course lab = new Course();
+        lab.setId("C1");
+        lab.setTeacherId("T1");
+        lab.setClassIds(List.of("K1"));
+        lab.setHoursPerWeek(1);
+        lab.setStudentCount(30);
+        lab.setCourseType(CourseType.LAB);
+
+        Teacher teacher = new Teacher();
+        teacher.setId("T1");
+        teacher.setUnavailableTimeSlots(List.of("S0"));
+
+        List<Classroom> classrooms = new ArrayList<>();
+        classrooms.add(classroom("R0", ClassroomType.NORMAL, List.of()));
+        classrooms.add(classroom("R1", ClassroomType.LAB, List.of("S2")));
+        classrooms.add(classroom("R2", ClassroomType.COMPUTER_LAB, List.of()));
+
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+
+        ScheduleProblem problem = ScheduleProblem.compile(List.of(lab), List.of(teacher), classrooms, timeSlots);
+        SparsePheromoneStore store = SparsePheromoneStore.build(problem);
+
+        // 时间段 S1-S3 × 实验教室 R1、R2，去掉 R1 在 S2 的维护
+        assertEquals(5, store.size());
+        for (int candidate = store.start(0); candidate < store.end(0); candidate++) {
+            assertTrue(problem.isFeasible(0, store.slotAt(candidate), store.roomAt(candidate)));
+            assertEquals(candidate, store.find(0, store.slotAt(candidate), store.roomAt(candidate)));
+        }
+        assertEquals(-1, store.find(0, 2, 1));
+        assertEquals(-1, store.find(0, 1, 0));
+        assertEquals(-1, store.find(0, 0, 2));
+    }
+
+    @Test
+    @DisplayName("测试惰性挥发 - 与逐轮挥发并截断的结果一致")
+    void testLazyEvaporationMatchesEager() {
+        Course course = new Course();
+        course.setId("C1");
+        course.setTeacherId("T1");
+        course.setClassIds(List.of("K1"));
+        course.setHoursPerWeek(2);
+        course.setStudentCount(30);
+
+        Teacher teacher = new Teacher();
+        teacher.setId("T1");
+
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(i + 1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+        List<Classroom> classrooms = List.of(classroom("R0", ClassroomType.NORMAL, List.of()),
+                classroom("R1", ClassroomType.MULTIMEDIA, List.of()));
+
+        ScheduleProblem problem = ScheduleProblem.compile(List.of(course), List.of(teacher), classrooms, timeSlots);
+        SparsePheromoneStore store = SparsePheromoneStore.build(problem);
+        float min = 0.05f;
+        float max = 2.0f;
+        double rho = 0.2;
+        store.reset(0.5f, rho, min, max);
+
+        double[] eager = new double[store.size()];
+        Arrays.fill(eager, 0.5);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int iteration = 0; iteration < 60; iteration++) {
+            store.evaporate();
+            for (int c = 0; c < eager.length; c++) {
+                eager[c] = Math.max(min, eager[c] * (1 - rho));
+            }
+            if (iteration % 7 < 2) {
+                int candidate = random.nextInt(store.size());
+                store.deposit(candidate, 0.8);
+                eager[candidate] = Math.min(max, Math.max(min, eager[candidate]) + 0.8);
+            }
+
+            double mean = 0.0;
+            for (int c = 0; c < eager.length; c++) {
+                assertEquals(eager[c], store.pheromone(c), 1e-4);
+                mean += eager[c] / eager.length;
+            }
+            double variance = 0.0;
+            for (double value : eager) {
+                variance += (value - mean) * (value - mean) / eager.length;
+            }
+            assertEquals(mean, store.pheromoneMean(), 1e-4);
+            assertEquals(Math.sqrt(variance), store.pheromoneStandardDeviation(), 1e-3);
+        }
+    }
+
+    @Test
+    @DisplayName("测试候选列表采样 - 只采样权重最高的候选且频率与权重成正比")
+    void testCandidateSamplerMatchesWeights() {
+        Course course = new Course();
+        course.setId("C1");
+        course.setTeacherId("T1");
+        course.setClassIds(List.of("K1"));
+        course.setHoursPerWeek(1);
+        course.setStudentCount(30);
+
+        Teacher teacher = new Teacher();
+        teacher.setId("T1");
+
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(i + 1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+
+        ScheduleProblem problem = ScheduleProblem.compile(List.of(course), List.of(teacher),
+                List.of(classroom("R0", ClassroomType.NORMAL, List.of())), timeSlots);
+        SparsePheromoneStore store = SparsePheromoneStore.build(problem);
+        store.reset(1.0f, 0.1, 0.01f, Float.MAX_VALUE);
+        for (int candidate = 0; candidate < store.size(); candidate++) {
+            store.setHeuristic(candidate, 1.0f);
+        }
+        // 权重为 1、2、3、4、5、6，保留前3个即 4、5、6
+        for (int candidate = 0; candidate < store.size(); candidate++) {
+            store.deposit(candidate, candidate);
+        }
+
+        CandidateSampler sampler = new CandidateSampler(store, 3, 1.0, 2.0);
+        sampler.refresh();
+        int[] counts = new int[store.size()];
+        SplittableRandom random = new SplittableRandom(11);
+        int samples = 150_000;
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.sample(0, random)]++;
+        }
+
+        assertEquals(0, counts[0] + counts[1] + counts[2]);
+        for (int candidate = 3; candidate < 6; candidate++) {
+            assertEquals((candidate + 1) / 15.0, (double) counts[candidate] / samples, 0.01);
+        }
+
+        // 只有发生沉积并标记的节课才会重建
+        store.deposit(0, 1000.0);
+        sampler.refresh();
+        assertEquals(0, countSamples(sampler, random, 0, 1000));
+        sampler.markDirty(0);
+        sampler.refresh();
+        assertTrue(countSamples(sampler, random, 0, 1000) > 950);
+    }
+
+    @Test
+    @DisplayName("测试批量并行沉积 - 与逐个沉积的结果和统计量一致")
+    void testDepositAllMatchesSequentialDeposit() {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Course course = new Course();
+            course.setId("C" + i);
+            course.setTeacherId("T" + i);
+            course.setClassIds(List.of("K" + i));
+            course.setHoursPerWeek(3);
+            course.setStudentCount(30);
+            courses.add(course);
+        }
+        List<Teacher> teachers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Teacher teacher = new Teacher();
+            teacher.setId("T" + i);
+            teachers.add(teacher);
+        }
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(i + 1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+        List<Classroom> classrooms = List.of(classroom("R0", ClassroomType.NORMAL, List.of()),
+                classroom("R1", ClassroomType.MULTIMEDIA, List.of()));
+
+        ScheduleProblem problem = ScheduleProblem.compile(courses, teachers, classrooms, timeSlots);
+        SparsePheromoneStore batch = SparsePheromoneStore.build(problem);
+        SparsePheromoneStore sequential = SparsePheromoneStore.build(problem);
+        batch.reset(0.5f, 0.3, 0.05f, 3.0f);
+        sequential.reset(0.5f, 0.3, 0.05f, 3.0f);
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int iteration = 0; iteration < 30; iteration++) {
+            batch.evaporate();
+            sequential.evaporate();
+
+            // 沉积者较少，同一节课上经常选中相同候选
+            List<int[]> paths = new ArrayList<>();
+            double[] amounts = new double[4];
+            for (int k = 0; k < amounts.length; k++) {
+                int[] path = new int[problem.getLessonCount()];
+                for (int lesson = 0; lesson < path.length; lesson++) {
+                    path[lesson] = batch.start(lesson) + random.nextInt(3);
+                }
+                paths.add(path);
+                amounts[k] = 0.2 + random.nextDouble();
+            }
+            batch.depositAll(paths, amounts);
+            for (int k = 0; k < amounts.length; k++) {
+                for (int candidate : paths.get(k)) {
+                    sequential.deposit(candidate, amounts[k]);
+                }
+            }
+
+            for (int candidate = 0; candidate < batch.size(); candidate++) {
+                assertEquals(sequential.pheromone(candidate), batch.pheromone(candidate), 1e-5);
+            }
+            assertEquals(sequential.pheromoneMean(), batch.pheromoneMean(), 1e-6);
+            assertEquals(sequential.pheromoneStandardDeviation(), batch.pheromoneStandardDeviation(), 1e-5);
+        }
+    }
+
+    private int countSamples(CandidateSampler sampler, SplittableRandom random, int target, int samples) {
+        int count = 0;
+        for (int i = 0; i < samples; i++) {
+            if (sampler.sample(0, random) == target) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Classroom classroom(String id, ClassroomType type, List<String> maintenance) {
+        Classroom classroom = new Classroom();
+        classroom.setId(id);
+        classroom.setCapacity(40);
+        classroom.setType(type);
+        classroom.setAvailable(true);
+        classroom.setMaintenanceTimeSlots(maintenance);
+        return classroom;
+    }
+}
@@ -0,0 +1,70 @@
+package com.scott.schedule.algorithm.csp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BitsetDomains 单元测试类
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@DisplayName("位集合变量域测试")
+class BitsetDomainsTest {
+
+    @Test
+    @DisplayName("测试删除和恢复 - 域大小随之更新，重复操作不改变大小")
+    void testRemoveAndRestore() {
+        BitsetDomains domains = new BitsetDomains(new int[]{5, 3});
+
+        assertEquals(5, domains.size(0));
+        assertTrue(domains.remove(0, 2));
+        assertFalse(domains.remove(0, 2));
+        assertFalse(domains.contains(0, 2));
+        assertEquals(4, domains.size(0));
+        assertEquals(3, domains.size(1));
+
+        domains.restore(0, 2);
+        domains.restore(0, 2);
+        assertTrue(domains.contains(0, 2));
+        assertEquals(5, domains.size(0));
+
+        for (int value = 0; value < 3; value++) {
+            domains.remove(1, value);
+        }
+        assertTrue(domains.isEmpty(1));
+        assertEquals(-1, domains.next(1, 0));
+    }
+
+    @Test
+    @DisplayName("测试跨字遍历 - 超过64个值时按升序跳过已删除的值")
+    void testIterateAcrossWords() {
+        BitsetDomains domains = new BitsetDomains(new int[]{2, 150, 1});
+        for (int value = 0; value < 150; value++) {
+            if (value != 3 && value != 64 && value != 149) {
+                domains.remove(1, value);
+            }
+        }
+
+        assertArrayEquals(new int[]{3, 64, 149}, domains.values(1));
+        assertEquals(64, domains.next(1, 4));
+        assertEquals(-1, domains.next(1, 150));
+        // 相邻变量的位不受影响
+        assertArrayEquals(new int[]{0, 1}, domains.values(0));
+        assertArrayEquals(new int[]{0}, domains.values(2));
+    }
+
+    @Test
+    @DisplayName("测试复制 - 副本与原域互不影响")
+    void testCopyIsIndependent() {
+        BitsetDomains domains = new BitsetDomains(new int[]{4});
+        BitsetDomains copy = new BitsetDomains(domains);
+
+        copy.remove(0, 1);
+        assertTrue(domains.contains(0, 1));
+        assertEquals(4, domains.size(0));
+        assertEquals(3, copy.size(0));
+    }
+}
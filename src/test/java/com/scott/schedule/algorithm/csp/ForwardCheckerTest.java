@@ -0,0 +1,156 @@
+package com.scott.schedule.algorithm.csp;
+
+import com.scott.schedule.algorithm.ScheduleProblem;
+import com.scott.schedule.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ForwardChecker 单元测试类
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@DisplayName("前向检查测试")
+class ForwardCheckerTest {
+
+    /**
+     * 课程 C0、C1 由教师 T1 任教，C2 由教师 T2 任教，每门课1节，2个时间段、2间教室
+     * 再加一门 T1 的课时，T1 的3节课无法放进2个时间段
+     */
+    private ScheduleProblem createProblem(int teacherOneCourses) {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < teacherOneCourses; i++) {
+            courses.add(course("C" + i, "T1", "K" + i));
+        }
+        courses.add(course("C" + teacherOneCourses, "T2", "K" + teacherOneCourses));
+
+        List<Teacher> teachers = new ArrayList<>();
+        for (String id : List.of("T1", "T2")) {
+            Teacher teacher = new Teacher();
+            teacher.setId(id);
+            teachers.add(teacher);
+        }
+
+        List<Classroom> classrooms = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Classroom classroom = new Classroom();
+            classroom.setId("R" + i);
+            classroom.setCapacity(40);
+            classroom.setType(ClassroomType.NORMAL);
+            classroom.setAvailable(true);
+            classroom.setMaintenanceTimeSlots(List.of());
+            classrooms.add(classroom);
+        }
+
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId("S" + i);
+            timeSlot.setDayNumber(1);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlot);
+        }
+        return ScheduleProblem.compile(courses, teachers, classrooms, timeSlots);
+    }
+
+    private Course course(String id, String teacherId, String classId) {
+        Course course = new Course();
+        course.setId(id);
+        course.setTeacherId(teacherId);
+        course.setClassIds(List.of(classId));
+        course.setHoursPerWeek(1);
+        course.setStudentCount(30);
+        return course;
+    }
+
+    /**
+     * 直接在位集合上删除的变量域，测试中不需要撤销
+     */
+    private TrailedDomains domainsOf(CspModel model) {
+        BitsetDomains domains = new BitsetDomains(model.valueCounts());
+        return new TrailedDomains() {
+            @Override
+            public int size(int variable) {
+                return domains.size(variable);
+            }
+
+            @Override
+            public boolean contains(int variable, int value) {
+                return domains.contains(variable, value);
+            }
+
+            @Override
+            public int next(int variable, int from) {
+                return domains.next(variable, from);
+            }
+
+            @Override
+            public int assignment(int variable) {
+                // 前向检查只读取域，不读取赋值
+                return -1;
+            }
+
+            @Override
+            public boolean remove(int variable, int value, int reason) {
+                return domains.remove(variable, value);
+            }
+
+            @Override
+            public boolean remove(int variable, int value, int[] reasons) {
+                return domains.remove(variable, value);
+            }
+        };
+    }
+
+    /**
+     * 与搜索状态一样，赋值时先把变量的域缩小为该值，再进行前向检查
+     */
+    private boolean assign(ForwardChecker checker, TrailedDomains domains, int variable, int value) {
+        for (int other = domains.next(variable, 0); other >= 0; other = domains.next(variable, other + 1)) {
+            if (other != value) {
+                domains.remove(variable, other, variable);
+            }
+        }
+        return checker.check(domains, variable, value);
+    }
+
+    @Test
+    @DisplayName("测试删除冲突值 - 同一教师删除整个时间段，其他节课只删除同一教室")
+    void testPrunesNeighbours() {
+        ScheduleProblem problem = createProblem(2);
+        CspModel model = CspModel.build(problem);
+        ForwardChecker checker = new ForwardChecker(ConstraintGraph.build(model));
+        TrailedDomains domains = domainsOf(model);
+
+        assertTrue(assign(checker, domains, 0, model.valueOf(0, 0, 0)));
+        assertEquals(2, domains.size(1));
+        assertFalse(domains.contains(1, model.valueOf(1, 0, 1)));
+        assertEquals(3, domains.size(2));
+        assertFalse(domains.contains(2, model.valueOf(2, 0, 0)));
+        assertTrue(domains.contains(2, model.valueOf(2, 0, 1)));
+
+        assertTrue(assign(checker, domains, 1, model.valueOf(1, 1, 0)));
+        assertEquals(2, domains.size(2));
+        assertFalse(domains.contains(2, model.valueOf(2, 1, 0)));
+        assertEquals(4, checker.getPrunedValues());
+    }
+
+    @Test
+    @DisplayName("测试域删空 - 同一教师的第三节课没有时间段时立即失败")
+    void testDetectsWipeOut() {
+        ScheduleProblem problem = createProblem(3);
+        CspModel model = CspModel.build(problem);
+        ForwardChecker checker = new ForwardChecker(ConstraintGraph.build(model));
+        TrailedDomains domains = domainsOf(model);
+
+        assertTrue(assign(checker, domains, 0, model.valueOf(0, 0, 0)));
+        assertFalse(assign(checker, domains, 1, model.valueOf(1, 1, 0)));
+        assertEquals(0, domains.size(2));
+    }
+}
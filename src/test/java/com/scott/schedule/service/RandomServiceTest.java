@@ -0,0 +1,85 @@
+package com.scott.schedule.service;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.impl.RandomMutationOperator;
+import com.scott.schedule.algorithm.impl.TournamentSelectionOperator;
+import com.scott.schedule.algorithm.impl.UniformCrossoverOperator;
+import com.scott.schedule.config.RandomConfig;
+import com.scott.schedule.model.ScheduleResult;
+import com.scott.schedule.utils.RandomStreams;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RandomService 单元测试类
+ * 验证配置相同种子时两次运行生成相同的排课方案
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@DisplayName("随机数服务测试")
+class RandomServiceTest {
+
+    private final TournamentSelectionOperator selectionOperator = new TournamentSelectionOperator();
+    private final UniformCrossoverOperator crossoverOperator = new UniformCrossoverOperator();
+    private final RandomMutationOperator mutationOperator = new RandomMutationOperator();
+
+    private RandomService createService(Long seed) {
+        RandomConfig config = new RandomConfig();
+        config.setSeed(seed);
+        return new RandomService(config);
+    }
+
+    /**
+     * 用一次运行的随机数流初始化种群并进化若干代
+     *
+     * @param streams 本次运行的随机数流集合
+     * @return 最终种群中每个个体的基因
+     */
+    private List<Map<Long, ScheduleChromosome.CourseSchedule>> evolve(RandomStreams streams) {
+        RandomGenerator random = streams.stream("genetic");
+        List<ScheduleChromosome> population = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ScheduleChromosome chromosome = new ScheduleChromosome();
+            chromosome.randomize(random);
+            population.add(chromosome);
+        }
+        for (int generation = 0; generation < 10; generation++) {
+            population = crossoverOperator.crossover(selectionOperator.select(population, random), random);
+            mutationOperator.mutate(population, random);
+        }
+        return population.stream().map(ScheduleChromosome::getGenes).toList();
+    }
+
+    @Test
+    @DisplayName("测试相同种子 - 两次运行生成相同的排课方案")
+    void testSameSeedReproducesSchedules() {
+        RandomService randomService = createService(42L);
+        RandomStreams first = randomService.newRun();
+        RandomStreams second = randomService.newRun();
+
+        assertEquals(42L, first.getSeed());
+        assertEquals(first.getSeed(), second.getSeed());
+        assertEquals(evolve(first), evolve(second));
+        assertNotEquals(evolve(first), evolve(createService(43L).newRun()));
+    }
+
+    @Test
+    @DisplayName("测试未配置种子 - 每次运行随机生成种子，并可记录到排课结果")
+    void testRandomSeedIsRecorded() {
+        RandomStreams streams = createService(null).newRun();
+
+        ScheduleResult result = new ScheduleResult();
+        streams.recordTo(result);
+
+        assertEquals(streams.getSeed(), result.getAlgorithmParameters().get(RandomStreams.SEED_PARAMETER));
+        assertEquals(evolve(streams), evolve(RandomStreams.of(streams.getSeed())));
+    }
+}
@@ -0,0 +1,124 @@
+package com.scott.schedule.service.impl;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.TimetableEvaluator;
+import com.scott.schedule.algorithm.impl.HillClimbingLocalSearch;
+import com.scott.schedule.config.AntColonyConfig;
+import com.scott.schedule.config.RandomConfig;
+import com.scott.schedule.service.DataService;
+import com.scott.schedule.service.RandomService;
+import com.scott.schedule.service.ScheduleProblemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static com.scott.schedule.ScheduleTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * AntColonyScheduler 单元测试类
+ * 使用小规模真实数据验证蚂蚁构建、信息素更新和最优解记录
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("蚁群算法排课服务测试")
+class AntColonySchedulerTest {
+
+    @Mock
+    private DataService dataService;
+
+    private AntColonyConfig config;
+
+    private ScheduleProblemService problemService;
+
+    private RandomService randomService;
+
+    @BeforeEach
+    void setUp() {
+        when(dataService.getAllCourses()).thenReturn(createCourses());
+        when(dataService.getAllTeachers()).thenReturn(createTeachers());
+        when(dataService.getAllClassrooms()).thenReturn(createClassrooms());
+        when(dataService.getAllTimeSlots()).thenReturn(createTimeSlots(10));
+
+        config = new AntColonyConfig();
+        config.setAntCount(10);
+        config.setMaxIterations(30);
+        config.setEliteAntCount(3);
+
+        RandomConfig randomConfig = new RandomConfig();
+        randomConfig.setSeed(20250829L);
+        randomService = new RandomService(randomConfig);
+        problemService = new ScheduleProblemService(dataService);
+    }
+
+    @Test
+    @DisplayName("测试蚁群排课 - 按真实数据构建完整课表")
+    void testScheduleBuildsCompleteTimetable() {
+        AntColonyScheduler scheduler = new AntColonyScheduler(config, randomService, problemService,
+                new HillClimbingLocalSearch());
+        scheduler.schedule();
+
+        ScheduleChromosome best = scheduler.getBestSolution();
+        assertNotNull(best);
+        assertNotNull(best.getProblem());
+        assertEquals(14, best.getGenes().size());
+        assertEquals(TimetableEvaluator.of(best.getProblem(), best).getViolations(), best.getConstraintViolations());
+        assertEquals(0, best.getConstraintViolations());
+    }
+
+    @Test
+    @DisplayName("测试蚁群排课 - 相同种子结果可复现")
+    void testScheduleIsReproducible() {
+        AntColonyScheduler first = new AntColonyScheduler(config, randomService, problemService,
+                new HillClimbingLocalSearch());
+        first.schedule();
+        AntColonyScheduler second = new AntColonyScheduler(config, randomService, problemService,
+                new HillClimbingLocalSearch());
+        second.schedule();
+
+        assertEquals(first.getBestSolution().getGenes(), second.getBestSolution().getGenes());
+    }
+
+    @Test
+    @DisplayName("测试蚂蚁局部搜索 - 同一轮构建的解经局部搜索后不会变差")
+    void testLocalSearchNeverWorsensAnts() {
+        config.setMaxIterations(1);
+        config.setLocalSearchProbability(0.0);
+        AntColonyScheduler plain = new AntColonyScheduler(config, randomService, problemService,
+                new HillClimbingLocalSearch());
+        plain.schedule();
+
+        config.setLocalSearchProbability(1.0);
+        config.setLocalSearchBudget(200);
+        AntColonyScheduler improved = new AntColonyScheduler(config, randomService, problemService,
+                new HillClimbingLocalSearch());
+        improved.schedule();
+
+        ScheduleChromosome best = improved.getBestSolution();
+        assertTrue(best.getConstraintViolations() <= plain.getBestSolution().getConstraintViolations());
+        assertEquals(TimetableEvaluator.of(best.getProblem(), best).getViolations(), best.getConstraintViolations());
+    }
+
+    @Test
+    @DisplayName("测试多蚁群 - 各蚁群独立运行并交换全局最优解")
+    void testMultiColonyFindsFeasibleTimetable() {
+        config.setColonyCount(3);
+        config.setColonyExchangeInterval(2);
+        config.setEliteAntCount(1);
+        AntColonyScheduler scheduler = new AntColonyScheduler(config, randomService, problemService,
+                new HillClimbingLocalSearch());
+        scheduler.schedule();
+
+        ScheduleChromosome best = scheduler.getBestSolution();
+        assertNotNull(best);
+        assertEquals(14, best.getGenes().size());
+        assertEquals(TimetableEvaluator.of(best.getProblem(), best).getViolations(), best.getConstraintViolations());
+        assertEquals(0, best.getConstraintViolations());
+    }
+}
@@ -0,0 +1,372 @@
+package com.scott.schedule.service.impl;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.TimetableEvaluator;
+import com.scott.schedule.algorithm.csp.CspModel;
+import com.scott.schedule.algorithm.csp.SoftConstraintCost;
+import com.scott.schedule.common.enums.ConstraintPropagationType;
+import com.scott.schedule.common.enums.RestartStrategy;
+import com.scott.schedule.common.enums.SearchStrategy;
+import com.scott.schedule.config.BacktrackingConfig;
+import com.scott.schedule.config.RandomConfig;
+import com.scott.schedule.model.Classroom;
+import com.scott.schedule.model.Course;
+import com.scott.schedule.model.Teacher;
+import com.scott.schedule.service.DataService;
+import com.scott.schedule.service.RandomService;
+import com.scott.schedule.service.ScheduleProblemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.scott.schedule.ScheduleTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * BacktrackingScheduler 单元测试类
+ * 使用小规模真实数据验证回溯搜索得到的课表满足所有硬约束
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("回溯算法排课服务测试")
+class BacktrackingSchedulerTest {
+
+    @Mock
+    private DataService dataService;
+
+    private BacktrackingConfig config;
+
+    private ScheduleProblemService problemService;
+
+    private RandomService randomService;
+
+    @BeforeEach
+    void setUp() {
+        config = new BacktrackingConfig();
+        problemService = new ScheduleProblemService(dataService);
+        RandomConfig randomConfig = new RandomConfig();
+        randomConfig.setSeed(20250829L);
+        randomService = new RandomService(randomConfig);
+    }
+
+    private void stubData(List<Course> courses, int slotCount) {
+        when(dataService.getAllCourses()).thenReturn(courses);
+        when(dataService.getAllTeachers()).thenReturn(createTeachers());
+        when(dataService.getAllClassrooms()).thenReturn(createClassrooms());
+        when(dataService.getAllTimeSlots()).thenReturn(createTimeSlots(slotCount));
+    }
+
+    /**
+     * 使用4间类型、容量和设备完全相同的教室
+     */
+    private void stubIdenticalRooms(List<Course> courses, int slotCount) {
+        List<Classroom> classrooms = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Classroom classroom = new Classroom();
+            classroom.setId("R" + i);
+            classroom.setCapacity(80);
+            classroom.setEquipment(List.of("投影仪"));
+            classroom.setAvailable(true);
+            classrooms.add(classroom);
+        }
+        when(dataService.getAllCourses()).thenReturn(courses);
+        when(dataService.getAllTeachers()).thenReturn(createTeachers());
+        when(dataService.getAllClassrooms()).thenReturn(classrooms);
+        when(dataService.getAllTimeSlots()).thenReturn(createTimeSlots(slotCount));
+    }
+
+    private void assertConflictFree(ScheduleChromosome best, int lessonCount) {
+        assertNotNull(best);
+        assertNotNull(best.getProblem());
+        assertEquals(lessonCount, best.getGenes().size());
+        assertEquals(0, TimetableEvaluator.of(best.getProblem(), best).getViolations());
+        assertEquals(0, best.getConstraintViolations());
+    }
+
+    @Test
+    @DisplayName("测试回溯排课 - 找到满足所有硬约束的完整课表")
+    void testFindsConflictFreeTimetable() {
+        stubData(createCourses(), 10);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+        scheduler.schedule();
+
+        assertConflictFree(scheduler.getBestSolution(), 14);
+    }
+
+    @Test
+    @DisplayName("测试回溯排课 - 同一实例多次运行结果一致")
+    void testRunsRepeatedly() {
+        stubData(createCourses(), 10);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+        scheduler.schedule();
+        ScheduleChromosome first = scheduler.getBestSolution();
+        scheduler.schedule();
+
+        assertConflictFree(scheduler.getBestSolution(), 14);
+        assertEquals(first.getGenes(), scheduler.getBestSolution().getGenes());
+    }
+
+    @Test
+    @DisplayName("测试约束传播类型 - 每种传播都得到无冲突课表，AC-3与AC-4的结果相同")
+    void testPropagationTypes() {
+        stubData(createCourses(), 10);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        List<ScheduleChromosome> solutions = new ArrayList<>();
+        for (ConstraintPropagationType type : ConstraintPropagationType.values()) {
+            config.setConstraintPropagationType(type);
+            scheduler.schedule();
+            assertConflictFree(scheduler.getBestSolution(), 14);
+            solutions.add(scheduler.getBestSolution());
+        }
+
+        // AC-3与AC-4得到相同的弧一致闭包，确定性的搜索顺序下搜索树完全相同
+        assertEquals(solutions.get(ConstraintPropagationType.AC3.ordinal()).getGenes(),
+                solutions.get(ConstraintPropagationType.AC4.ordinal()).getGenes());
+    }
+
+    @Test
+    @DisplayName("测试回跳和学习 - 有无前向检查都得到无冲突课表")
+    void testBackjumpingAndLearning() {
+        stubData(createCourses(), 10);
+        config.setEnableBackjumping(true);
+        config.setEnableLearning(true);
+        config.setMaxLearnedClauses(2);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        for (boolean forwardChecking : new boolean[]{true, false}) {
+            config.setEnableForwardChecking(forwardChecking);
+            config.setConstraintPropagationType(forwardChecking
+                    ? ConstraintPropagationType.AC3 : ConstraintPropagationType.NONE);
+            scheduler.schedule();
+            assertConflictFree(scheduler.getBestSolution(), 14);
+        }
+    }
+
+    @Test
+    @DisplayName("测试重启 - 随机化值顺序下每种重启策略都得到无冲突课表")
+    void testRestarts() {
+        stubData(createCourses(), 10);
+        config.setEnableRestart(true);
+        config.setRestartInterval(1);
+        config.setEnableRandomization(true);
+        config.setRandomizationProbability(0.5);
+        config.setEnableLearning(true);
+        config.setEnableForwardChecking(false);
+        config.setConstraintPropagationType(ConstraintPropagationType.NONE);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        for (RestartStrategy strategy : RestartStrategy.values()) {
+            config.setRestartStrategy(strategy);
+            scheduler.schedule();
+            assertConflictFree(scheduler.getBestSolution(), 14);
+        }
+    }
+
+    @Test
+    @DisplayName("测试重启策略 - Luby序列与几何增长的失败上限")
+    void testRestartLimits() {
+        long[] luby = new long[15];
+        for (int i = 0; i < luby.length; i++) {
+            luby[i] = RestartStrategy.LUBY.failureLimit(i + 1, 10, 1.5) / 10;
+        }
+        assertArrayEquals(new long[]{1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8}, luby);
+
+        assertEquals(100, RestartStrategy.GEOMETRIC.failureLimit(1, 100, 1.5));
+        assertEquals(225, RestartStrategy.GEOMETRIC.failureLimit(3, 100, 1.5));
+    }
+
+    @Test
+    @DisplayName("测试并行搜索 - 每种约束传播下都得到无冲突课表")
+    void testParallelSearch() {
+        stubData(createCourses(), 10);
+        config.setEnableParallelSearch(true);
+        config.setParallelism(4);
+        config.setParallelTasksPerThread(4);
+        config.setEnableBackjumping(true);
+        config.setEnableLearning(true);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        for (ConstraintPropagationType type : ConstraintPropagationType.values()) {
+            config.setConstraintPropagationType(type);
+            scheduler.schedule();
+            assertConflictFree(scheduler.getBestSolution(), 14);
+        }
+
+        // 配额少于一个变量的值数时，多个值合并到同一个任务中依次尝试
+        config.setParallelism(2);
+        config.setParallelTasksPerThread(1);
+        scheduler.schedule();
+        assertConflictFree(scheduler.getBestSolution(), 14);
+    }
+
+    @Test
+    @DisplayName("测试并行搜索 - 无解时所有任务穷举完毕后返回")
+    void testParallelSearchProvesInfeasibility() {
+        List<Course> courses = new ArrayList<>();
+        courses.add(course("C1", "T2", "K2", 1, 30));
+        courses.add(course("C2", "T3", "K3", 1, 30));
+        courses.add(course("C3", "T1", "K1", 5, 40));
+        stubData(courses, 4);
+        config.setEnableParallelSearch(true);
+        config.setParallelism(4);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        scheduler.schedule();
+
+        assertNull(scheduler.getBestSolution());
+    }
+
+    @Test
+    @DisplayName("测试对称破缺 - 等价教室和同一课程的节课下得到无冲突课表，节课按时间段递增")
+    void testSymmetryBreaking() {
+        stubIdenticalRooms(createCourses(), 10);
+        config.setEnableSymmetryBreaking(true);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        for (boolean forwardChecking : new boolean[]{true, false}) {
+            config.setEnableForwardChecking(forwardChecking);
+            config.setEnableBackjumping(!forwardChecking);
+            config.setEnableLearning(!forwardChecking);
+            config.setConstraintPropagationType(forwardChecking
+                    ? ConstraintPropagationType.AC4 : ConstraintPropagationType.NONE);
+            scheduler.schedule();
+
+            ScheduleChromosome best = scheduler.getBestSolution();
+            assertConflictFree(best, 14);
+            for (int lesson = 1; lesson < 14; lesson++) {
+                if (best.getProblem().previousIdenticalLesson(lesson) == lesson - 1) {
+                    assertTrue(best.getGenes().get(lesson - 1L).timeSlotId() < best.getGenes().get((long) lesson).timeSlotId());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("测试对称破缺 - 相同的教室属于同一等价类，无解时仍然证明无解")
+    void testSymmetryBreakingProvesInfeasibility() {
+        // 教师T1的5节课只有4个时间段可用，4间教室完全相同
+        stubIdenticalRooms(List.of(course("C1", "T1", "K1", 5, 40)), 4);
+        config.setEnableSymmetryBreaking(true);
+        config.setEnableForwardChecking(false);
+        config.setConstraintPropagationType(ConstraintPropagationType.NONE);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        scheduler.schedule();
+
+        assertNull(scheduler.getBestSolution());
+        for (int room = 0; room < 4; room++) {
+            assertEquals(0, problemService.getProblem().roomClass(room));
+        }
+    }
+
+    @Test
+    @DisplayName("测试分支定界 - 找到软约束代价最小的课表")
+    void testBranchAndBound() {
+        // 教师T1的5节课只有1节能排在偏好的S0，其余课程都能分散到不同的日子，最优代价为4
+        List<Teacher> teachers = createTeachers();
+        teachers.get(0).setPreferredTimeSlots(List.of("S0"));
+        when(dataService.getAllCourses()).thenReturn(createCourses());
+        when(dataService.getAllTeachers()).thenReturn(teachers);
+        when(dataService.getAllClassrooms()).thenReturn(createClassrooms());
+        when(dataService.getAllTimeSlots()).thenReturn(createTimeSlots(10));
+        config.setEnableBranchAndBound(true);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            config.setEnableParallelSearch(parallel);
+            config.setParallelism(2);
+            config.setEnableSymmetryBreaking(parallel);
+            scheduler.schedule();
+
+            ScheduleChromosome best = scheduler.getBestSolution();
+            assertConflictFree(best, 14);
+            int[] slots = new int[14];
+            for (int lesson = 0; lesson < slots.length; lesson++) {
+                slots[lesson] = best.getGenes().get((long) lesson).timeSlotId().intValue();
+            }
+            SoftConstraintCost cost = new SoftConstraintCost(CspModel.build(best.getProblem()), 1.0, 1.0);
+            assertEquals(4.0, cost.cost(slots), 1e-9);
+            assertTrue(scheduler.isOptimumProven());
+        }
+
+        // 限制深度搜索截断了分支，找到的解不能算作已证明最优
+        config.setEnableParallelSearch(false);
+        config.setSearchStrategy(SearchStrategy.DEPTH_LIMITED);
+        config.setMaxSearchDepth(1);
+        scheduler.schedule();
+        assertFalse(scheduler.isOptimumProven());
+    }
+
+    @Test
+    @DisplayName("测试搜索策略 - 每种搜索策略都得到无冲突课表")
+    void testSearchStrategies() {
+        stubData(createCourses(), 10);
+        config.setMaxSearchDepth(14);
+        config.setBreadthFirstFrontierLimit(50);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        for (SearchStrategy strategy : SearchStrategy.values()) {
+            config.setSearchStrategy(strategy);
+            scheduler.schedule();
+
+            assertConflictFree(scheduler.getBestSolution(), 14);
+        }
+    }
+
+    @Test
+    @DisplayName("测试搜索策略 - 迭代加深、有限差异和宽度优先搜索在无解时放宽到完整搜索后结束")
+    void testSearchStrategiesProveInfeasibility() {
+        List<Course> courses = new ArrayList<>();
+        courses.add(course("C1", "T2", "K2", 1, 30));
+        courses.add(course("C2", "T3", "K3", 1, 30));
+        courses.add(course("C3", "T1", "K1", 5, 40));
+        stubData(courses, 4);
+        config.setEnableForwardChecking(false);
+        config.setConstraintPropagationType(ConstraintPropagationType.NONE);
+        config.setEnableBackjumping(true);
+        config.setEnableLearning(true);
+        config.setMaxSearchDepth(1);
+        config.setBreadthFirstFrontierLimit(3);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        for (SearchStrategy strategy : SearchStrategy.values()) {
+            config.setSearchStrategy(strategy);
+            long start = System.currentTimeMillis();
+            scheduler.schedule();
+
+            assertNull(scheduler.getBestSolution());
+            assertTrue(System.currentTimeMillis() - start < config.getMaxSearchTimeSeconds() * 1000L,
+                    strategy + " 应在穷举后结束");
+        }
+    }
+
+    @Test
+    @DisplayName("测试回跳和学习 - 无解时冲突集最终为空，搜索在时间限制内结束")
+    void testBackjumpingProvesInfeasibility() {
+        // 教师T1的5节课只有4个时间段可用
+        List<Course> courses = new ArrayList<>();
+        courses.add(course("C1", "T2", "K2", 1, 30));
+        courses.add(course("C2", "T3", "K3", 1, 30));
+        courses.add(course("C3", "T1", "K1", 5, 40));
+        stubData(courses, 4);
+        config.setEnableBackjumping(true);
+        config.setEnableLearning(true);
+        BacktrackingScheduler scheduler = new BacktrackingScheduler(config, problemService, randomService);
+
+        long start = System.currentTimeMillis();
+        scheduler.schedule();
+
+        assertNull(scheduler.getBestSolution());
+        assertTrue(System.currentTimeMillis() - start < config.getMaxSearchTimeSeconds() * 1000L);
+    }
+}
@@ -0,0 +1,100 @@
+package com.scott.schedule.service.impl;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.TimetableEvaluator;
+import com.scott.schedule.algorithm.impl.*;
+import com.scott.schedule.config.AntColonyConfig;
+import com.scott.schedule.config.GeneticAlgorithmConfig;
+import com.scott.schedule.config.RandomConfig;
+import com.scott.schedule.service.DataService;
+import com.scott.schedule.service.RandomService;
+import com.scott.schedule.service.ScheduleProblemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.scott.schedule.ScheduleTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * HybridScheduler 单元测试类
+ * 验证遗传算法、蚁群算法、局部搜索三个阶段之间的结果传递
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("混合算法排课服务测试")
+class HybridSchedulerTest {
+
+    @Mock
+    private DataService dataService;
+
+    private HybridScheduler scheduler;
+
+    private GeneticClassScheduler geneticScheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(dataService.getAllCourses()).thenReturn(createCourses());
+        when(dataService.getAllTeachers()).thenReturn(createTeachers());
+        when(dataService.getAllClassrooms()).thenReturn(createClassrooms());
+        when(dataService.getAllTimeSlots()).thenReturn(createTimeSlots(10));
+
+        RandomConfig randomConfig = new RandomConfig();
+        randomConfig.setSeed(20250829L);
+        RandomService randomService = new RandomService(randomConfig);
+        ScheduleProblemService problemService = new ScheduleProblemService(dataService);
+        HillClimbingLocalSearch localSearch = new HillClimbingLocalSearch();
+
+        GeneticAlgorithmConfig geneticConfig = new GeneticAlgorithmConfig();
+        geneticConfig.setPopulationSize(10);
+        geneticConfig.setMaxGenerations(2);
+        geneticScheduler = new GeneticClassScheduler(geneticConfig, new DefaultFitnessCalculator(),
+                new TournamentSelectionOperator(geneticConfig),
+                List.of(new UniformCrossoverOperator(geneticConfig)), new BitsetRepairOperator(),
+                new RandomMutationOperator(geneticConfig), randomService, localSearch, problemService);
+
+        AntColonyConfig antColonyConfig = new AntColonyConfig();
+        antColonyConfig.setAntCount(10);
+        antColonyConfig.setMaxIterations(10);
+        antColonyConfig.setEliteAntCount(3);
+        AntColonyScheduler antColonyScheduler = new AntColonyScheduler(antColonyConfig, randomService,
+                problemService, localSearch);
+
+        scheduler = new HybridScheduler(geneticScheduler, antColonyScheduler, localSearch, randomService);
+    }
+
+    @Test
+    @DisplayName("测试混合流程 - 各阶段结果依次传递且不劣于遗传算法")
+    void testPipelineHandsOffSolutions() {
+        scheduler.schedule();
+
+        ScheduleChromosome best = scheduler.getBestSolution();
+        assertNotNull(best);
+        assertNotNull(best.getProblem());
+        assertEquals(14, best.getGenes().size());
+        assertEquals(TimetableEvaluator.of(best.getProblem(), best).getViolations(), best.getConstraintViolations());
+        assertTrue(best.getFitness() >= geneticScheduler.getBestSolution().getFitness());
+
+        HybridScheduler.PerformanceStats stats = scheduler.getPerformanceStats();
+        assertTrue(stats.getTotalIterations() > 0);
+        assertTrue(stats.getFinalFitness() >= stats.getInitialFitness());
+        assertEquals(best.getFitness(), stats.getFinalFitness(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("测试混合流程 - 同一实例可以多次运行")
+    void testPipelineRunsRepeatedly() {
+        scheduler.schedule();
+        scheduler.schedule();
+
+        assertNotNull(scheduler.getBestSolution());
+    }
+}
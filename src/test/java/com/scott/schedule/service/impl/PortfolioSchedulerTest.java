@@ -0,0 +1,111 @@
+package com.scott.schedule.service.impl;
+
+import com.scott.schedule.algorithm.ScheduleChromosome;
+import com.scott.schedule.algorithm.TimetableEvaluator;
+import com.scott.schedule.algorithm.impl.*;
+import com.scott.schedule.config.*;
+import com.scott.schedule.model.Course;
+import com.scott.schedule.service.DataService;
+import com.scott.schedule.service.RandomService;
+import com.scott.schedule.service.ScheduleProblemService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.scott.schedule.ScheduleTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * PortfolioScheduler 单元测试类
+ * 验证多个算法在同一问题上竞速、共享最优解以及取消机制
+ *
+ * @author mazhenpeng02
+ * @since 2025/8/29
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("算法竞速排课服务测试")
+class PortfolioSchedulerTest {
+
+    @Mock
+    private DataService dataService;
+
+    private PortfolioConfig portfolioConfig;
+
+    private PortfolioScheduler createScheduler(List<Course> courses) {
+        when(dataService.getAllCourses()).thenReturn(courses);
+        when(dataService.getAllTeachers()).thenReturn(createTeachers());
+        when(dataService.getAllClassrooms()).thenReturn(createClassrooms());
+        when(dataService.getAllTimeSlots()).thenReturn(createTimeSlots(10));
+
+        RandomConfig randomConfig = new RandomConfig();
+        randomConfig.setSeed(20250829L);
+        RandomService randomService = new RandomService(randomConfig);
+        ScheduleProblemService problemService = new ScheduleProblemService(dataService);
+        HillClimbingLocalSearch localSearch = new HillClimbingLocalSearch();
+
+        GeneticAlgorithmConfig geneticConfig = new GeneticAlgorithmConfig();
+        geneticConfig.setPopulationSize(20);
+        GeneticClassScheduler geneticScheduler = new GeneticClassScheduler(geneticConfig, new DefaultFitnessCalculator(),
+                new TournamentSelectionOperator(geneticConfig),
+                List.of(new UniformCrossoverOperator(geneticConfig)), new BitsetRepairOperator(),
+                new RandomMutationOperator(geneticConfig), randomService, localSearch, problemService);
+
+        AntColonyConfig antColonyConfig = new AntColonyConfig();
+        antColonyConfig.setAntCount(10);
+        antColonyConfig.setEliteAntCount(3);
+        AntColonyScheduler antColonyScheduler = new AntColonyScheduler(antColonyConfig, randomService,
+                problemService, localSearch);
+
+        portfolioConfig = new PortfolioConfig();
+        return new PortfolioScheduler(portfolioConfig, problemService,
+                new GreedyScheduler(new GreedyConfig(), dataService, randomService),
+                geneticScheduler, antColonyScheduler,
+                new BacktrackingScheduler(new BacktrackingConfig(), problemService, randomService));
+    }
+
+    @Test
+    @DisplayName("测试算法竞速 - 找到无冲突解后取消其余算法")
+    void testRaceStopsAtTarget() {
+        PortfolioScheduler scheduler = createScheduler(createCourses());
+        scheduler.schedule();
+
+        ScheduleChromosome best = scheduler.getBestSolution();
+        assertNotNull(best);
+        assertEquals(14, best.getGenes().size());
+        assertEquals(0, TimetableEvaluator.of(best.getProblem(), best).getViolations());
+        assertTrue(scheduler.getIncumbent().isCancelled());
+        assertNotNull(scheduler.getIncumbent().getBest().source());
+
+        assertEquals(4, scheduler.getSolverRuns().size());
+        assertTrue(scheduler.getSolverRuns().stream().allMatch(PortfolioScheduler.SolverRun::completed));
+    }
+
+    @Test
+    @DisplayName("测试算法竞速 - 无可行解时在时间预算内结束并返回最优解")
+    void testRaceRespectsTimeBudget() {
+        // 同一教师12节课只有10个时间段，不存在无冲突解，回溯搜索无法自行结束
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            courses.add(course("C" + i, "T1", "K" + i, 3, 40));
+        }
+        PortfolioScheduler scheduler = createScheduler(courses);
+        portfolioConfig.setTimeBudgetSeconds(1);
+
+        long start = System.currentTimeMillis();
+        scheduler.schedule();
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed < 10_000, "超出时间预算后应尽快取消");
+        assertTrue(scheduler.getIncumbent().isCancelled());
+        ScheduleChromosome best = scheduler.getBestSolution();
+        assertNotNull(best);
+        assertEquals(2, best.getConstraintViolations());
+        assertEquals(TimetableEvaluator.of(best.getProblem(), best).getViolations(), best.getConstraintViolations());
+    }
+}